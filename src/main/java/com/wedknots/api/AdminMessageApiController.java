@@ -1,6 +1,5 @@
 package com.wedknots.api;
 
-import com.wedknots.dto.GuestMessageDTO;
 import com.wedknots.model.GuestMessage;
 import com.wedknots.model.WeddingEvent;
 import com.wedknots.service.MessageService;
@@ -162,58 +161,17 @@ public class AdminMessageApiController {
 
     /**
      * Get all conversations for an event
+     * Keyset-paginated summaries (guest, last message, unread count); threads load per guest
      */
     @GetMapping("/messages/event/{eventId}/conversations")
-    public ResponseEntity<?> getConversations(@PathVariable Long eventId) {
+    public ResponseEntity<?> getConversations(
+            @PathVariable Long eventId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "30") int limit) {
         try {
-            Map<Long, List<GuestMessage>> grouped =
-                messageService.getMessagesGroupedByGuest(eventId);
-
-            List<Map<String, Object>> conversations = grouped.entrySet().stream()
-                .map(entry -> {
-                    Map<String, Object> conv = new HashMap<>();
-                    Long guestId = entry.getKey();
-                    List<GuestMessage> messages = entry.getValue();
-
-                    // Get guest info from first message
-                    if (!messages.isEmpty()) {
-                        GuestMessage firstMsg = messages.get(0);
-                        com.wedknots.model.Guest guest = firstMsg.getGuest();
-
-                        conv.put("guestId", guestId);
-                        conv.put("guestName", guest != null ? 
-                            ((guest.getContactFirstName() != null ? guest.getContactFirstName() : "") + " " + 
-                             (guest.getContactLastName() != null ? guest.getContactLastName() : "")).trim() : "Unknown");
-                        conv.put("guestPhone", guest != null ? guest.getContactPhone() : "");
-
-                        GuestMessage last = messages.get(0); // Already sorted DESC
-                        conv.put("lastMessage", last.getMessageContent());
-                        conv.put("lastMessageTime", last.getCreatedAt());
-
-                        // Convert messages to DTOs to avoid circular references
-                        List<GuestMessageDTO> messageDTOs = messages.stream()
-                            .map(GuestMessageDTO::fromEntity)
-                            .collect(Collectors.toList());
-                        conv.put("messages", messageDTOs);
-                    }
-
-                    long unread = messages.stream()
-                        .filter(m -> m.getDirection() == GuestMessage.MessageDirection.INBOUND && !m.isRead())
-                        .count();
-                    conv.put("unreadCount", unread);
-
-                    return conv;
-                })
-                .sorted((a, b) -> {
-                    java.time.LocalDateTime timeA = (java.time.LocalDateTime) a.get("lastMessageTime");
-                    java.time.LocalDateTime timeB = (java.time.LocalDateTime) b.get("lastMessageTime");
-                    if (timeA == null) return 1;
-                    if (timeB == null) return -1;
-                    return timeB.compareTo(timeA);
-                })
-                .collect(Collectors.toList());
-
-            return ResponseEntity.ok(conversations);
+            return ResponseEntity.ok(messageService.getConversationSummaries(eventId, cursor, limit));
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor"));
         } catch (Exception e) {
             logger.error("Error loading conversations", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
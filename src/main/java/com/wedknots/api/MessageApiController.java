@@ -5,6 +5,7 @@ import com.wedknots.model.GuestMessage;
 import com.wedknots.dto.GuestMessageDTO;
 import com.wedknots.dto.PagedMessageResponse;
 import com.wedknots.model.WeddingEvent;
+import com.wedknots.service.GuestPhoneDirectory;
 import com.wedknots.service.MessageService;
 import com.wedknots.repository.GuestRepository;
 import com.wedknots.repository.WeddingEventRepository;
@@ -44,6 +45,9 @@ public class MessageApiController {
     @Autowired
     private GuestRepository guestRepository;
 
+    @Autowired
+    private GuestPhoneDirectory guestPhoneDirectory;
+
     /**
      * Host sends a message to a guest
      * POST /api/messages/send-to-guest
@@ -130,7 +134,8 @@ public class MessageApiController {
                 Authentication auth = SecurityContextHolder.getContext().getAuthentication();
                 String principal = auth != null ? auth.getName() : null;
                 if (principal != null) {
-                    guest = guestRepository.findByContactPhone(principal);
+                    guest = guestPhoneDirectory.findGuest(principal)
+                            .flatMap(guestRepository::findById).orElse(null);
                     if (guest == null) {
                         guest = guestRepository.findByContactEmail(principal);
                     }
@@ -208,7 +213,8 @@ public class MessageApiController {
                 Authentication auth = SecurityContextHolder.getContext().getAuthentication();
                 String principal = auth != null ? auth.getName() : null;
                 if (principal != null) {
-                    guest = guestRepository.findByContactPhone(principal);
+                    guest = guestPhoneDirectory.findGuest(principal)
+                            .flatMap(guestRepository::findById).orElse(null);
                     if (guest == null) {
                         guest = guestRepository.findByContactEmail(principal);
                     }
@@ -262,7 +268,8 @@ public class MessageApiController {
 
             Guest guest = guestRepository.findByContactEmail(guestIdentifier);
             if (guest == null) {
-                guest = guestRepository.findByContactPhone(guestIdentifier);
+                guest = guestPhoneDirectory.findGuestInEvent(eventId, guestIdentifier)
+                        .flatMap(guestRepository::findById).orElse(null);
             }
 
             if (guest == null || !guest.getEventId().equals(eventId)) {
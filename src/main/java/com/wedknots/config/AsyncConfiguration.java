@@ -32,5 +32,18 @@ public class AsyncConfiguration {
         executor.initialize();
         return executor;
     }
-}
 
+    /**
+     * Single thread that drains the delivery queue when woken by an enqueue
+     */
+    @Bean(name = "messageQueueDrainExecutor")
+    public Executor messageQueueDrainExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("msg-queue-drain-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -6,6 +6,9 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Configuration for message delivery system
  * Loads settings from application.yml
@@ -68,6 +71,8 @@ public class MessageDeliveryConfiguration {
         private WhatsAppAdbProperties whatsappAdb = new WhatsAppAdbProperties();
         private WhatsAppBusinessProperties whatsappBusiness = new WhatsAppBusinessProperties();
         private ExternalProperties external = new ExternalProperties();
+        private AsyncProperties async = new AsyncProperties();
+        private InternalProperties internal = new InternalProperties();
 
         // Getters
         public EmailProperties getEmail() {
@@ -98,11 +103,21 @@ public class MessageDeliveryConfiguration {
             return external;
         }
 
+        public AsyncProperties getAsync() {
+            return async;
+        }
+
+        public InternalProperties getInternal() {
+            return internal;
+        }
+
         // Inner classes
         public static class EmailProperties {
             private boolean enabled;
             private String senderEmail;
             private String senderName = "WedKnots";
+            private ThrottleProperties throttle = new ThrottleProperties(10, 20, 4, 500);
+            private RetryProperties retry = new RetryProperties(60, 3600);
 
             public boolean isEnabled() {
                 return enabled;
@@ -127,6 +142,22 @@ public class MessageDeliveryConfiguration {
             public void setSenderName(String senderName) {
                 this.senderName = senderName;
             }
+
+            public ThrottleProperties getThrottle() {
+                return throttle;
+            }
+
+            public void setThrottle(ThrottleProperties throttle) {
+                this.throttle = throttle;
+            }
+
+            public RetryProperties getRetry() {
+                return retry;
+            }
+
+            public void setRetry(RetryProperties retry) {
+                this.retry = retry;
+            }
         }
 
         public static class SMSProperties {
@@ -136,6 +167,8 @@ public class MessageDeliveryConfiguration {
             private String apiSecret;
             private String senderId;
             private String apiUrl;
+            private ThrottleProperties throttle = new ThrottleProperties(5, 10, 4, 500);
+            private RetryProperties retry = new RetryProperties(30, 1800);
 
             public boolean isEnabled() {
                 return enabled;
@@ -184,6 +217,22 @@ public class MessageDeliveryConfiguration {
             public void setApiUrl(String apiUrl) {
                 this.apiUrl = apiUrl;
             }
+
+            public ThrottleProperties getThrottle() {
+                return throttle;
+            }
+
+            public void setThrottle(ThrottleProperties throttle) {
+                this.throttle = throttle;
+            }
+
+            public RetryProperties getRetry() {
+                return retry;
+            }
+
+            public void setRetry(RetryProperties retry) {
+                this.retry = retry;
+            }
         }
 
         public static class WhatsAppProperties {
@@ -255,6 +304,179 @@ public class MessageDeliveryConfiguration {
             }
         }
 
+        /**
+         * Per-channel rate limit (token bucket) and bulkhead (concurrent sends + waiting queue)
+         */
+        public static class ThrottleProperties {
+            private double ratePerSecond;      // 0 = unlimited
+            private int burst;
+            private int maxConcurrent;
+            private int maxQueued;
+
+            public ThrottleProperties() {
+                this(0, 1, 4, 500);
+            }
+
+            public ThrottleProperties(double ratePerSecond, int burst, int maxConcurrent, int maxQueued) {
+                this.ratePerSecond = ratePerSecond;
+                this.burst = burst;
+                this.maxConcurrent = maxConcurrent;
+                this.maxQueued = maxQueued;
+            }
+
+            public double getRatePerSecond() {
+                return ratePerSecond;
+            }
+
+            public void setRatePerSecond(double ratePerSecond) {
+                this.ratePerSecond = ratePerSecond;
+            }
+
+            public int getBurst() {
+                return burst;
+            }
+
+            public void setBurst(int burst) {
+                this.burst = burst;
+            }
+
+            public int getMaxConcurrent() {
+                return maxConcurrent;
+            }
+
+            public void setMaxConcurrent(int maxConcurrent) {
+                this.maxConcurrent = maxConcurrent;
+            }
+
+            public int getMaxQueued() {
+                return maxQueued;
+            }
+
+            public void setMaxQueued(int maxQueued) {
+                this.maxQueued = maxQueued;
+            }
+        }
+
+        /**
+         * Per-channel retry backoff: decorrelated jitter between the base delay and the cap
+         */
+        public static class RetryProperties {
+            private long baseDelaySeconds;
+            private long maxDelaySeconds;
+
+            public RetryProperties() {
+                this(60, 3600);
+            }
+
+            public RetryProperties(long baseDelaySeconds, long maxDelaySeconds) {
+                this.baseDelaySeconds = baseDelaySeconds;
+                this.maxDelaySeconds = maxDelaySeconds;
+            }
+
+            public long getBaseDelaySeconds() {
+                return baseDelaySeconds;
+            }
+
+            public void setBaseDelaySeconds(long baseDelaySeconds) {
+                this.baseDelaySeconds = baseDelaySeconds;
+            }
+
+            public long getMaxDelaySeconds() {
+                return maxDelaySeconds;
+            }
+
+            public void setMaxDelaySeconds(long maxDelaySeconds) {
+                this.maxDelaySeconds = maxDelaySeconds;
+            }
+        }
+
+        public static class InternalProperties {
+            private ThrottleProperties throttle = new ThrottleProperties();
+            private RetryProperties retry = new RetryProperties(10, 600);
+
+            public ThrottleProperties getThrottle() {
+                return throttle;
+            }
+
+            public void setThrottle(ThrottleProperties throttle) {
+                this.throttle = throttle;
+            }
+
+            public RetryProperties getRetry() {
+                return retry;
+            }
+
+            public void setRetry(RetryProperties retry) {
+                this.retry = retry;
+            }
+        }
+
+        public static class AsyncProperties {
+            private boolean enabled = true;
+            private int batchSize = 10;
+            private int stuckMessageTimeoutMinutes = 30;
+            private int maxRetries = 3;
+            private String nodeId;
+            private boolean sharedBodies = true;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            /**
+             * Lease length of a claimed message; an unfinished claim is released after this
+             */
+            public int getStuckMessageTimeoutMinutes() {
+                return stuckMessageTimeoutMinutes;
+            }
+
+            public void setStuckMessageTimeoutMinutes(int stuckMessageTimeoutMinutes) {
+                this.stuckMessageTimeoutMinutes = stuckMessageTimeoutMinutes;
+            }
+
+            public int getMaxRetries() {
+                return maxRetries;
+            }
+
+            public void setMaxRetries(int maxRetries) {
+                this.maxRetries = maxRetries;
+            }
+
+            /**
+             * Owner ID written to claimed queue rows; generated per JVM when blank
+             */
+            public String getNodeId() {
+                return nodeId;
+            }
+
+            public void setNodeId(String nodeId) {
+                this.nodeId = nodeId;
+            }
+
+            /**
+             * Queue bulk sends as a shared message body plus per-recipient bindings instead of rendered text
+             */
+            public boolean isSharedBodies() {
+                return sharedBodies;
+            }
+
+            public void setSharedBodies(boolean sharedBodies) {
+                this.sharedBodies = sharedBodies;
+            }
+        }
+
         public static class WhatsAppPersonalProperties {
             private boolean enabled;
             private SeleniumProperties selenium = new SeleniumProperties();
@@ -327,10 +549,14 @@ public class MessageDeliveryConfiguration {
         public static class WhatsAppAdbProperties {
             private boolean enabled;
             private String deviceId;
+            private List<String> deviceIds = new ArrayList<>();
+            private String assignment = "least-loaded"; // least-loaded or round-robin
             private String adbPath;
             private int timeoutSeconds = 30;
             private int humanDelayMinMs = 500;
             private int humanDelayMaxMs = 2000;
+            private ThrottleProperties throttle = new ThrottleProperties(0.2, 1, 1, 2000);
+            private RetryProperties retry = new RetryProperties(120, 3600);
 
             public boolean isEnabled() {
                 return enabled;
@@ -348,6 +574,22 @@ public class MessageDeliveryConfiguration {
                 this.deviceId = deviceId;
             }
 
+            public List<String> getDeviceIds() {
+                return deviceIds;
+            }
+
+            public void setDeviceIds(List<String> deviceIds) {
+                this.deviceIds = deviceIds;
+            }
+
+            public String getAssignment() {
+                return assignment;
+            }
+
+            public void setAssignment(String assignment) {
+                this.assignment = assignment;
+            }
+
             public String getAdbPath() {
                 return adbPath;
             }
@@ -379,6 +621,22 @@ public class MessageDeliveryConfiguration {
             public void setHumanDelayMaxMs(int humanDelayMaxMs) {
                 this.humanDelayMaxMs = humanDelayMaxMs;
             }
+
+            public ThrottleProperties getThrottle() {
+                return throttle;
+            }
+
+            public void setThrottle(ThrottleProperties throttle) {
+                this.throttle = throttle;
+            }
+
+            public RetryProperties getRetry() {
+                return retry;
+            }
+
+            public void setRetry(RetryProperties retry) {
+                this.retry = retry;
+            }
         }
 
         public static class WhatsAppBusinessProperties {
@@ -117,6 +117,7 @@ public class SecurityConfig {
                 .requestMatchers("/admin/**").hasRole("ADMIN")
                 .requestMatchers("/events/**").hasAnyRole("ADMIN", "HOST")  // Events management for ADMIN and HOST
                 .requestMatchers("/event-image/**").permitAll()  // Allow public access to event images
+                .requestMatchers("/media/**").permitAll()  // Content-addressed media, unguessable SHA-256 URLs
                 .requestMatchers("/host/**").hasRole("HOST")
                 .requestMatchers("/guest/**").hasRole("GUEST")
                 .requestMatchers("/invitations/**").hasRole("GUEST")  // Guest invitations require GUEST role
@@ -1,22 +1,49 @@
 package com.wedknots.config;
 
+import com.wedknots.web.GuestContextArgumentResolver;
 import com.wedknots.web.TrafficLoggingInterceptor;
+import jakarta.persistence.EntityManagerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
     @Autowired
     private TrafficLoggingInterceptor trafficLoggingInterceptor;
 
+    @Autowired
+    private GuestContextArgumentResolver guestContextArgumentResolver;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(trafficLoggingInterceptor)
                 .addPathPatterns("/**");
+
+        // Open session in view (spring.jpa.open-in-view is off so that it can be scoped here).
+        // Guest read pages load everything they render in their handler queries; without a session
+        // in view a lazy load from their templates fails instead of quietly adding queries.
+        OpenEntityManagerInViewInterceptor openEntityManagerInView = new OpenEntityManagerInViewInterceptor();
+        openEntityManagerInView.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(openEntityManagerInView)
+                .addPathPatterns("/**")
+                .excludePathPatterns("/guest/dashboard", "/guest/messages/**",
+                        "/invitations", "/invitations/{invitationId:\\d+}");
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(guestContextArgumentResolver);
     }
 
     @Override
@@ -0,0 +1,70 @@
+package com.wedknots.config;
+
+import com.wedknots.service.InboxPushService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+import java.security.Principal;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * STOMP over WebSocket for inbox push updates
+ * Uses the in-memory simple broker; subscriptions to /topic/events/{eventId}/inbox are
+ * checked against the user of the HTTP session that opened the socket.
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private static final Pattern INBOX_TOPIC = Pattern.compile("^/topic/events/(\\d+)/inbox$");
+
+    @Autowired
+    @Lazy
+    private InboxPushService inboxPushService;
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws/inbox");
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/topic");
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                if (accessor == null || accessor.getCommand() != StompCommand.SUBSCRIBE) {
+                    return message;
+                }
+                String destination = accessor.getDestination();
+                Matcher matcher = destination != null ? INBOX_TOPIC.matcher(destination) : null;
+                Principal user = accessor.getUser();
+                if (matcher == null || !matcher.matches() || !(user instanceof Authentication auth)
+                        || !inboxPushService.canAccess(auth, Long.valueOf(matcher.group(1)))) {
+                    throw new AccessDeniedException("Not allowed to subscribe to " + destination);
+                }
+                return message;
+            }
+        });
+    }
+}
@@ -1,33 +1,180 @@
 package com.wedknots.controller;
 
+import com.wedknots.service.ImageDerivativeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
+/**
+ * Serves event images with HTTP caching
+ * Per-image metadata (content type, length, last modified, content-hash ETag) is kept in a
+ * bounded LRU map and recomputed after a TTL; missing files are not cached. Conditional
+ * requests (If-None-Match / If-Modified-Since) get a 304, and Range requests get partial
+ * content through Spring's Resource region support. A full original is sent with the cached
+ * Content-Length, so the classpath resource is not opened again just to measure it.
+ */
 @RestController
 public class EventImageController {
+    private static final Logger logger = LoggerFactory.getLogger(EventImageController.class);
+    private static final Pattern EVENT_ID = Pattern.compile("\\d+");
+    private static final Pattern FILENAME = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]*");
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic();
+
+    /**
+     * Cached facts about one image file
+     */
+    private record ImageMetadata(ClassPathResource resource, MediaType mediaType, String etag,
+                                 long lastModified, long contentLength, long expiresAt) {
+    }
+
+    // Keyed by classpath location
+    private final Map<String, ImageMetadata> metadataCache;
+    private final long ttlMillis;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    public EventImageController(@Value("${media.event-images.metadata-cache-size:1000}") int maxEntries,
+                                @Value("${media.event-images.metadata-ttl-seconds:600}") long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.metadataCache = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ImageMetadata> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Serve an event image; with ?w= the smallest generated variant at least that wide
+     */
     @GetMapping("/event-image/{eventId}/{filename:.+}")
-    public ResponseEntity<Resource> getEventImage(@PathVariable String eventId, @PathVariable String filename) {
+    public ResponseEntity<Resource> getEventImage(@PathVariable String eventId, @PathVariable String filename,
+                                                  @RequestParam(name = "w", required = false) Integer width,
+                                                  WebRequest request) {
+        if (!EVENT_ID.matcher(eventId).matches() || !FILENAME.matcher(filename).matches()) {
+            return ResponseEntity.notFound().build();
+        }
         String resourcePath = "templates/events/" + eventId + "/" + filename;
+        Optional<ImageMetadata> cached = getMetadata(resourcePath);
+        if (cached.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        ImageMetadata metadata = cached.get();
+
+        Optional<ImageDerivativeService.Variant> variant = width != null && width > 0
+                ? ImageDerivativeService.Variant.forWidth(width) : Optional.empty();
+        String etag = variant.map(v -> metadata.etag().replaceFirst("\"$", "-" + v.getWidth() + "\""))
+                .orElse(metadata.etag());
+        if (request.checkNotModified(etag, metadata.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CACHE_CONTROL)
+                    .build();
+        }
+
+        if (variant.isPresent()) {
+            Optional<ImageDerivativeService.Derivative> derivative = imageDerivativeService.getDerivative(
+                    "classpath:" + resourcePath + "@" + metadata.etag(), metadata.resource()::getInputStream,
+                    metadata.mediaType().toString(), width);
+            if (derivative.isPresent()) {
+                return ResponseEntity.ok()
+                        .eTag(etag)
+                        .lastModified(metadata.lastModified())
+                        .cacheControl(CACHE_CONTROL)
+                        .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                        .contentType(MediaType.parseMediaType(derivative.get().contentType()))
+                        .body(new FileSystemResource(derivative.get().path()));
+            }
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(metadata.lastModified())
+                .cacheControl(CACHE_CONTROL)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(metadata.mediaType());
+        if (request.getHeader(HttpHeaders.RANGE) == null) {
+            // Partial responses are measured per region by Spring instead
+            response.contentLength(metadata.contentLength());
+        }
+        return response.body(metadata.resource());
+    }
+
+    private Optional<ImageMetadata> getMetadata(String resourcePath) {
+        long now = System.currentTimeMillis();
+        synchronized (metadataCache) {
+            ImageMetadata cached = metadataCache.get(resourcePath);
+            if (cached != null && now < cached.expiresAt()) {
+                return Optional.of(cached);
+            }
+        }
+
+        Optional<ImageMetadata> loaded = loadMetadata(resourcePath);
+        synchronized (metadataCache) {
+            if (loaded.isPresent()) {
+                metadataCache.put(resourcePath, loaded.get());
+            } else {
+                metadataCache.remove(resourcePath);
+            }
+        }
+        return loaded;
+    }
+
+    private Optional<ImageMetadata> loadMetadata(String resourcePath) {
         ClassPathResource resource = new ClassPathResource(resourcePath);
         if (!resource.exists()) {
-            return ResponseEntity.notFound().build();
+            return Optional.empty();
         }
         MediaType mediaType = MediaType.APPLICATION_OCTET_STREAM;
-        String lower = filename.toLowerCase();
+        String lower = resourcePath.toLowerCase();
         if (lower.endsWith(".png")) mediaType = MediaType.IMAGE_PNG;
         else if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) mediaType = MediaType.IMAGE_JPEG;
         else if (lower.endsWith(".gif")) mediaType = MediaType.IMAGE_GIF;
-        return ResponseEntity.ok()
-                .contentType(mediaType)
-                .body(resource);
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long length = 0;
+            try (InputStream in = new DigestInputStream(resource.getInputStream(), digest)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    length += read;
+                }
+            }
+            String etag = "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+            // HTTP dates have second precision
+            long lastModified = resource.lastModified() / 1000 * 1000;
+            return Optional.of(new ImageMetadata(resource, mediaType, etag, lastModified, length,
+                    System.currentTimeMillis() + ttlMillis));
+        } catch (IOException | NoSuchAlgorithmException e) {
+            logger.warn("Could not read event image {}: {}", resourcePath, e.getMessage());
+            return Optional.empty();
+        }
     }
 }
@@ -0,0 +1,99 @@
+package com.wedknots.controller;
+
+import com.wedknots.model.MediaObject;
+import com.wedknots.service.ImageDerivativeService;
+import com.wedknots.service.MediaStoreService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.file.Files;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams content-addressed media from MediaStoreService
+ * Content never changes for a given hash, so the hash is a strong ETag and responses are
+ * cacheable for a year as immutable. Range requests are handled by Spring for Resource bodies.
+ * ?w= selects a resized variant from ImageDerivativeService.
+ * Responses carry nosniff and a sandbox CSP; anything that is not a known image type is
+ * served as an octet-stream attachment so it can never render as a page on this origin.
+ */
+@RestController
+public class MediaController {
+
+    @Autowired
+    private MediaStoreService mediaStoreService;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @GetMapping("/media/{sha256:[0-9a-f]{64}}")
+    public ResponseEntity<Resource> getMedia(@PathVariable String sha256,
+                                             @RequestParam(name = "w", required = false) Integer width,
+                                             WebRequest request) {
+        // Each width variant is its own representation, so it gets its own ETag
+        Optional<ImageDerivativeService.Variant> variant = width != null && width > 0
+                ? ImageDerivativeService.Variant.forWidth(width) : Optional.empty();
+        String etag = "\"" + sha256 + variant.map(v -> "-" + v.getWidth()).orElse("") + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+
+        Optional<MediaObject> media = mediaStoreService.find(sha256);
+        if (media.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (variant.isPresent()) {
+            Optional<ImageDerivativeService.Derivative> derivative = imageDerivativeService.getDerivative(
+                    sha256, () -> Files.newInputStream(mediaStoreService.pathOf(sha256)),
+                    media.get().getContentType(), width);
+            if (derivative.isPresent() && MediaStoreService.isInlineImage(derivative.get().contentType())) {
+                return ResponseEntity.ok()
+                        .headers(safeHeaders())
+                        .eTag(etag)
+                        .cacheControl(cacheControl)
+                        .contentType(MediaType.parseMediaType(derivative.get().contentType()))
+                        .contentLength(derivative.get().size())
+                        .body(new FileSystemResource(derivative.get().path()));
+            }
+        }
+
+        HttpHeaders headers = safeHeaders();
+        MediaType contentType;
+        if (MediaStoreService.isInlineImage(media.get().getContentType())) {
+            contentType = MediaType.parseMediaType(media.get().getContentType());
+        } else {
+            // Stored before uploads were restricted to images
+            contentType = MediaType.APPLICATION_OCTET_STREAM;
+            headers.setContentDisposition(ContentDisposition.attachment().filename(sha256).build());
+        }
+        return ResponseEntity.ok()
+                .headers(headers)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(contentType)
+                .contentLength(media.get().getSizeBytes())
+                .body(new FileSystemResource(mediaStoreService.pathOf(sha256)));
+    }
+
+    private HttpHeaders safeHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Content-Type-Options", "nosniff");
+        headers.set("Content-Security-Policy", "sandbox");
+        return headers;
+    }
+}
@@ -11,6 +11,7 @@ public class DeliveryResult {
     private String status;
     private String errorMessage;
     private String timestamp;
+    private boolean permanentFailure; // Retrying cannot succeed (e.g. invalid number)
 
     // Constructors
     public DeliveryResult() {}
@@ -29,6 +30,15 @@ public class DeliveryResult {
         this.status = success ? "DELIVERED" : "FAILED";
     }
 
+    /**
+     * Failure that must not be retried, such as an invalid recipient
+     */
+    public static DeliveryResult permanentFailure(DeliveryMode deliveryMode, String errorMessage) {
+        DeliveryResult result = new DeliveryResult(false, deliveryMode, errorMessage);
+        result.setPermanentFailure(true);
+        return result;
+    }
+
     // Getters and Setters
     public boolean isSuccess() {
         return success;
@@ -77,5 +87,12 @@ public class DeliveryResult {
     public void setTimestamp(String timestamp) {
         this.timestamp = timestamp;
     }
-}
 
+    public boolean isPermanentFailure() {
+        return permanentFailure;
+    }
+
+    public void setPermanentFailure(boolean permanentFailure) {
+        this.permanentFailure = permanentFailure;
+    }
+}
@@ -0,0 +1,86 @@
+package com.wedknots.delivery;
+
+import com.wedknots.model.MessageBody;
+import com.wedknots.repository.MessageBodyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content-addressed store of shared message bodies
+ * Bodies are immutable, so the ones read by delivery workers are cached in memory.
+ */
+@Service
+public class MessageBodyStore {
+    private static final Logger logger = LoggerFactory.getLogger(MessageBodyStore.class);
+    private static final int MAX_CACHED_BODIES = 256;
+
+    @Autowired
+    private MessageBodyRepository messageBodyRepository;
+
+    private final Map<String, MessageBody> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Store a title/content template pair, reusing the existing row for identical text
+     */
+    public MessageBody store(String title, String content) {
+        // Always checked against the table: a cached body may come from a transaction that rolled back
+        String sha = hash(title, content);
+        Optional<MessageBody> existing = messageBodyRepository.findById(sha);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        // Two batches queueing the same text may both get here; the loser's insert is a no-op
+        if (messageBodyRepository.insertIfAbsent(sha, title, content, LocalDateTime.now()) > 0) {
+            logger.info("Stored message body {}", sha);
+        }
+        return messageBodyRepository.findById(sha)
+                .orElseThrow(() -> new IllegalStateException("Message body " + sha + " missing after insert"));
+    }
+
+    /**
+     * Body of a queued message, from memory when it has been read before
+     */
+    public Optional<MessageBody> find(String sha) {
+        MessageBody cached = cache.get(sha);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<MessageBody> body = messageBodyRepository.findById(sha);
+        body.ifPresent(this::remember);
+        return body;
+    }
+
+    /**
+     * SHA-256 of a title and content, used both for body ids and for the audit hash of rendered messages
+     */
+    public static String hash(String title, String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // Length-prefixed so that moving text between title and content changes the hash
+            String safeTitle = title != null ? title : "";
+            digest.update((safeTitle.length() + ":" + safeTitle).getBytes(StandardCharsets.UTF_8));
+            digest.update((content != null ? content : "").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void remember(MessageBody body) {
+        if (cache.size() >= MAX_CACHED_BODIES) {
+            cache.clear();
+        }
+        cache.put(body.getSha256(), body);
+    }
+}
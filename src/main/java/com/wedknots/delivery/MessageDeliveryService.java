@@ -1,21 +1,30 @@
 package com.wedknots.delivery;
 
+import com.wedknots.config.MessageDeliveryConfiguration;
+import com.wedknots.delivery.async.MessageQueuedEvent;
+import com.wedknots.delivery.async.QueueNotificationListener;
 import com.wedknots.delivery.provider.*;
 import com.wedknots.model.Guest;
 import com.wedknots.model.GuestMessage;
+import com.wedknots.model.MessageBody;
 import com.wedknots.model.MessageDeliveryQueue;
 import com.wedknots.repository.MessageDeliveryQueueRepository;
+import com.wedknots.template.CompiledTemplate;
+import com.wedknots.template.TemplateBindings;
 import com.wedknots.template.TemplateVariableProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -51,6 +60,18 @@ public class MessageDeliveryService {
     @Autowired
     private TemplateVariableProcessor templateProcessor;
 
+    @Autowired
+    private MessageBodyStore messageBodyStore;
+
+    @Autowired
+    private MessageDeliveryConfiguration.DeliveryProperties deliveryProperties;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private QueueNotificationListener queueNotificationListener;
+
     /**
      * Send a message/invitation synchronously (immediate delivery)
      * If email is not available, automatically falls back to SMS
@@ -96,47 +117,113 @@ public class MessageDeliveryService {
      */
     public String queueMessage(DeliveryRequest request, LocalDateTime scheduledAt, Integer priority) {
         try {
-            // Process template variables before queueing
-            request = processTemplateVariables(request);
+            MessageDeliveryQueue queueItem = buildQueueItem(request, scheduledAt, priority);
+            queueRepository.save(queueItem);
 
-            MessageDeliveryQueue queueItem = new MessageDeliveryQueue();
+            // Wake delivery processors once this transaction commits: locally via the
+            // after-commit event, on other nodes via PostgreSQL NOTIFY
+            eventPublisher.publishEvent(new MessageQueuedEvent(queueItem.getId(), queueItem.getMessageId()));
+            queueNotificationListener.notifyQueued();
 
-            // Generate message ID if not provided
-            String messageId = request.getMessageId();
-            if (messageId == null || messageId.isEmpty()) {
-                messageId = UUID.randomUUID().toString();
-            }
+            logger.info("✅ Message queued for async delivery - ID: {}, Queue ID: {}",
+                queueItem.getMessageId(), queueItem.getId());
 
-            queueItem.setMessageId(messageId);
-            queueItem.setMessageType(request.getMessageType());
-            queueItem.setGuest(request.getRecipient());
-            queueItem.setEvent(request.getEvent());
-            queueItem.setTitle(request.getTitle());  // Already processed
-            queueItem.setContent(request.getContent());  // Already processed
+            return queueItem.getMessageId();
 
-            if (request.getPreferredMode() != null) {
-                queueItem.setPreferredMode(request.getPreferredMode().getCode());
-            }
+        } catch (Exception e) {
+            logger.error("Failed to queue message", e);
+            throw new RuntimeException("Failed to queue message: " + e.getMessage(), e);
+        }
+    }
 
-            if (scheduledAt != null) {
-                queueItem.setScheduledAt(scheduledAt);
-            }
+    /**
+     * Queue a set of messages with batched inserts and a single wake-up
+     * Joins the caller's transaction, so the whole set is enqueued or none of it is.
+     * With delivery.async.shared-bodies, requests sharing a title and content store that text once
+     * and each row only keeps the recipient's variable values; the worker renders just in time.
+     * @return message IDs in request order
+     */
+    public List<String> queueMessagesInBatch(List<DeliveryRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
 
-            if (priority != null) {
-                queueItem.setPriority(priority);
-            }
+        boolean sharedBodies = deliveryProperties.getAsync().isSharedBodies();
+        Map<String, MessageBody> bodies = new HashMap<>();
+        List<MessageDeliveryQueue> queueItems = new ArrayList<>(requests.size());
+        for (DeliveryRequest request : requests) {
+            queueItems.add(sharedBodies ? buildSharedBodyQueueItem(request, bodies) : buildQueueItem(request, null, null));
+        }
+        queueRepository.saveAll(queueItems);
 
-            queueRepository.save(queueItem);
+        MessageDeliveryQueue last = queueItems.get(queueItems.size() - 1);
+        eventPublisher.publishEvent(new MessageQueuedEvent(last.getId(), last.getMessageId()));
+        queueNotificationListener.notifyQueued();
 
-            logger.info("✅ Message queued for async delivery - ID: {}, Queue ID: {}",
-                messageId, queueItem.getId());
+        logger.info("✅ {} messages queued for async delivery", queueItems.size());
+        return queueItems.stream().map(MessageDeliveryQueue::getMessageId).toList();
+    }
 
-            return messageId;
+    private MessageDeliveryQueue buildQueueItem(DeliveryRequest request, LocalDateTime scheduledAt, Integer priority) {
+        // Process template variables before queueing
+        request = processTemplateVariables(request);
 
-        } catch (Exception e) {
-            logger.error("Failed to queue message", e);
-            throw new RuntimeException("Failed to queue message: " + e.getMessage(), e);
+        MessageDeliveryQueue queueItem = new MessageDeliveryQueue();
+
+        // Generate message ID if not provided
+        String messageId = request.getMessageId();
+        if (messageId == null || messageId.isEmpty()) {
+            messageId = UUID.randomUUID().toString();
+        }
+
+        queueItem.setMessageId(messageId);
+        queueItem.setMessageType(request.getMessageType());
+        queueItem.setGuest(request.getRecipient());
+        queueItem.setEvent(request.getEvent());
+        queueItem.setTitle(request.getTitle());  // Already processed
+        queueItem.setContent(request.getContent());  // Already processed
+        queueItem.setContentSha256(MessageBodyStore.hash(request.getTitle(), request.getContent()));
+
+        if (request.getPreferredMode() != null) {
+            queueItem.setPreferredMode(request.getPreferredMode().getCode());
+        }
+
+        if (scheduledAt != null) {
+            queueItem.setScheduledAt(scheduledAt);
+        }
+
+        if (priority != null) {
+            queueItem.setPriority(priority);
+        }
+        return queueItem;
+    }
+
+    /**
+     * Queue row referencing a shared body plus the recipient's bindings
+     * The final text is rendered here once only to record its hash; the worker re-renders and checks it
+     */
+    private MessageDeliveryQueue buildSharedBodyQueueItem(DeliveryRequest request, Map<String, MessageBody> bodies) {
+        MessageBody body = bodies.computeIfAbsent(MessageBodyStore.hash(request.getTitle(), request.getContent()),
+                sha -> messageBodyStore.store(request.getTitle(), request.getContent()));
+
+        CompiledTemplate title = templateProcessor.compile(body.getTitle() != null ? body.getTitle() : "");
+        CompiledTemplate content = templateProcessor.compile(body.getContent() != null ? body.getContent() : "");
+        Map<String, String> bindings = templateProcessor.bind(request.getEvent(), request.getRecipient(), title, content);
+
+        MessageDeliveryQueue queueItem = new MessageDeliveryQueue();
+        queueItem.setMessageId(request.getMessageId() != null && !request.getMessageId().isEmpty()
+                ? request.getMessageId() : UUID.randomUUID().toString());
+        queueItem.setMessageType(request.getMessageType());
+        queueItem.setGuest(request.getRecipient());
+        queueItem.setEvent(request.getEvent());
+        queueItem.setBodySha256(body.getSha256());
+        queueItem.setBindings(TemplateBindings.encode(bindings));
+        queueItem.setContentSha256(MessageBodyStore.hash(title.render(bindings), content.render(bindings)));
+
+        if (request.getPreferredMode() != null) {
+            queueItem.setPreferredMode(request.getPreferredMode().getCode());
         }
+        return queueItem;
     }
 
     /**
@@ -302,7 +389,7 @@ public class MessageDeliveryService {
         }
         if (request.getRecipient() == null || request.getRecipient().getPhoneNumbers() == null || request.getRecipient().getPhoneNumbers().isEmpty()) {
             logger.warn("No phone numbers for recipient, cannot deliver via {}", mode.getCode());
-            return new DeliveryResult(false, mode, "No phone numbers");
+            return DeliveryResult.permanentFailure(mode, "No phone numbers");
         }
         DeliveryResult lastResult = null;
         for (var phone : request.getRecipient().getPhoneNumbers()) {
@@ -1,20 +1,42 @@
 package com.wedknots.delivery.async;
 
+import com.wedknots.config.MessageDeliveryConfiguration;
 import com.wedknots.delivery.*;
 import com.wedknots.delivery.provider.*;
+import com.wedknots.dto.InboxUpdate;
+import com.wedknots.model.Guest;
+import com.wedknots.model.MessageBody;
 import com.wedknots.model.MessageDeliveryQueue;
+import com.wedknots.model.WeddingEvent;
 import com.wedknots.repository.MessageDeliveryQueueRepository;
+import com.wedknots.service.InboxPushService;
+import com.wedknots.template.TemplateBindings;
+import com.wedknots.template.TemplateVariableProcessor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Asynchronous message delivery processor
@@ -24,12 +46,42 @@ import java.util.List;
 @Slf4j
 public class AsyncMessageProcessor {
     private static final Logger logger = LoggerFactory.getLogger(AsyncMessageProcessor.class);
-    private static final int BATCH_SIZE = 10;
-    private static final int STUCK_MESSAGE_TIMEOUT_MINUTES = 30;
+    private static final int CHANNEL_FULL_DEFER_SECONDS = 30;
+    private static final int LEASE_RENEWAL_CHUNK = 500;
 
     @Autowired
     private MessageDeliveryQueueRepository queueRepository;
 
+    @Autowired
+    private MessageQueueClaimer queueClaimer;
+
+    @Autowired
+    private DeliveryChannelGovernor channelGovernor;
+
+    @Autowired
+    private InboxPushService inboxPushService;
+
+    @Autowired
+    private RetryPolicyRegistry retryPolicies;
+
+    @Autowired
+    private MessageDeliveryConfiguration.DeliveryProperties deliveryProperties;
+
+    @Lazy
+    @Autowired
+    private AsyncMessageProcessor self;
+
+    @Autowired
+    @Qualifier("messageQueueDrainExecutor")
+    private Executor drainExecutor;
+
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean executorSaturated = new AtomicBoolean();
+
+    // Claimed messages handed to a channel lane and not yet sent; their leases are kept alive
+    private final Set<Long> inLanes = ConcurrentHashMap.newKeySet();
+
     @Autowired
     private EmailDeliveryProvider emailProvider;
 
@@ -45,51 +97,97 @@ public class AsyncMessageProcessor {
     @Autowired
     private DeliveryConfig deliveryConfig;
 
+    @Autowired
+    private MessageBodyStore messageBodyStore;
+
+    @Autowired
+    private TemplateVariableProcessor templateProcessor;
+
     /**
-     * Process pending messages from the queue
-     * Runs every 10 seconds
+     * Safety-net poll for pending messages
+     * New messages normally wake the processor immediately (see {@link #onMessageQueued});
+     * this slow poll covers scheduled messages and missed notifications
      */
-    @Scheduled(fixedDelay = 10000, initialDelay = 5000)
-    @Transactional
+    @Scheduled(fixedDelayString = "${delivery.async.processing-interval-seconds:60}",
+            initialDelay = 5, timeUnit = TimeUnit.SECONDS)
     public void processPendingMessages() {
         try {
-            List<MessageDeliveryQueue> pendingMessages = queueRepository.findPendingMessages(LocalDateTime.now());
+            drainPendingMessages();
+        } catch (Exception e) {
+            logger.error("Error processing pending messages", e);
+        }
+    }
 
-            if (!pendingMessages.isEmpty()) {
-                logger.info("Found {} pending messages to process", pendingMessages.size());
+    /**
+     * Wake the processor after an enqueue transaction commits on this node
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessageQueued(MessageQueuedEvent event) {
+        wakeUp();
+    }
 
-                int processed = 0;
-                for (MessageDeliveryQueue queuedMessage : pendingMessages) {
-                    if (processed >= BATCH_SIZE) {
-                        logger.info("Batch limit reached ({}), will process remaining in next cycle", BATCH_SIZE);
-                        break;
-                    }
+    /**
+     * Request an immediate drain of the pending queue
+     * Wake-ups arriving while a drain is running are coalesced into one more pass
+     */
+    public void wakeUp() {
+        wakeRequested.set(true);
+        if (draining.compareAndSet(false, true)) {
+            try {
+                drainExecutor.execute(this::drainLoop);
+            } catch (TaskRejectedException e) {
+                draining.set(false);
+            }
+        }
+    }
 
-                    processMessageAsync(queuedMessage.getId());
-                    processed++;
-                }
+    private void drainLoop() {
+        try {
+            while (wakeRequested.getAndSet(false)) {
+                drainPendingMessages();
             }
         } catch (Exception e) {
-            logger.error("Error processing pending messages", e);
+            logger.error("Error draining pending messages", e);
+        } finally {
+            draining.set(false);
+        }
+        // A wake-up may have arrived between the last check and clearing the flag
+        if (wakeRequested.get()) {
+            wakeUp();
         }
     }
 
     /**
-     * Process messages that need retry
-     * Runs every 30 seconds
+     * Claim and dispatch full batches until the queue is empty or the executor is saturated
      */
-    @Scheduled(fixedDelay = 30000, initialDelay = 15000)
-    @Transactional
+    private void drainPendingMessages() {
+        int batchSize = deliveryProperties.getAsync().getBatchSize();
+        while (true) {
+            List<Long> claimed = queueClaimer.claimPending(batchSize);
+            if (claimed.isEmpty()) {
+                return;
+            }
+
+            logger.info("Claimed {} pending messages to process", claimed.size());
+            if (!dispatch(claimed) || claimed.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Claim and dispatch messages that need retry
+     * Runs every 30 seconds by default
+     */
+    @Scheduled(fixedDelayString = "${delivery.async.retry-interval-seconds:30}",
+            initialDelay = 15, timeUnit = TimeUnit.SECONDS)
     public void processRetryMessages() {
         try {
-            List<MessageDeliveryQueue> retryMessages = queueRepository.findMessagesForRetry(LocalDateTime.now());
+            List<Long> claimed = queueClaimer.claimRetries(deliveryProperties.getAsync().getBatchSize());
 
-            if (!retryMessages.isEmpty()) {
-                logger.info("Found {} messages for retry", retryMessages.size());
-
-                for (MessageDeliveryQueue queuedMessage : retryMessages) {
-                    processMessageAsync(queuedMessage.getId());
-                }
+            if (!claimed.isEmpty()) {
+                logger.info("Claimed {} messages for retry", claimed.size());
+                dispatch(claimed);
             }
         } catch (Exception e) {
             logger.error("Error processing retry messages", e);
@@ -97,24 +195,16 @@ public class AsyncMessageProcessor {
     }
 
     /**
-     * Recover stuck messages
+     * Recover stuck messages whose claim lease has expired
      * Runs every 5 minutes
      */
     @Scheduled(fixedDelay = 300000, initialDelay = 60000)
-    @Transactional
     public void recoverStuckMessages() {
         try {
-            LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(STUCK_MESSAGE_TIMEOUT_MINUTES);
-            List<MessageDeliveryQueue> stuckMessages = queueRepository.findStuckMessages(cutoffTime);
-
-            if (!stuckMessages.isEmpty()) {
-                logger.warn("Found {} stuck messages, resetting to PENDING", stuckMessages.size());
+            int released = queueClaimer.releaseExpiredClaims();
 
-                for (MessageDeliveryQueue message : stuckMessages) {
-                    message.setStatus("PENDING");
-                    message.setProcessingStartedAt(null);
-                    queueRepository.save(message);
-                }
+            if (released > 0) {
+                logger.warn("Released {} stuck messages with expired claims back to the queue", released);
             }
         } catch (Exception e) {
             logger.error("Error recovering stuck messages", e);
@@ -122,7 +212,68 @@ public class AsyncMessageProcessor {
     }
 
     /**
-     * Process a single message asynchronously
+     * Renew the leases of claimed messages still waiting in a channel lane
+     * A slow lane (ADB) can hold a message longer than one lease; without renewal the claim
+     * would be released and another node could send the message as well
+     */
+    @Scheduled(fixedDelayString = "${delivery.async.lease-renewal-seconds:300}",
+            initialDelay = 60, timeUnit = TimeUnit.SECONDS)
+    public void renewLaneLeases() {
+        if (inLanes.isEmpty()) {
+            return;
+        }
+        try {
+            List<Long> waiting = List.copyOf(inLanes);
+            int held = 0;
+            for (int from = 0; from < waiting.size(); from += LEASE_RENEWAL_CHUNK) {
+                held += queueClaimer.renewClaims(waiting.subList(from, Math.min(waiting.size(), from + LEASE_RENEWAL_CHUNK)));
+            }
+            if (held < waiting.size()) {
+                // Sends whose claim is gone are skipped by the lane (see deliverAndRecord)
+                logger.warn("{} of {} messages waiting in channel lanes have lost their claim",
+                        waiting.size() - held, waiting.size());
+            }
+        } catch (Exception e) {
+            logger.error("Error renewing leases of queued sends", e);
+        }
+    }
+
+    /**
+     * Hand claimed messages to the delivery executor through the proxy so @Async applies
+     * @return false if the executor rejected work and claims had to be released
+     */
+    private boolean dispatch(List<Long> claimedIds) {
+        boolean allAccepted = true;
+        for (Long queueId : claimedIds) {
+            try {
+                self.processMessageAsync(queueId);
+            } catch (TaskRejectedException e) {
+                logger.warn("Delivery executor full, releasing claim on queue message {}", queueId);
+                queueClaimer.release(queueId);
+                executorSaturated.set(true);
+                allAccepted = false;
+            }
+        }
+        return allAccepted;
+    }
+
+    /**
+     * Give back a message whose lane task was interrupted before it could send
+     * Without this the id would stay in inLanes and its lease would be renewed forever.
+     */
+    private void abandonLaneSend(Long queueId) {
+        inLanes.remove(queueId);
+        try {
+            queueClaimer.release(queueId);
+        } catch (Exception e) {
+            // The lease is no longer renewed, so the claim still expires on its own
+            logger.warn("Failed to release claim on queue message {}: {}", queueId, e.getMessage());
+        }
+    }
+
+    /**
+     * Process a single claimed message asynchronously
+     * Resolves the delivery mode and hands the send to that channel's lane
      */
     @Async("messageDeliveryExecutor")
     @Transactional
@@ -134,56 +285,158 @@ public class AsyncMessageProcessor {
             return;
         }
 
+        if (!queueClaimer.isClaimedByThisNode(queuedMessage)) {
+            logger.warn("Queue message {} is no longer claimed by this node (status {}, owner {}), skipping",
+                    queueId, queuedMessage.getStatus(), queuedMessage.getClaimedBy());
+            return;
+        }
+
+        // Known once resolved; until then failures are classified by the preferred mode
+        DeliveryMode deliveryMode = null;
         try {
             logger.info("Processing message {} (ID: {}, Attempt: {}/{})",
                     queuedMessage.getMessageId(), queuedMessage.getId(),
                     queuedMessage.getRetryCount() + 1, queuedMessage.getMaxRetries());
 
-            // Mark as processing
-            queuedMessage.setStatus("PROCESSING");
-            queuedMessage.setProcessingStartedAt(LocalDateTime.now());
-            queueRepository.save(queuedMessage);
-
             // Build delivery request
             DeliveryRequest request = buildDeliveryRequest(queuedMessage);
 
             // Determine delivery mode
-            DeliveryMode deliveryMode = determineDeliveryMode(request);
-            queuedMessage.setDeliveryMode(deliveryMode.getCode());
+            deliveryMode = determineDeliveryMode(request);
+            DeliveryMode laneMode = deliveryMode;
+
+            // Hand the send to the channel's own lane; the row is left untouched here so this
+            // transaction cannot overwrite the result recorded by the lane
+            inLanes.add(queueId);
+            boolean accepted = channelGovernor.submit(laneMode,
+                    () -> deliverAndRecord(queueId, request, laneMode),
+                    () -> abandonLaneSend(queueId));
+
+            if (!accepted) {
+                // Channel backlog is full: put the message back without burning a retry, due
+                // only once the lane should have room, so it is not re-claimed straight away
+                inLanes.remove(queueId);
+                long deferSeconds = Math.max(CHANNEL_FULL_DEFER_SECONDS, channelGovernor.estimatedWaitSeconds(deliveryMode));
+                deferSeconds += ThreadLocalRandom.current().nextLong(deferSeconds / 2 + 1);
+                queuedMessage.setStatus("PENDING");
+                queuedMessage.setProcessingStartedAt(null);
+                queuedMessage.setScheduledAt(LocalDateTime.now().plusSeconds(deferSeconds));
+                releaseClaim(queuedMessage);
+                queueRepository.save(queuedMessage);
+            }
 
-            // Attempt delivery
-            DeliveryResult result = deliverThroughProvider(request, deliveryMode);
+        } catch (Exception e) {
+            logger.error("Error processing message {}", queuedMessage.getMessageId(), e);
+            inLanes.remove(queueId);
+            handleProcessingException(queuedMessage, deliveryMode != null ? deliveryMode : modeOf(queuedMessage), e);
+        } finally {
+            // Capacity has freed up; resume draining the backlog that was released earlier
+            if (executorSaturated.compareAndSet(true, false)) {
+                wakeUp();
+            }
+        }
+    }
 
-            // Update queue status based on result
-            if (result.isSuccess()) {
-                queuedMessage.setStatus("DELIVERED");
-                queuedMessage.setDeliveryStatus(result.getStatus());
-                queuedMessage.setProcessedAt(LocalDateTime.now());
-                logger.info("✅ Message {} delivered successfully via {}",
-                        queuedMessage.getMessageId(), deliveryMode.getCode());
-            } else {
-                handleDeliveryFailure(queuedMessage, result);
+    /**
+     * Runs on the channel lane: deliver, then record the outcome in its own transaction
+     */
+    private void deliverAndRecord(Long queueId, DeliveryRequest request, DeliveryMode deliveryMode) {
+        try {
+            // The task may have waited in the lane for a long time; send only if the claim is
+            // still ours, and extend the lease so it cannot be recovered while the send runs
+            if (!queueClaimer.renewClaim(queueId)) {
+                logger.warn("Queue message {} lost its claim while waiting on {}, not sending",
+                        queueId, deliveryMode.getCode());
+                return;
+            }
+            DeliveryResult result = deliverThroughProvider(request, deliveryMode);
+            try {
+                self.recordDeliveryResult(queueId, deliveryMode, result);
+            } catch (Exception e) {
+                // The claim lease expires and the message is recovered by recoverStuckMessages
+                logger.error("Failed to record delivery result for queue message {}", queueId, e);
             }
+        } catch (Exception e) {
+            logger.error("Could not check the claim of queue message {}, not sending", queueId, e);
+        } finally {
+            inLanes.remove(queueId);
+        }
+    }
 
-            queueRepository.save(queuedMessage);
+    /**
+     * Record the outcome of a send made on a channel lane
+     */
+    @Transactional
+    public void recordDeliveryResult(Long queueId, DeliveryMode deliveryMode, DeliveryResult result) {
+        MessageDeliveryQueue queuedMessage = queueRepository.findById(queueId).orElse(null);
 
-        } catch (Exception e) {
-            logger.error("Error processing message {}", queuedMessage.getMessageId(), e);
-            handleProcessingException(queuedMessage, e);
+        if (queuedMessage == null || !queueClaimer.isClaimedByThisNode(queuedMessage)) {
+            logger.warn("Queue message {} is no longer claimed by this node, dropping {} result",
+                    queueId, deliveryMode.getCode());
+            return;
         }
+
+        queuedMessage.setDeliveryMode(deliveryMode.getCode());
+
+        // Update queue status based on result
+        if (result.isSuccess()) {
+            queuedMessage.setStatus("DELIVERED");
+            queuedMessage.setDeliveryStatus(result.getStatus());
+            queuedMessage.setProcessedAt(LocalDateTime.now());
+            logger.info("✅ Message {} delivered successfully via {}",
+                    queuedMessage.getMessageId(), deliveryMode.getCode());
+        } else {
+            handleDeliveryFailure(queuedMessage, result);
+        }
+
+        releaseClaim(queuedMessage);
+        queueRepository.save(queuedMessage);
+
+        // Hosts watching the inbox see the delivery outcome of their messages
+        if (queuedMessage.getGuestMessage() != null) {
+            inboxPushService.publish(InboxUpdate.deliveryStatus(queuedMessage.getEvent().getId(),
+                    queuedMessage.getGuest() != null ? queuedMessage.getGuest().getId() : null,
+                    queuedMessage.getGuestMessage().getId(), queuedMessage.getStatus()));
+        }
+    }
+
+    /**
+     * Clear the claim owner and lease once a message leaves PROCESSING
+     */
+    private void releaseClaim(MessageDeliveryQueue queuedMessage) {
+        queuedMessage.setClaimedBy(null);
+        queuedMessage.setLeaseExpiresAt(null);
     }
 
     /**
      * Build DeliveryRequest from queued message
      */
     private DeliveryRequest buildDeliveryRequest(MessageDeliveryQueue queuedMessage) {
+        String title = queuedMessage.getTitle();
+        String content = queuedMessage.getContent();
+        if (queuedMessage.getBodySha256() != null) {
+            MessageBody body = messageBodyStore.find(queuedMessage.getBodySha256())
+                    .orElseThrow(() -> new IllegalStateException("Message body " + queuedMessage.getBodySha256() + " not found"));
+            Map<String, String> bindings = TemplateBindings.decode(queuedMessage.getBindings());
+            title = templateProcessor.compile(body.getTitle() != null ? body.getTitle() : "").render(bindings);
+            content = templateProcessor.compile(body.getContent() != null ? body.getContent() : "").render(bindings);
+
+            // Rendering is deterministic; a mismatch means the body or bindings changed after enqueue
+            if (queuedMessage.getContentSha256() != null
+                    && !queuedMessage.getContentSha256().equals(MessageBodyStore.hash(title, content))) {
+                throw new IllegalStateException("Rendered content of message " + queuedMessage.getMessageId()
+                        + " does not match its recorded hash");
+            }
+        }
+
         DeliveryRequest.Builder builder = DeliveryRequest.builder()
                 .messageId(queuedMessage.getMessageId())
                 .messageType(queuedMessage.getMessageType())
-                .title(queuedMessage.getTitle())
-                .content(queuedMessage.getContent())
-                .recipient(queuedMessage.getGuest())
-                .event(queuedMessage.getEvent());
+                .title(title)
+                .content(content)
+                // Unproxied so the channel lane can read them after this transaction ends
+                .recipient(Hibernate.unproxy(queuedMessage.getGuest(), Guest.class))
+                .event(Hibernate.unproxy(queuedMessage.getEvent(), WeddingEvent.class));
 
         if (queuedMessage.getPreferredMode() != null) {
             try {
@@ -206,24 +459,24 @@ public class AsyncMessageProcessor {
                     request.getPreferredMode().getCode(), request.getMessageId());
             deliveryMode = request.getPreferredMode();
         }
-        if (whatsAppAdbProvider.canDeliver(request)) {
+        if (whatsAppAdbProvider != null && whatsAppAdbProvider.canDeliver(request)) {
             log.info("Using whatasppAdb delivery mode {} for message {}",
-                    request.getPreferredMode().getCode(), request.getMessageId());
+                    request.getPreferredMode() != null ? request.getPreferredMode().getCode() : "none", request.getMessageId());
 
             deliveryMode = DeliveryMode.WHATSAPP_ADB;
         } else if (smsProvider.canDeliver(request)) {
             log.info("Using sms mode {} for message {}",
-                    request.getPreferredMode().getCode(), request.getMessageId());
+                    request.getPreferredMode() != null ? request.getPreferredMode().getCode() : "none", request.getMessageId());
 
             deliveryMode = DeliveryMode.SMS;
         } else if (emailProvider.canDeliver(request)) {
             log.info("Using email mode {} for message {}",
-                    request.getPreferredMode().getCode(), request.getMessageId());
+                    request.getPreferredMode() != null ? request.getPreferredMode().getCode() : "none", request.getMessageId());
 
             deliveryMode = DeliveryMode.EMAIL;
         } else if (internalMessageProvider.canDeliver(request)) {
             log.info("Using internal mode {} for message {}",
-                    request.getPreferredMode().getCode(), request.getMessageId());
+                    request.getPreferredMode() != null ? request.getPreferredMode().getCode() : "none", request.getMessageId());
             deliveryMode = DeliveryMode.INTERNAL_MESSAGE;
         }
 
@@ -263,15 +516,17 @@ public class AsyncMessageProcessor {
                     if (whatsAppAdbProvider != null) {
                         return whatsAppAdbProvider.deliver(request);
                     }
-                    return new DeliveryResult(false, mode, "WhatsApp ADB provider not available");
+                    return DeliveryResult.permanentFailure(mode, "WhatsApp ADB provider not available");
                 case INTERNAL_MESSAGE:
                     return internalMessageProvider.deliver(request);
                 default:
-                    return new DeliveryResult(false, mode, "No provider for mode: " + mode.getCode());
+                    return DeliveryResult.permanentFailure(mode, "No provider for mode: " + mode.getCode());
             }
         } catch (Exception e) {
             logger.error("Error delivering via {}", mode.getCode(), e);
-            return new DeliveryResult(false, mode, e.getMessage());
+            return retryPolicies.forMode(mode).isRetryable(e)
+                    ? new DeliveryResult(false, mode, e.getMessage())
+                    : DeliveryResult.permanentFailure(mode, e.getMessage());
         }
     }
 
@@ -279,42 +534,64 @@ public class AsyncMessageProcessor {
      * Handle delivery failure with retry logic
      */
     private void handleDeliveryFailure(MessageDeliveryQueue queuedMessage, DeliveryResult result) {
-        queuedMessage.setErrorMessage(result.getErrorMessage());
+        RetryPolicy policy = retryPolicies.forMode(result.getDeliveryMode());
+        scheduleRetryOrFail(queuedMessage, result.getErrorMessage(), policy.isRetryable(result), policy);
+    }
+
+    /**
+     * Handle processing exception
+     */
+    private void handleProcessingException(MessageDeliveryQueue queuedMessage, DeliveryMode mode, Exception e) {
+        RetryPolicy policy = retryPolicies.forMode(mode);
+        scheduleRetryOrFail(queuedMessage, e.getMessage(), policy.isRetryable(e), policy);
+
+        releaseClaim(queuedMessage);
+        queueRepository.save(queuedMessage);
+    }
+
+    /**
+     * Count the failed attempt and either schedule a jittered retry or mark the message FAILED
+     * Permanent failures (e.g. an invalid number) fail immediately without using up retries
+     */
+    private void scheduleRetryOrFail(MessageDeliveryQueue queuedMessage, String errorMessage,
+                                     boolean retryable, RetryPolicy policy) {
+        queuedMessage.setErrorMessage(errorMessage);
         queuedMessage.setRetryCount(queuedMessage.getRetryCount() + 1);
 
-        if (queuedMessage.getRetryCount() >= queuedMessage.getMaxRetries()) {
+        if (!retryable) {
+            queuedMessage.setStatus("FAILED");
+            queuedMessage.setProcessedAt(LocalDateTime.now());
+            logger.error("❌ Message {} failed permanently, not retrying: {}",
+                    queuedMessage.getMessageId(), errorMessage);
+        } else if (queuedMessage.getRetryCount() >= queuedMessage.getMaxRetries()) {
             queuedMessage.setStatus("FAILED");
             queuedMessage.setProcessedAt(LocalDateTime.now());
             logger.error("❌ Message {} failed after {} attempts: {}",
-                    queuedMessage.getMessageId(), queuedMessage.getRetryCount(), result.getErrorMessage());
+                    queuedMessage.getMessageId(), queuedMessage.getRetryCount(), errorMessage);
         } else {
             queuedMessage.setStatus("RETRY");
-            // Exponential backoff: 1min, 5min, 15min
-            int delayMinutes = (int) Math.pow(5, queuedMessage.getRetryCount());
-            queuedMessage.setNextRetryAt(LocalDateTime.now().plusMinutes(delayMinutes));
-            logger.warn("⚠️ Message {} failed, will retry in {} minutes (attempt {}/{})",
-                    queuedMessage.getMessageId(), delayMinutes,
+            Duration previousDelay = queuedMessage.getRetryDelaySeconds() != null
+                    ? Duration.ofSeconds(queuedMessage.getRetryDelaySeconds()) : null;
+            Duration delay = policy.nextDelay(previousDelay);
+            queuedMessage.setRetryDelaySeconds(delay.toSeconds());
+            queuedMessage.setNextRetryAt(LocalDateTime.now().plus(delay));
+            logger.warn("⚠️ Message {} failed, will retry in {}s (attempt {}/{})",
+                    queuedMessage.getMessageId(), delay.toSeconds(),
                     queuedMessage.getRetryCount() + 1, queuedMessage.getMaxRetries());
         }
     }
 
     /**
-     * Handle processing exception
+     * Mode a message is meant for when its delivery mode has not been resolved: the preferred
+     * mode, else the mode of a previous attempt
      */
-    private void handleProcessingException(MessageDeliveryQueue queuedMessage, Exception e) {
-        queuedMessage.setErrorMessage(e.getMessage());
-        queuedMessage.setRetryCount(queuedMessage.getRetryCount() + 1);
-
-        if (queuedMessage.getRetryCount() >= queuedMessage.getMaxRetries()) {
-            queuedMessage.setStatus("FAILED");
-            queuedMessage.setProcessedAt(LocalDateTime.now());
-        } else {
-            queuedMessage.setStatus("RETRY");
-            int delayMinutes = (int) Math.pow(5, queuedMessage.getRetryCount());
-            queuedMessage.setNextRetryAt(LocalDateTime.now().plusMinutes(delayMinutes));
+    private DeliveryMode modeOf(MessageDeliveryQueue queuedMessage) {
+        String code = queuedMessage.getPreferredMode() != null
+                ? queuedMessage.getPreferredMode() : queuedMessage.getDeliveryMode();
+        try {
+            return code != null ? DeliveryMode.fromCode(code) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
         }
-
-        queueRepository.save(queuedMessage);
     }
 }
-
@@ -0,0 +1,42 @@
+package com.wedknots.delivery.async;
+
+import com.wedknots.delivery.DeliveryResult;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry policy with decorrelated jitter
+ * Each delay is drawn uniformly between the base delay and three times the previous
+ * delay, capped at the maximum, so messages that failed together spread out instead of
+ * retrying in the same minute. Results flagged as permanent, argument errors (bad
+ * recipient data) and state errors (misconfiguration, missing provider or message body)
+ * are treated as non-retryable.
+ */
+public class DecorrelatedJitterRetryPolicy implements RetryPolicy {
+    private final long baseMillis;
+    private final long capMillis;
+
+    public DecorrelatedJitterRetryPolicy(Duration baseDelay, Duration maxDelay) {
+        this.baseMillis = Math.max(1, baseDelay.toMillis());
+        this.capMillis = Math.max(this.baseMillis, maxDelay.toMillis());
+    }
+
+    @Override
+    public boolean isRetryable(DeliveryResult result) {
+        return !result.isPermanentFailure();
+    }
+
+    @Override
+    public boolean isRetryable(Exception e) {
+        return !(e instanceof IllegalArgumentException || e instanceof IllegalStateException);
+    }
+
+    @Override
+    public Duration nextDelay(Duration previousDelay) {
+        long previous = previousDelay != null ? Math.max(baseMillis, previousDelay.toMillis()) : baseMillis;
+        long upper = Math.min(capMillis, previous * 3);
+        long delay = upper > baseMillis ? ThreadLocalRandom.current().nextLong(baseMillis, upper + 1) : baseMillis;
+        return Duration.ofMillis(delay);
+    }
+}
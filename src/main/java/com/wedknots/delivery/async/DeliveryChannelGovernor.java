@@ -0,0 +1,234 @@
+package com.wedknots.delivery.async;
+
+import com.wedknots.config.MessageDeliveryConfiguration;
+import com.wedknots.delivery.DeliveryMode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-channel rate limiter and bulkhead for delivery providers
+ * Every delivery mode gets its own bounded worker pool (max concurrent sends plus a
+ * bounded waiting queue) and a token bucket, configured under delivery.&lt;channel&gt;.throttle.
+ * A slow channel such as ADB can only fill its own lane, never the threads of email or SMS.
+ * A lane never queues more sends than its rate can clear within one claim lease, so a
+ * queued message is sent (or renewed) before another node could take it over.
+ * Exports queue depth, permits in use and wait time per channel.
+ */
+@Component
+public class DeliveryChannelGovernor {
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryChannelGovernor.class);
+
+    @Autowired
+    private MessageDeliveryConfiguration.DeliveryProperties deliveryProperties;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final Map<DeliveryMode, ChannelLane> lanes = new EnumMap<>(DeliveryMode.class);
+
+    @PostConstruct
+    public void init() {
+        for (DeliveryMode mode : DeliveryMode.values()) {
+            MessageDeliveryConfiguration.DeliveryProperties.ThrottleProperties throttle = throttleFor(mode);
+            int capacity = queueCapacity(throttle);
+            int threads = laneWidth(mode, throttle);
+            lanes.put(mode, new ChannelLane(mode, throttle, threads, capacity));
+            logger.info("Delivery channel {}: {}/s (burst {}), {} concurrent, {} queued",
+                    mode.getCode(), throttle.getRatePerSecond() > 0 ? throttle.getRatePerSecond() : "unlimited",
+                    throttle.getBurst(), threads, capacity);
+            if (capacity < throttle.getMaxQueued()) {
+                logger.info("Delivery channel {}: max-queued {} capped to {} to fit the claim lease",
+                        mode.getCode(), throttle.getMaxQueued(), capacity);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.values().forEach(lane -> lane.executor.shutdown());
+    }
+
+    /**
+     * Run a send on the lane of the given channel
+     * The task waits in the lane's queue for a permit, then for a rate-limit token.
+     * If the worker is interrupted while waiting for the token, abandoned runs instead of send.
+     * @return false if the channel's queue is full and the caller should try again later
+     */
+    public boolean submit(DeliveryMode mode, Runnable send, Runnable abandoned) {
+        ChannelLane lane = lanes.get(mode);
+        long queuedAt = System.nanoTime();
+        try {
+            lane.executor.execute(() -> {
+                try {
+                    lane.rateLimiter.acquire();
+                } catch (InterruptedException e) {
+                    logger.warn("Delivery channel {} interrupted while waiting for a rate-limit token", mode.getCode());
+                    // Clean up before restoring the flag, so the cleanup can still reach the database
+                    try {
+                        abandoned.run();
+                    } finally {
+                        Thread.currentThread().interrupt();
+                    }
+                    return;
+                }
+                lane.recordWait(System.nanoTime() - queuedAt);
+                lane.inUse.incrementAndGet();
+                try {
+                    send.run();
+                } finally {
+                    lane.inUse.decrementAndGet();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            logger.warn("Delivery channel {} is full ({} queued), deferring send", mode.getCode(), lane.queueDepth());
+            return false;
+        }
+    }
+
+    /**
+     * Roughly how long a send queued on the channel now would wait for its turn
+     */
+    public long estimatedWaitSeconds(DeliveryMode mode) {
+        ChannelLane lane = lanes.get(mode);
+        return lane.ratePerSecond > 0 ? (long) Math.ceil(lane.queueDepth() / lane.ratePerSecond) : 0;
+    }
+
+    public int getQueueDepth(DeliveryMode mode) {
+        return lanes.get(mode).queueDepth();
+    }
+
+    public int getPermitsInUse(DeliveryMode mode) {
+        return lanes.get(mode).inUse.get();
+    }
+
+    /**
+     * Configured queue bound, lowered to what the channel's rate clears within one lease
+     */
+    private int queueCapacity(MessageDeliveryConfiguration.DeliveryProperties.ThrottleProperties throttle) {
+        int capacity = Math.max(1, throttle.getMaxQueued());
+        if (throttle.getRatePerSecond() > 0) {
+            long leaseSeconds = deliveryProperties.getAsync().getStuckMessageTimeoutMinutes() * 60L;
+            capacity = (int) Math.max(1, Math.min(capacity, Math.floor(throttle.getRatePerSecond() * leaseSeconds)));
+        }
+        return capacity;
+    }
+
+    /**
+     * Concurrent sends for a channel
+     * ADB sends are serialized per device, so its lane defaults to (and is checked against) the device pool size
+     */
+    private int laneWidth(DeliveryMode mode, MessageDeliveryConfiguration.DeliveryProperties.ThrottleProperties throttle) {
+        if (mode != DeliveryMode.WHATSAPP_ADB) {
+            return Math.max(1, throttle.getMaxConcurrent());
+        }
+        int devices = adbDevicePoolSize();
+        if (throttle.getMaxConcurrent() <= 0) {
+            return devices;
+        }
+        if (throttle.getMaxConcurrent() > devices) {
+            logger.warn("Delivery channel {}: max-concurrent {} exceeds the {} device(s) in the pool, extra sends "
+                    + "will only wait on a device", mode.getCode(), throttle.getMaxConcurrent(), devices);
+        } else if (throttle.getMaxConcurrent() < devices) {
+            logger.warn("Delivery channel {}: max-concurrent {} leaves {} of {} device(s) idle",
+                    mode.getCode(), throttle.getMaxConcurrent(), devices - throttle.getMaxConcurrent(), devices);
+        }
+        return throttle.getMaxConcurrent();
+    }
+
+    /**
+     * Distinct configured ADB devices, counted the same way WhatsAppAdbProvider builds its lanes
+     */
+    private int adbDevicePoolSize() {
+        List<String> deviceIds = deliveryProperties.getWhatsappAdb().getDeviceIds();
+        if (deviceIds == null) {
+            return 1;
+        }
+        Set<String> devices = new HashSet<>();
+        deviceIds.stream().map(String::trim).filter(id -> !id.isEmpty()).forEach(devices::add);
+        return Math.max(1, devices.size());
+    }
+
+    private MessageDeliveryConfiguration.DeliveryProperties.ThrottleProperties throttleFor(DeliveryMode mode) {
+        switch (mode) {
+            case EMAIL:
+                return deliveryProperties.getEmail().getThrottle();
+            case SMS:
+                return deliveryProperties.getSms().getThrottle();
+            case WHATSAPP_ADB:
+                return deliveryProperties.getWhatsappAdb().getThrottle();
+            default:
+                return deliveryProperties.getInternal().getThrottle();
+        }
+    }
+
+    /**
+     * Worker pool, token bucket and meters of one channel
+     */
+    private class ChannelLane {
+        private final ThreadPoolExecutor executor;
+        private final TokenBucket rateLimiter;
+        private final AtomicInteger inUse = new AtomicInteger();
+        private final Timer waitTimer;
+        private final double ratePerSecond;
+
+        ChannelLane(DeliveryMode mode, MessageDeliveryConfiguration.DeliveryProperties.ThrottleProperties throttle,
+                    int threads, int capacity) {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(capacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "msg-" + mode.getCode() + "-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            this.executor.allowCoreThreadTimeOut(true);
+            this.rateLimiter = new TokenBucket(throttle.getRatePerSecond(), throttle.getBurst());
+            this.ratePerSecond = throttle.getRatePerSecond();
+
+            if (meterRegistry != null) {
+                String channel = mode.getCode();
+                Gauge.builder("delivery.channel.queue.depth", this, ChannelLane::queueDepth)
+                        .tag("channel", channel).register(meterRegistry);
+                Gauge.builder("delivery.channel.permits.in.use", inUse, AtomicInteger::get)
+                        .tag("channel", channel).register(meterRegistry);
+                Gauge.builder("delivery.channel.permits.max", () -> threads)
+                        .tag("channel", channel).register(meterRegistry);
+                this.waitTimer = Timer.builder("delivery.channel.wait")
+                        .description("Time a send waited for a channel permit and rate-limit token")
+                        .tag("channel", channel).register(meterRegistry);
+            } else {
+                this.waitTimer = null;
+            }
+        }
+
+        int queueDepth() {
+            return executor.getQueue().size();
+        }
+
+        void recordWait(long nanos) {
+            if (waitTimer != null) {
+                waitTimer.record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.wedknots.delivery.async;
+
+import com.wedknots.config.MessageDeliveryConfiguration;
+import com.wedknots.model.MessageDeliveryQueue;
+import com.wedknots.repository.MessageDeliveryQueueRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Claims batches of queued messages for this node
+ * A claim atomically flips a bounded, priority-ordered batch to PROCESSING with an
+ * owner ID and a lease expiry, so several nodes and threads can drain the queue
+ * without picking the same message twice
+ */
+@Component
+public class MessageQueueClaimer {
+    private static final Logger logger = LoggerFactory.getLogger(MessageQueueClaimer.class);
+
+    @Autowired
+    private MessageDeliveryQueueRepository queueRepository;
+
+    private final MessageDeliveryConfiguration.DeliveryProperties deliveryProperties;
+
+    // Fixed for the life of the JVM; every claim, check and release must use the same owner ID
+    private final String nodeId;
+
+    public MessageQueueClaimer(MessageDeliveryConfiguration.DeliveryProperties deliveryProperties) {
+        this.deliveryProperties = deliveryProperties;
+        String configured = deliveryProperties.getAsync().getNodeId();
+        this.nodeId = configured != null && !configured.isBlank()
+                ? configured
+                : ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Claim up to {@code limit} pending messages that are due now
+     * @return IDs of the claimed queue rows
+     */
+    @Transactional
+    public List<Long> claimPending(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return claim(queueRepository.lockPendingBatch(now, PageRequest.of(0, limit)), now);
+    }
+
+    /**
+     * Claim up to {@code limit} messages whose retry time has come
+     * @return IDs of the claimed queue rows
+     */
+    @Transactional
+    public List<Long> claimRetries(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return claim(queueRepository.lockRetryBatch(now, PageRequest.of(0, limit)), now);
+    }
+
+    /**
+     * Give a claim held by this node back to the queue
+     */
+    @Transactional
+    public void release(Long queueId) {
+        queueRepository.releaseClaim(queueId, getNodeId());
+    }
+
+    /**
+     * Extend this node's lease on a claimed message
+     * @return false if the claim has been released or taken over, in which case the message must not be sent
+     */
+    @Transactional
+    public boolean renewClaim(Long queueId) {
+        return renewClaims(List.of(queueId)) == 1;
+    }
+
+    /**
+     * Extend this node's leases on claimed messages
+     * @return number of claims still held
+     */
+    @Transactional
+    public int renewClaims(Collection<Long> queueIds) {
+        if (queueIds.isEmpty()) {
+            return 0;
+        }
+        return queueRepository.renewLeases(queueIds, nodeId, leaseExpiry(LocalDateTime.now()));
+    }
+
+    /**
+     * Release claims whose lease has expired (owner crashed or hung), and claims without a lease
+     * @return number of messages returned to PENDING or RETRY
+     */
+    @Transactional
+    public int releaseExpiredClaims() {
+        return queueRepository.releaseExpiredClaims(LocalDateTime.now());
+    }
+
+    /**
+     * Check that a queue row is still claimed by this node
+     */
+    public boolean isClaimedByThisNode(MessageDeliveryQueue message) {
+        return "PROCESSING".equals(message.getStatus()) && getNodeId().equals(message.getClaimedBy());
+    }
+
+    /**
+     * Owner ID written to claimed rows, from delivery.async.node-id or generated per JVM
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private List<Long> claim(List<MessageDeliveryQueue> locked, LocalDateTime now) {
+        if (locked.isEmpty()) {
+            return List.of();
+        }
+
+        String owner = getNodeId();
+        LocalDateTime leaseExpiresAt = leaseExpiry(now);
+        List<Long> ids = new ArrayList<>(locked.size());
+        for (MessageDeliveryQueue message : locked) {
+            message.setStatus("PROCESSING");
+            message.setClaimedBy(owner);
+            message.setLeaseExpiresAt(leaseExpiresAt);
+            message.setProcessingStartedAt(now);
+            ids.add(message.getId());
+        }
+        queueRepository.saveAll(locked);
+
+        logger.debug("Node {} claimed {} queued messages", owner, ids.size());
+        return ids;
+    }
+
+    private LocalDateTime leaseExpiry(LocalDateTime now) {
+        return now.plusMinutes(deliveryProperties.getAsync().getStuckMessageTimeoutMinutes());
+    }
+}
@@ -0,0 +1,8 @@
+package com.wedknots.delivery.async;
+
+/**
+ * Published when a message is added to the delivery queue
+ * Delivered to listeners only after the enqueuing transaction commits
+ */
+public record MessageQueuedEvent(Long queueId, String messageId) {
+}
@@ -0,0 +1,121 @@
+package com.wedknots.delivery.async;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Cross-node wake-up for the delivery queue using PostgreSQL LISTEN/NOTIFY
+ * Enqueuing nodes send a NOTIFY inside the enqueue transaction (PostgreSQL delivers it
+ * on commit); every node keeps one dedicated connection LISTENing and wakes its
+ * processor when a notification arrives. Inactive on other databases such as H2,
+ * where the in-process after-commit wake-up and the safety-net poll are used instead.
+ */
+@Component
+public class QueueNotificationListener {
+    private static final Logger logger = LoggerFactory.getLogger(QueueNotificationListener.class);
+    static final String CHANNEL = "wedknots_delivery_queue";
+    private static final int POLL_TIMEOUT_MS = 5000;
+    private static final long RECONNECT_DELAY_MS = 10000;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private AsyncMessageProcessor messageProcessor;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile boolean postgres;
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (Exception e) {
+            logger.warn("Could not determine database type, queue LISTEN/NOTIFY disabled", e);
+            return;
+        }
+
+        if (!postgres) {
+            logger.info("Database is not PostgreSQL, queue LISTEN/NOTIFY disabled");
+            return;
+        }
+
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "msg-queue-listen");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    /**
+     * Send a NOTIFY from within the current (enqueue) transaction
+     * No-op when the database is not PostgreSQL
+     */
+    public void notifyQueued() {
+        if (!postgres) {
+            return;
+        }
+        try {
+            entityManager.createNativeQuery("SELECT pg_notify('" + CHANNEL + "', '')").getSingleResult();
+        } catch (Exception e) {
+            // The safety-net poll still picks the message up
+            logger.warn("Failed to send queue notification: {}", e.getMessage());
+        }
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                logger.info("Listening for delivery queue notifications on channel {}", CHANNEL);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        messageProcessor.wakeUp();
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                logger.warn("Queue notification listener failed, reconnecting in {}ms: {}",
+                        RECONNECT_DELAY_MS, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+}
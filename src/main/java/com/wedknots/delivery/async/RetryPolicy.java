@@ -0,0 +1,27 @@
+package com.wedknots.delivery.async;
+
+import com.wedknots.delivery.DeliveryResult;
+
+import java.time.Duration;
+
+/**
+ * Retry behaviour of one delivery channel
+ * Decides whether a failure is worth retrying and how long to wait before the next attempt
+ */
+public interface RetryPolicy {
+    /**
+     * Whether a failed delivery result may succeed on a later attempt
+     */
+    boolean isRetryable(DeliveryResult result);
+
+    /**
+     * Whether an exception raised while processing a message may succeed on a later attempt
+     */
+    boolean isRetryable(Exception e);
+
+    /**
+     * Delay before the next attempt
+     * @param previousDelay delay used before the previous attempt, or null on the first failure
+     */
+    Duration nextDelay(Duration previousDelay);
+}
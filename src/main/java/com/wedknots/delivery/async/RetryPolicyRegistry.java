@@ -0,0 +1,60 @@
+package com.wedknots.delivery.async;
+
+import com.wedknots.config.MessageDeliveryConfiguration;
+import com.wedknots.delivery.DeliveryMode;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Retry policy per delivery channel, configured under delivery.&lt;channel&gt;.retry
+ */
+@Component
+public class RetryPolicyRegistry {
+
+    @Autowired
+    private MessageDeliveryConfiguration.DeliveryProperties deliveryProperties;
+
+    private final Map<DeliveryMode, RetryPolicy> policies = new EnumMap<>(DeliveryMode.class);
+
+    @PostConstruct
+    public void init() {
+        for (DeliveryMode mode : DeliveryMode.values()) {
+            MessageDeliveryConfiguration.DeliveryProperties.RetryProperties retry = retryFor(mode);
+            policies.put(mode, new DecorrelatedJitterRetryPolicy(
+                    Duration.ofSeconds(retry.getBaseDelaySeconds()),
+                    Duration.ofSeconds(retry.getMaxDelaySeconds())));
+        }
+    }
+
+    /**
+     * Policy for a channel; the internal channel's policy is used when the mode is unknown
+     */
+    public RetryPolicy forMode(DeliveryMode mode) {
+        return policies.get(mode != null ? mode : DeliveryMode.INTERNAL_MESSAGE);
+    }
+
+    /**
+     * Replace the policy of a channel, e.g. with a provider-specific implementation
+     */
+    public void register(DeliveryMode mode, RetryPolicy policy) {
+        policies.put(mode, policy);
+    }
+
+    private MessageDeliveryConfiguration.DeliveryProperties.RetryProperties retryFor(DeliveryMode mode) {
+        switch (mode) {
+            case EMAIL:
+                return deliveryProperties.getEmail().getRetry();
+            case SMS:
+                return deliveryProperties.getSms().getRetry();
+            case WHATSAPP_ADB:
+                return deliveryProperties.getWhatsappAdb().getRetry();
+            default:
+                return deliveryProperties.getInternal().getRetry();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.wedknots.delivery.async;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter
+ * Refills continuously at {@code ratePerSecond} and holds at most {@code burst} tokens.
+ * A rate of 0 or less disables limiting.
+ */
+public class TokenBucket {
+    private final double tokensPerNano;
+    private final double maxTokens;
+    private double storedTokens;
+    private long nextFreeNanos;
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        this.tokensPerNano = ratePerSecond > 0 ? ratePerSecond / TimeUnit.SECONDS.toNanos(1) : 0;
+        this.maxTokens = Math.max(1, burst);
+        this.storedTokens = this.maxTokens;
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    /**
+     * Take one token, blocking until it is available
+     * @return nanoseconds spent waiting
+     */
+    public long acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Reserve one token and return how long the caller must wait before using it
+     */
+    synchronized long reserve() {
+        if (tokensPerNano == 0) {
+            return 0;
+        }
+
+        long now = System.nanoTime();
+        if (now > nextFreeNanos) {
+            storedTokens = Math.min(maxTokens, storedTokens + (now - nextFreeNanos) * tokensPerNano);
+            nextFreeNanos = now;
+        }
+
+        long waitNanos = nextFreeNanos - now;
+        if (storedTokens >= 1) {
+            storedTokens -= 1;
+        } else {
+            // Borrow from the future: the next token becomes free one interval later
+            nextFreeNanos += (long) ((1 - storedTokens) / tokensPerNano);
+            storedTokens = 0;
+        }
+        return Math.max(0, waitNanos);
+    }
+}
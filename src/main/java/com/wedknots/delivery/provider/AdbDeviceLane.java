@@ -0,0 +1,70 @@
+package com.wedknots.delivery.provider;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-writer delivery lane bound to one ADB device
+ * All sends for the device run one at a time on the lane's own thread, which also owns
+ * the device's persistent shell session, so concurrent callers can never interleave taps
+ * and keystrokes on the same phone.
+ */
+public class AdbDeviceLane implements AutoCloseable {
+    private final String deviceId;
+    private final AdbShellSession session;
+    private final ExecutorService worker;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public AdbDeviceLane(String adbPath, String deviceId, int timeoutSeconds) {
+        this.deviceId = deviceId;
+        this.session = new AdbShellSession(adbPath, deviceId, timeoutSeconds);
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "adb-lane-" + (deviceId != null && !deviceId.isEmpty() ? deviceId : "default"));
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue a send on this device; the task receives the device's shell session
+     */
+    public <T> Future<T> submit(SessionTask<T> task) {
+        pending.incrementAndGet();
+        Callable<T> callable = () -> {
+            try {
+                return task.run(session);
+            } finally {
+                pending.decrementAndGet();
+            }
+        };
+        return worker.submit(callable);
+    }
+
+    /**
+     * Sends queued or running on this device
+     */
+    public int getLoad() {
+        return pending.get();
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    @Override
+    public void close() {
+        worker.shutdownNow();
+        session.close();
+    }
+
+    /**
+     * Work executed on the lane thread with exclusive use of the shell session
+     */
+    @FunctionalInterface
+    public interface SessionTask<T> {
+        T run(AdbShellSession session) throws Exception;
+    }
+}
@@ -0,0 +1,151 @@
+package com.wedknots.delivery.provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent {@code adb shell} session for one device
+ * Commands are streamed over the shell's stdin instead of forking an adb process per step.
+ * Each command is followed by an echo of a unique marker and its exit code, which is read
+ * back from stdout to detect completion. A non-zero exit code, or the adb process itself
+ * exiting, fails the command. Not thread-safe: used by a single device lane.
+ */
+public class AdbShellSession implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(AdbShellSession.class);
+    private static final String MARKER = "__WEDKNOTS_DONE__";
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final String adbPath;
+    private final String deviceId;
+    private final int timeoutSeconds;
+
+    private Process process;
+    private Writer stdin;
+    private BlockingQueue<String> output;
+    private long sequence;
+
+    public AdbShellSession(String adbPath, String deviceId, int timeoutSeconds) {
+        this.adbPath = adbPath;
+        this.deviceId = deviceId;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    /**
+     * Run one shell command on the device, (re)opening the session if needed
+     * @throws IOException if the command exits non-zero, times out or the adb process exits
+     */
+    public void execute(String command) throws IOException, InterruptedException {
+        ensureOpen();
+
+        String marker = MARKER + (++sequence);
+        logger.debug("ADB[{}] $ {}", deviceId != null ? deviceId : "default", command);
+        try {
+            stdin.write(command + "; echo " + marker + " $?\n");
+            stdin.flush();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            String line;
+            try {
+                line = remaining > 0 ? output.poll(Math.min(remaining, POLL_NANOS), TimeUnit.NANOSECONDS) : null;
+            } catch (InterruptedException e) {
+                // Abandoned mid-command (send cancelled); the session state is unknown
+                close();
+                throw e;
+            }
+            if (line == null) {
+                if (remaining > 0 && process.isAlive()) {
+                    continue;
+                }
+                // Session is in an unknown state; start over next time
+                Process exited = process;
+                close();
+                if (remaining > 0) {
+                    throw new IOException("ADB shell exited with code " + exited.exitValue() + " during: " + command);
+                }
+                throw new IOException("ADB command timed out: " + command);
+            }
+            int markerAt = line.indexOf(marker + " ");
+            if (markerAt >= 0) {
+                // The marker can follow output that did not end with a newline
+                String code = line.substring(markerAt + marker.length()).trim();
+                int exitCode = code.isEmpty() ? 0 : Integer.parseInt(code);
+                if (exitCode != 0) {
+                    throw new IOException("ADB command failed with exit code " + exitCode + ": " + command);
+                }
+                return;
+            }
+            logger.debug("ADB[{}] > {}", deviceId != null ? deviceId : "default", line);
+        }
+    }
+
+    public boolean isOpen() {
+        return process != null && process.isAlive();
+    }
+
+    @Override
+    public void close() {
+        if (process != null) {
+            try {
+                stdin.write("exit\n");
+                stdin.flush();
+            } catch (IOException ignored) {
+                // Process already gone
+            }
+            process.destroy();
+            process = null;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (isOpen()) {
+            return;
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(adbPath);
+        if (deviceId != null && !deviceId.isEmpty()) {
+            command.add("-s");
+            command.add(deviceId);
+        }
+        command.add("shell");
+
+        process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        stdin = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        output = new LinkedBlockingQueue<>();
+
+        BlockingQueue<String> sink = output;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        Thread pump = new Thread(() -> {
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    sink.offer(line);
+                }
+            } catch (IOException ignored) {
+                // Session closed
+            }
+        }, "adb-shell-" + (deviceId != null && !deviceId.isEmpty() ? deviceId : "default"));
+        pump.setDaemon(true);
+        pump.start();
+
+        logger.info("Opened persistent ADB shell session for device {}", deviceId != null ? deviceId : "default");
+    }
+}
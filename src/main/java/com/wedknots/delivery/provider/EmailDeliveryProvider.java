@@ -7,6 +7,7 @@ import com.wedknots.delivery.DeliveryConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailParseException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Component;
@@ -84,6 +85,10 @@ public class EmailDeliveryProvider implements MessageDeliveryProvider {
                 );
             }
 
+        } catch (MailParseException e) {
+            // Malformed address or message: retrying cannot help
+            logger.error("Invalid email for {}: {}", request.getRecipient().getContactEmail(), e.getMessage());
+            return DeliveryResult.permanentFailure(DeliveryMode.EMAIL, e.getMessage());
         } catch (Exception e) {
             logger.error("Failed to send email to {}", request.getRecipient().getContactEmail(), e);
             return new DeliveryResult(false, DeliveryMode.EMAIL, e.getMessage());
@@ -11,12 +11,14 @@ import org.springframework.http.*;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * SMS delivery provider
@@ -26,6 +28,7 @@ import java.util.Map;
 @Component
 public class SMSDeliveryProvider implements MessageDeliveryProvider {
     private static final Logger logger = LoggerFactory.getLogger(SMSDeliveryProvider.class);
+    private static final Set<Integer> PERMANENT_CLIENT_ERRORS = Set.of(400, 404, 422);
 
     @Autowired
     private DeliveryConfig deliveryConfig;
@@ -61,6 +64,9 @@ public class SMSDeliveryProvider implements MessageDeliveryProvider {
             if (phoneNumber == null || phoneNumber.isEmpty()) {
                 phoneNumber = request.getRecipient().getPrimaryPhoneNumber();
             }
+            if (phoneNumber == null || phoneNumber.isBlank()) {
+                return DeliveryResult.permanentFailure(DeliveryMode.SMS, "No phone number for SMS delivery");
+            }
             String content = buildSMSContent(request);
             String provider = deliveryConfig.getSmsConfig().getProvider();
 
@@ -137,6 +143,14 @@ public class SMSDeliveryProvider implements MessageDeliveryProvider {
             logger.error("Failed to send SMS via D7 - Status: {}, Response: {}", response.getStatusCode(), response.getBody());
             return new DeliveryResult(false, DeliveryMode.SMS, "Failed with status: " + response.getStatusCode());
 
+        } catch (HttpClientErrorException e) {
+            logger.error("D7 rejected SMS to {} - Status: {}, Response: {}",
+                    phoneNumber, e.getStatusCode(), e.getResponseBodyAsString());
+            // Malformed request or invalid number: the same request will be rejected again
+            if (PERMANENT_CLIENT_ERRORS.contains(e.getStatusCode().value())) {
+                return DeliveryResult.permanentFailure(DeliveryMode.SMS, "Rejected by D7 (" + e.getStatusCode() + "): " + e.getResponseBodyAsString());
+            }
+            return new DeliveryResult(false, DeliveryMode.SMS, e.getMessage());
         } catch (Exception e) {
             logger.error("Error sending SMS via D7", e);
             return new DeliveryResult(false, DeliveryMode.SMS, e.getMessage());
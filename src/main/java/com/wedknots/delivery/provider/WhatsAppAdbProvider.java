@@ -5,6 +5,8 @@ import com.wedknots.delivery.DeliveryRequest;
 import com.wedknots.delivery.DeliveryResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -13,13 +15,22 @@ import java.io.InputStreamReader;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * WhatsApp delivery via ADB (Android Debug Bridge)
- * Sends messages through a connected Android phone with human-like behavior
+ * Sends messages through a connected Android phone with human-like behavior.
+ * Each configured device has its own single-consumer lane with a persistent adb shell;
+ * with several devices, sends are spread round-robin or to the least-loaded device.
  */
 @Component
 public class WhatsAppAdbProvider implements MessageDeliveryProvider {
@@ -31,6 +42,12 @@ public class WhatsAppAdbProvider implements MessageDeliveryProvider {
     @Value("${delivery.whatsapp-adb.device-id:}")
     private String deviceId;
 
+    @Value("${delivery.whatsapp-adb.device-ids:}")
+    private List<String> deviceIds;
+
+    @Value("${delivery.whatsapp-adb.assignment:least-loaded}")
+    private String assignment;
+
     @Value("${delivery.whatsapp-adb.adb-path:adb}")
     private String adbPath;
 
@@ -45,11 +62,38 @@ public class WhatsAppAdbProvider implements MessageDeliveryProvider {
 
     private final Random random = new Random();
 
+    // One single-consumer lane (thread + persistent adb shell) per configured device
+    private final List<AdbDeviceLane> lanes = new ArrayList<>();
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
     // Cache device connection status to avoid repeated ADB calls
-    private Boolean deviceConnectedCache = null;
-    private long lastDeviceCheckTime = 0;
+    private volatile Boolean deviceConnectedCache = null;
+    private volatile long lastDeviceCheckTime = 0;
     private static final long DEVICE_CHECK_CACHE_MS = 30000; // Cache for 30 seconds
 
+    @PostConstruct
+    public void initLanes() {
+        Set<String> devices = new LinkedHashSet<>();
+        if (deviceIds != null) {
+            deviceIds.stream().map(String::trim).filter(id -> !id.isEmpty()).forEach(devices::add);
+        }
+        if (devices.isEmpty()) {
+            // Single device (or the only one attached when device-id is blank)
+            devices.add(deviceId != null ? deviceId.trim() : "");
+        }
+        for (String device : devices) {
+            lanes.add(new AdbDeviceLane(adbPath, device, timeoutSeconds));
+        }
+        if (enabled) {
+            logger.info("WhatsApp ADB lanes: {} device(s), {} assignment", lanes.size(), assignment);
+        }
+    }
+
+    @PreDestroy
+    public void closeLanes() {
+        lanes.forEach(AdbDeviceLane::close);
+    }
+
     @Override
     public boolean canDeliver(DeliveryRequest request) {
         return isConfigured() &&
@@ -83,8 +127,31 @@ public class WhatsAppAdbProvider implements MessageDeliveryProvider {
                     "ADB device not connected");
             }
 
-            // Step-by-step message sending with human-like delays
-            boolean success = sendMessageWithHumanBehavior(phone, message);
+            // Step-by-step message sending with human-like delays, serialized per device
+            AdbDeviceLane lane = selectLane();
+            String targetPhone = phone;
+            AtomicBoolean started = new AtomicBoolean();
+            Future<Boolean> send = lane.submit(session -> {
+                started.set(true);
+                return sendMessageWithHumanBehavior(session, targetPhone, message);
+            });
+            boolean success;
+            try {
+                success = send.get(sendTimeoutSeconds(message), TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                send.cancel(true);
+                if (!started.get()) {
+                    // Still queued behind other sends: the device was never touched, safe to retry
+                    return new DeliveryResult(false, DeliveryMode.WHATSAPP_ADB,
+                        "Timed out waiting for ADB device " + lane.getDeviceId());
+                }
+                // The send was under way and may have gone out; retrying could deliver it twice
+                logger.error("WhatsApp (ADB) send to {} timed out mid-send, delivery state unknown", phone);
+                DeliveryResult unknown = DeliveryResult.permanentFailure(DeliveryMode.WHATSAPP_ADB,
+                    "ADB send timed out after it started; delivery state unknown, not retrying");
+                unknown.setStatus("UNKNOWN");
+                return unknown;
+            }
 
             if (success) {
                 logger.info("✅ WhatsApp message sent successfully via ADB to {}", phone);
@@ -95,6 +162,9 @@ public class WhatsAppAdbProvider implements MessageDeliveryProvider {
                     "Failed to send message via ADB");
             }
 
+        } catch (IllegalArgumentException e) {
+            logger.error("Cannot send WhatsApp message via ADB: {}", e.getMessage());
+            return DeliveryResult.permanentFailure(DeliveryMode.WHATSAPP_ADB, e.getMessage());
         } catch (Exception e) {
             logger.error("Error sending WhatsApp message via ADB", e);
             return new DeliveryResult(false, DeliveryMode.WHATSAPP_ADB, e.getMessage());
@@ -141,6 +211,33 @@ public class WhatsAppAdbProvider implements MessageDeliveryProvider {
         return connected;
     }
 
+    /**
+     * Whether a serial from `adb devices` belongs to one of the configured lanes
+     */
+    private boolean isConfiguredDevice(String serial) {
+        return lanes.stream().anyMatch(lane -> lane.getDeviceId().isEmpty() || lane.getDeviceId().equals(serial));
+    }
+
+    /**
+     * Pick the device lane for the next send
+     */
+    private AdbDeviceLane selectLane() {
+        if (lanes.size() == 1) {
+            return lanes.get(0);
+        }
+        if ("round-robin".equalsIgnoreCase(assignment)) {
+            return lanes.get(Math.floorMod(roundRobin.getAndIncrement(), lanes.size()));
+        }
+        return lanes.stream().min(Comparator.comparingInt(AdbDeviceLane::getLoad)).orElse(lanes.get(0));
+    }
+
+    /**
+     * Upper bound for one send including human delays and time spent queued behind other sends
+     */
+    private long sendTimeoutSeconds(String message) {
+        return timeoutSeconds * 6L + message.length() / 10 + 60;
+    }
+
     /**
      * Check if ADB device is connected
      */
@@ -148,10 +245,6 @@ public class WhatsAppAdbProvider implements MessageDeliveryProvider {
         try {
             List<String> command = new ArrayList<>();
             command.add(adbPath);
-            if (deviceId != null && !deviceId.isEmpty()) {
-                command.add("-s");
-                command.add(deviceId);
-            }
             command.add("devices");
 
             ProcessBuilder pb = new ProcessBuilder(command);
@@ -163,7 +256,8 @@ public class WhatsAppAdbProvider implements MessageDeliveryProvider {
             String line;
             boolean deviceFound = false;
             while ((line = reader.readLine()) != null) {
-                if (line.contains("device") && !line.contains("List of devices")) {
+                if (line.contains("device") && !line.contains("List of devices")
+                        && isConfiguredDevice(line.split("\\s+")[0])) {
                     deviceFound = true;
                     logger.debug("ADB device found: {}", line);
                 }
@@ -187,35 +281,39 @@ public class WhatsAppAdbProvider implements MessageDeliveryProvider {
      * 4. Type message (with typing delays)
      * 5. Press send
      */
-    private boolean sendMessageWithHumanBehavior(String phoneNumber, String message) {
+    private boolean sendMessageWithHumanBehavior(AdbShellSession session, String phoneNumber, String message) {
         try {
             logger.info("Step 1: Waking up device");
-            wakeUpDevice();
+            wakeUpDevice(session);
             humanDelay();
 
             logger.info("Step 2: Opening WhatsApp");
-            openWhatsApp();
+            openWhatsApp(session);
             humanDelay(2000, 3000); // Wait for WhatsApp to load
 
             logger.info("Step 3: Opening chat for {}", phoneNumber);
-            boolean chatOpened = openChat(phoneNumber);
+            boolean chatOpened = openChat(session, phoneNumber);
             if (!chatOpened) {
                 logger.warn("Failed to open chat, falling back to deep link method");
-                return sendViaDeepLink(phoneNumber, message);
+                return sendViaDeepLink(session, phoneNumber, message);
             }
             humanDelay(1000, 2000); // Wait for chat to open
 
             logger.info("Step 4: Typing message");
-            typeMessage(message);
+            typeMessage(session, message);
             humanDelay(); // Small delay before sending
 
             logger.info("Step 5: Pressing send button");
-            pressSendButton();
+            pressSendButton(session);
             humanDelay(); // Wait for message to send
 
             logger.info("Message sent successfully with human-like behavior");
             return true;
 
+        } catch (InterruptedException e) {
+            // Cancelled after the send timed out
+            Thread.currentThread().interrupt();
+            return false;
         } catch (Exception e) {
             logger.error("Error during human-like message sending", e);
             return false;
@@ -225,25 +323,24 @@ public class WhatsAppAdbProvider implements MessageDeliveryProvider {
     /**
      * Wake up the device screen
      */
-    private void wakeUpDevice() throws Exception {
-        executeAdbCommand("shell", "input", "keyevent", "KEYCODE_WAKEUP");
+    private void wakeUpDevice(AdbShellSession session) throws Exception {
+        session.execute("input keyevent KEYCODE_WAKEUP");
         logger.debug("Device woken up");
     }
 
     /**
      * Open WhatsApp application
      */
-    private void openWhatsApp() throws Exception {
+    private void openWhatsApp(AdbShellSession session) throws Exception {
         // Launch WhatsApp using package name
-        executeAdbCommand("shell", "am", "start",
-            "-n", "com.whatsapp/.Main");
+        session.execute("am start -n com.whatsapp/.Main");
         logger.debug("WhatsApp opened");
     }
 
     /**
      * Open specific chat using search
      */
-    private boolean openChat(String phoneNumber) {
+    private boolean openChat(AdbShellSession session, String phoneNumber) throws InterruptedException {
         try {
             // Tap on search icon (coordinates may vary by device)
             // Alternative: Use WhatsApp URL scheme
@@ -251,13 +348,14 @@ public class WhatsAppAdbProvider implements MessageDeliveryProvider {
 
             // Use WhatsApp deep link to open specific chat
             String whatsappUrl = "https://wa.me/" + cleanNumber;
-            executeAdbCommand("shell", "am", "start",
-                "-a", "android.intent.action.VIEW",
-                "-d", whatsappUrl);
+            session.execute("am start -a android.intent.action.VIEW -d " + quoteForShell(whatsappUrl));
 
             logger.debug("Chat opened for {}", phoneNumber);
             return true;
 
+        } catch (InterruptedException e) {
+            // Cancelled: do not fall back to another send method
+            throw e;
         } catch (Exception e) {
             logger.error("Error opening chat", e);
             return false;
@@ -267,13 +365,13 @@ public class WhatsAppAdbProvider implements MessageDeliveryProvider {
     /**
      * Type message with human-like delays between characters
      */
-    private void typeMessage(String message) throws Exception {
+    private void typeMessage(AdbShellSession session, String message) throws Exception {
         // Focus on message input field by tapping (coordinates may vary)
         // For now, we'll use the text input method
 
         // Method 1: Type entire message (less human-like but more reliable)
         String escapedMessage = escapeForShell(message);
-        executeAdbCommand("shell", "input", "text", escapedMessage);
+        session.execute("input text " + escapedMessage);
 
         // Add small delays to simulate typing speed
         Thread.sleep(message.length() * 50); // 50ms per character
@@ -284,37 +382,38 @@ public class WhatsAppAdbProvider implements MessageDeliveryProvider {
     /**
      * Press the send button
      */
-    private void pressSendButton() throws Exception {
+    private void pressSendButton(AdbShellSession session) throws Exception {
         // Method 1: Press ENTER key (works in most cases)
-        executeAdbCommand("shell", "input", "keyevent", "66"); // KEYCODE_ENTER
+        session.execute("input keyevent 66"); // KEYCODE_ENTER
 
         logger.debug("Send button pressed (ENTER key)");
 
         // Alternative: Tap on send button coordinates
-        // executeAdbCommand("shell", "input", "tap", "950", "1750");
+        // session.execute("input tap 950 1750");
     }
 
     /**
      * Fallback: Send via deep link (original method)
      */
-    private boolean sendViaDeepLink(String phoneNumber, String message) {
+    private boolean sendViaDeepLink(AdbShellSession session, String phoneNumber, String message) {
         try {
             String encodedMessage = URLEncoder.encode(message, StandardCharsets.UTF_8);
             String whatsappUrl = String.format("https://wa.me/%s?text=%s",
                 phoneNumber.replaceAll("[^0-9]", ""), encodedMessage);
 
-            executeAdbCommand("shell", "am", "start",
-                "-a", "android.intent.action.VIEW",
-                "-d", whatsappUrl);
+            session.execute("am start -a android.intent.action.VIEW -d " + quoteForShell(whatsappUrl));
 
             Thread.sleep(3000); // Wait for WhatsApp to open
 
             // Press ENTER to send
-            executeAdbCommand("shell", "input", "keyevent", "66");
+            session.execute("input keyevent 66");
 
             logger.debug("Message sent via deep link fallback");
             return true;
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         } catch (Exception e) {
             logger.error("Error in deep link fallback", e);
             return false;
@@ -322,54 +421,10 @@ public class WhatsAppAdbProvider implements MessageDeliveryProvider {
     }
 
     /**
-     * Execute ADB command
+     * Single-quote a value for the device shell
      */
-    private void executeAdbCommand(String... args) throws Exception {
-        List<String> command = new ArrayList<>();
-        command.add(adbPath);
-
-        if (deviceId != null && !deviceId.isEmpty()) {
-            command.add("-s");
-            command.add(deviceId);
-        }
-
-        for (String arg : args) {
-            command.add(arg);
-        }
-
-        logger.debug("Executing ADB: {}", String.join(" ", command));
-
-        ProcessBuilder pb = new ProcessBuilder(command);
-        Process process = pb.start();
-
-        // Read output
-        BufferedReader reader = new BufferedReader(
-            new InputStreamReader(process.getInputStream()));
-        BufferedReader errorReader = new BufferedReader(
-            new InputStreamReader(process.getErrorStream()));
-
-        StringBuilder output = new StringBuilder();
-        String line;
-        while ((line = reader.readLine()) != null) {
-            output.append(line).append("\n");
-        }
-
-        StringBuilder errors = new StringBuilder();
-        while ((line = errorReader.readLine()) != null) {
-            errors.append(line).append("\n");
-        }
-
-        boolean completed = process.waitFor(timeoutSeconds, TimeUnit.SECONDS);
-
-        if (!completed) {
-            process.destroy();
-            throw new RuntimeException("ADB command timed out");
-        }
-
-        int exitCode = process.exitValue();
-        if (exitCode != 0 && errors.length() > 0) {
-            logger.warn("ADB command warning: {}", errors.toString());
-        }
+    private String quoteForShell(String value) {
+        return "'" + value.replace("'", "'\\''") + "'";
     }
 
     /**
@@ -0,0 +1,12 @@
+package com.wedknots.dto;
+
+import java.util.List;
+
+/**
+ * Keyset-paginated slice of the conversation list
+ * Pass nextCursor back as the cursor parameter to fetch the following page.
+ * totalUnread is only filled on the first page.
+ */
+public record ConversationPage(List<ConversationSummary> conversations, String nextCursor,
+                               boolean hasNext, Long totalUnread) {
+}
@@ -0,0 +1,10 @@
+package com.wedknots.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the host conversation list: a guest with their latest message and unread count
+ */
+public record ConversationSummary(Long guestId, String guestName, String guestPhone,
+                                  String lastMessage, LocalDateTime lastMessageTime, long unreadCount) {
+}
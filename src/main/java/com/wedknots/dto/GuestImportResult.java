@@ -0,0 +1,19 @@
+package com.wedknots.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk guest import: rows read, guests created and the rows that were rejected
+ */
+public record GuestImportResult(int rowsRead, int imported, List<RowError> errors) {
+
+    /**
+     * A rejected row, numbered as in the uploaded file
+     */
+    public record RowError(int row, String message) {
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+}
@@ -0,0 +1,14 @@
+package com.wedknots.dto;
+
+import lombok.Value;
+
+/**
+ * An invitation as listed to the guest it was sent to, without the invitation's associations
+ */
+@Value
+public class GuestInvitationSummary {
+    Long id;
+    Long eventId;
+    String title;
+    String message;
+}
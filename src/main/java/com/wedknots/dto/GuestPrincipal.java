@@ -0,0 +1,16 @@
+package com.wedknots.dto;
+
+import java.io.Serializable;
+import java.security.Principal;
+
+/**
+ * Principal of a signed-in guest, stored in the session's security context at login
+ * getName() is the guest's primary phone number, which is what the principal name has always been.
+ */
+public record GuestPrincipal(Long guestId, Long eventId, String phoneNumber) implements Principal, Serializable {
+
+    @Override
+    public String getName() {
+        return phoneNumber;
+    }
+}
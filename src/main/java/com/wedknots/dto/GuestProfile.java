@@ -0,0 +1,33 @@
+package com.wedknots.dto;
+
+import com.wedknots.model.Guest;
+import lombok.Value;
+
+/**
+ * Immutable snapshot of a guest's own fields, without associations, shared across requests
+ * by GuestProfileCache. The version is the guest's optimistic-lock version when read.
+ */
+@Value
+public class GuestProfile {
+    Long id;
+    Long eventId;
+    String familyName;
+    String contactFirstName;
+    String contactLastName;
+    String contactEmail;
+    String primaryPhoneNumber;
+    String side;
+    int maxAttendees;
+    Long version;
+
+    public static GuestProfile from(Guest guest) {
+        return new GuestProfile(guest.getId(), guest.getEventId(), guest.getFamilyName(), guest.getContactFirstName(),
+                guest.getContactLastName(), guest.getContactEmail(), guest.getPrimaryPhoneNumber(), guest.getSide(),
+                guest.getMaxAttendees(), guest.getVersion());
+    }
+
+    public String getDisplayName() {
+        return ((contactFirstName != null ? contactFirstName : "") + " " +
+                (contactLastName != null ? contactLastName : "")).trim();
+    }
+}
@@ -0,0 +1,9 @@
+package com.wedknots.dto;
+
+/**
+ * One row of an event guest list, without the guest's associations
+ */
+public record GuestSummary(Long id, String familyName, String contactFirstName, String contactLastName,
+                           String contactEmail, String primaryPhoneNumber, String side, int maxAttendees,
+                           int phoneCount) {
+}
@@ -0,0 +1,52 @@
+package com.wedknots.dto;
+
+import com.wedknots.model.GuestMessage;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change to an event inbox pushed to connected hosts
+ * Carries only identifiers, so clients refetch what they display; unreadDelta is the
+ * change to the event's unread count, which covers inbound messages only.
+ */
+public record InboxUpdate(String type, Long eventId, Long guestId, Long messageId,
+                          String direction, String status, int unreadDelta, LocalDateTime at) {
+
+    public static final String NEW_MESSAGE = "NEW_MESSAGE";
+    public static final String DELIVERY_STATUS = "DELIVERY_STATUS";
+    public static final String UNREAD_DELTA = "UNREAD_DELTA";
+
+    /**
+     * A message was added to the inbox
+     */
+    public static InboxUpdate newMessage(GuestMessage message) {
+        return new InboxUpdate(NEW_MESSAGE, message.getEvent().getId(),
+                message.getGuest() != null ? message.getGuest().getId() : null, message.getId(),
+                message.getDirection() != null ? message.getDirection().name() : null,
+                message.getStatus() != null ? message.getStatus().name() : null,
+                countsAsUnread(message) ? 1 : 0, LocalDateTime.now());
+    }
+
+    /**
+     * Delivery state of an outbound message changed
+     */
+    public static InboxUpdate deliveryStatus(Long eventId, Long guestId, Long messageId, String status) {
+        return new InboxUpdate(DELIVERY_STATUS, eventId, guestId, messageId, GuestMessage.MessageDirection.OUTBOUND.name(),
+                status, 0, LocalDateTime.now());
+    }
+
+    /**
+     * Whether a message contributes to the unread count: inbound and not yet read
+     */
+    public static boolean countsAsUnread(GuestMessage message) {
+        return message.getDirection() == GuestMessage.MessageDirection.INBOUND && !message.isRead();
+    }
+
+    /**
+     * Messages were marked read or unread
+     * @param guestId the guest whose conversation changed, or null for the whole event
+     */
+    public static InboxUpdate unreadDelta(Long eventId, Long guestId, int delta) {
+        return new InboxUpdate(UNREAD_DELTA, eventId, guestId, null, null, null, delta, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,33 @@
+package com.wedknots.dto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Message counts of one event, computed in a single aggregate query
+ */
+public record MessageStats(Long totalMessages, Long unreadMessages, Long inboundMessages,
+                           Long outboundMessages, Long totalGuests) {
+
+    public MessageStats {
+        // SUM over an empty event yields null
+        totalMessages = totalMessages != null ? totalMessages : 0L;
+        unreadMessages = unreadMessages != null ? unreadMessages : 0L;
+        inboundMessages = inboundMessages != null ? inboundMessages : 0L;
+        outboundMessages = outboundMessages != null ? outboundMessages : 0L;
+        totalGuests = totalGuests != null ? totalGuests : 0L;
+    }
+
+    /**
+     * Mutable map in the shape returned by MessageService.getEventMessageStats
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalMessages", totalMessages);
+        stats.put("unreadMessages", unreadMessages);
+        stats.put("inboundMessages", inboundMessages);
+        stats.put("outboundMessages", outboundMessages);
+        stats.put("totalGuests", totalGuests);
+        return stats;
+    }
+}
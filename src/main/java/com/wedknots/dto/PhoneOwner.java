@@ -0,0 +1,18 @@
+package com.wedknots.dto;
+
+import com.wedknots.util.PhoneNumbers;
+
+/**
+ * A guest reachable on a phone number, with the names a guest may log in with on that number
+ * {@code contactLastName} is the guest's own for the primary phone, or the named contact of an additional phone.
+ */
+public record PhoneOwner(Long guestId, Long eventId, String familyNameKey, String contactLastName) {
+
+    /**
+     * Whether a name typed at login matches this owner's contact last name or family name, ignoring case
+     */
+    public boolean matchesName(String name) {
+        String key = PhoneNumbers.nameKey(name);
+        return key != null && (key.equals(familyNameKey) || key.equals(PhoneNumbers.nameKey(contactLastName)));
+    }
+}
@@ -0,0 +1,16 @@
+package com.wedknots.dto;
+
+import lombok.Value;
+
+/**
+ * A guest phone number that could not be stored in E.164 form, listed for an admin to fix
+ */
+@Value
+public class UnindexedPhone {
+    Long guestId;
+    Long eventId;
+    String eventName;
+    String familyName;
+    String phoneNumber;
+    boolean primary;
+}
@@ -1,5 +1,6 @@
 package com.wedknots.model;
 
+import com.wedknots.service.EventStatsInvalidationListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -10,10 +11,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(EventStatsInvalidationListener.class)
 @Table(name = "attendee_tbl")
 public class Attendee {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attendee_seq")
+    @SequenceGenerator(name = "attendee_seq", sequenceName = "attendee_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name")
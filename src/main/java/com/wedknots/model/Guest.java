@@ -1,5 +1,8 @@
 package com.wedknots.model;
 
+import com.wedknots.service.EventStatsInvalidationListener;
+import com.wedknots.service.GuestPhoneIndexListener;
+import com.wedknots.service.GuestProfileInvalidationListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,15 +17,21 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners({EventStatsInvalidationListener.class, GuestPhoneIndexListener.class, GuestProfileInvalidationListener.class})
 @Table(name = "guest_tbl")
 public class Guest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "guest_seq")
+    @SequenceGenerator(name = "guest_seq", sequenceName = "guest_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "family_name")
     private String familyName;
 
+    // Case-folded family name, maintained by GuestPhoneIndexListener
+    @Column(name = "family_name_key")
+    private String familyNameKey;
+
 
     @Column(name = "contact_first_name")
     private String contactFirstName;
@@ -38,6 +47,10 @@ public class Guest {
     @Column(name = "primary_phone_number")
     private String primaryPhoneNumber;
 
+    // E.164 form of the primary phone, maintained by GuestPhoneIndexListener
+    @Column(name = "primary_phone_e164", length = 20)
+    private String primaryPhoneE164;
+
 
     // Additional phone numbers managed via GuestPhoneNumber entity (one-to-many relationship)
     @OneToMany(mappedBy = "guest", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
@@ -1,5 +1,6 @@
 package com.wedknots.model;
 
+import com.wedknots.service.MessageStatsInvalidationListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -14,6 +15,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(MessageStatsInvalidationListener.class)
 @Table(name = "guest_message_tbl", indexes = {
     @Index(name = "idx_event_is_read", columnList = "event_id, is_read"),
     @Index(name = "idx_guest_event", columnList = "guest_id, event_id"),
@@ -21,7 +23,8 @@ import java.time.LocalDateTime;
 })
 public class GuestMessage {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "guest_message_seq")
+    @SequenceGenerator(name = "guest_message_seq", sequenceName = "guest_message_seq", allocationSize = 50)
     private Long id;
 
     // Reference to the event
@@ -1,5 +1,6 @@
 package com.wedknots.model;
 
+import com.wedknots.service.GuestPhoneIndexListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -10,11 +11,13 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(GuestPhoneIndexListener.class)
 @Table(name = "guest_phone_number_tbl")
 public class GuestPhoneNumber {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "guest_phone_number_seq")
+    @SequenceGenerator(name = "guest_phone_number_seq", sequenceName = "guest_phone_number_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,6 +32,10 @@ public class GuestPhoneNumber {
     @Column(name = "phone_number")
     private String phoneNumber;
 
+    // E.164 form of phoneNumber, unique per event; maintained by GuestPhoneIndexListener
+    @Column(name = "phone_e164", length = 20)
+    private String phoneE164;
+
     @Column(name = "phone_type")
     @Enumerated(EnumType.STRING)
     private PhoneType phoneType;
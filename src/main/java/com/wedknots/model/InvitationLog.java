@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 @Table(name = "invitation_log_tbl")
 public class InvitationLog {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invitation_log_seq")
+    @SequenceGenerator(name = "invitation_log_seq", sequenceName = "invitation_log_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
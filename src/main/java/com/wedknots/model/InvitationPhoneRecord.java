@@ -25,7 +25,8 @@ import java.time.LocalDateTime;
 public class InvitationPhoneRecord {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invitation_phone_record_seq")
+    @SequenceGenerator(name = "invitation_phone_record_seq", sequenceName = "invitation_phone_record_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 public class MessageDeliveryQueue {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "message_delivery_queue_seq")
+    @SequenceGenerator(name = "message_delivery_queue_seq", sequenceName = "message_delivery_queue_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "message_id", nullable = false)
@@ -78,6 +79,24 @@ public class MessageDeliveryQueue {
     @Column(name = "next_retry_at")
     private LocalDateTime nextRetryAt;
 
+    @Column(name = "retry_delay_seconds")
+    private Long retryDelaySeconds; // Backoff used before the current retry
+
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy; // Node that owns the PROCESSING claim
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt; // Claim is released for other nodes after this time
+
+    @Column(name = "body_sha256", length = 64)
+    private String bodySha256; // Shared MessageBody template; title/content are then left empty
+
+    @Column(name = "bindings", columnDefinition = "TEXT")
+    private String bindings; // Per-recipient variable values for the shared body
+
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256; // SHA-256 of the final rendered title and content
+
     // Constructors
     public MessageDeliveryQueue() {
         this.createdAt = LocalDateTime.now();
@@ -255,5 +274,52 @@ public class MessageDeliveryQueue {
     public void setNextRetryAt(LocalDateTime nextRetryAt) {
         this.nextRetryAt = nextRetryAt;
     }
-}
 
+    public Long getRetryDelaySeconds() {
+        return retryDelaySeconds;
+    }
+
+    public void setRetryDelaySeconds(Long retryDelaySeconds) {
+        this.retryDelaySeconds = retryDelaySeconds;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public String getBodySha256() {
+        return bodySha256;
+    }
+
+    public void setBodySha256(String bodySha256) {
+        this.bodySha256 = bodySha256;
+    }
+
+    public String getBindings() {
+        return bindings;
+    }
+
+    public void setBindings(String bindings) {
+        this.bindings = bindings;
+    }
+
+    public String getContentSha256() {
+        return contentSha256;
+    }
+
+    public void setContentSha256(String contentSha256) {
+        this.contentSha256 = contentSha256;
+    }
+}
@@ -1,5 +1,6 @@
 package com.wedknots.model;
 
+import com.wedknots.service.EventStatsInvalidationListener;
 import lombok.*;
 
 import jakarta.persistence.*;
@@ -11,10 +12,12 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(EventStatsInvalidationListener.class)
 @Table(name = "rsvp_tbl")
 public class RSVP {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rsvp_seq")
+    @SequenceGenerator(name = "rsvp_seq", sequenceName = "rsvp_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne
@@ -37,6 +37,15 @@ public class UnauthorizedAccessLog {
     @Column(name = "reason", length = 1024)
     private String reason;
 
+    // First occurrence within the coalescing window
     @Column(name = "created_at")
     private LocalDateTime createdAt;
+
+    @Column(name = "last_seen_at")
+    private LocalDateTime lastSeenAt;
+
+    // Identical denials (user, IP, URI, reason) folded into this row
+    @Column(name = "occurrences", nullable = false)
+    @Builder.Default
+    private int occurrences = 1;
 }
@@ -5,18 +5,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AttendeeRepository extends JpaRepository<Attendee, Long> {
-    @Query("select a.rsvp.guest.event.id as eventId, count(a) as attendees from Attendee a group by a.rsvp.guest.event.id")
-    List<Object[]> summarizeAttendeesPerEvent();
-
-    @Query("select max(a.updatedAt) from Attendee a where a.rsvp.guest.event.id = :eventId")
-    LocalDateTime findLastUpdatedByEventId(Long eventId);
+    @Query("select a.rsvp.guest.event.id as eventId, count(a) as attendees, max(a.updatedAt) as lastUpdated " +
+           "from Attendee a where a.rsvp.guest.event.id in :eventIds group by a.rsvp.guest.event.id")
+    List<Object[]> summarizeAttendeesForEvents(@Param("eventIds") Collection<Long> eventIds);
 
     Page<Attendee> findByRsvpGuestEventId(Long eventId, Pageable pageable);
 
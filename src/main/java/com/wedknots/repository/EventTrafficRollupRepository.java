@@ -0,0 +1,18 @@
+package com.wedknots.repository;
+
+import com.wedknots.model.EventTrafficRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventTrafficRollupRepository extends JpaRepository<EventTrafficRollup, Long> {
+
+    @Query("select r.eventId as eventId, sum(r.viewCount) as views, max(r.lastViewAt) as lastView " +
+           "from EventTrafficRollup r where r.granularity = 'DAY' and r.eventId in :eventIds group by r.eventId")
+    List<Object[]> summarizeViewsForEvents(@Param("eventIds") Collection<Long> eventIds);
+}
@@ -1,5 +1,6 @@
 package com.wedknots.repository;
 
+import com.wedknots.dto.MessageStats;
 import com.wedknots.model.GuestMessage;
 import com.wedknots.model.WeddingEvent;
 import com.wedknots.model.Guest;
@@ -113,5 +114,64 @@ public interface GuestMessageRepository extends JpaRepository<GuestMessage, Long
      */
     @Query("SELECT m.guest.id, COUNT(m) FROM GuestMessage m WHERE m.event = :event AND m.direction = 'INBOUND' AND m.isRead = false GROUP BY m.guest.id")
     List<Object[]> getUnreadCountByGuest(@Param("event") WeddingEvent event);
-}
 
+    /**
+     * Message counts for an event in one round trip, using conditional aggregation
+     * Unread counts inbound messages only, like countUnreadInbound and the pushed unread deltas
+     */
+    @Query("SELECT new com.wedknots.dto.MessageStats(" +
+           "COUNT(m), " +
+           "SUM(CASE WHEN m.direction = 'INBOUND' AND m.isRead = false THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN m.direction = 'INBOUND' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN m.direction = 'OUTBOUND' THEN 1 ELSE 0 END), " +
+           "COUNT(DISTINCT m.guest.id)) " +
+           "FROM GuestMessage m WHERE m.event.id = :eventId")
+    MessageStats getMessageStats(@Param("eventId") Long eventId);
+
+    /**
+     * Latest message and unread inbound count per guest, newest conversation first
+     * Each guest's latest message is one probe of idx_guest_msg_event_guest_created, and the keyset
+     * and limit apply to those probes, so the snippet and unread count are read only for the page.
+     * Columns: guest_id, last_message_id, last_message_at, snippet, unread_count,
+     * contact_first_name, contact_last_name, primary_phone_number
+     */
+    String CONVERSATION_SUMMARY_SELECT =
+            "SELECT p.guest_id, p.id, p.created_at, CAST(SUBSTRING(lm.message_content, 1, 200) AS VARCHAR(200)) AS snippet, " +
+            "(SELECT COUNT(*) FROM guest_message_tbl u WHERE u.event_id = :eventId AND u.guest_id = p.guest_id " +
+            "AND u.direction = 'INBOUND' AND u.is_read = FALSE) AS unread_count, " +
+            "g.contact_first_name, g.contact_last_name, g.primary_phone_number " +
+            "FROM (SELECT lg.id AS guest_id, l.id, l.created_at FROM guest_tbl lg " +
+            "CROSS JOIN LATERAL (SELECT m.id, m.created_at FROM guest_message_tbl m " +
+            "WHERE m.event_id = :eventId AND m.guest_id = lg.id " +
+            "ORDER BY m.created_at DESC, m.id DESC LIMIT 1) l " +
+            "WHERE lg.event_id = :eventId ";
+
+    String CONVERSATION_SUMMARY_PAGE =
+            "ORDER BY l.created_at DESC, lg.id DESC LIMIT :limit) p " +
+            "JOIN guest_message_tbl lm ON lm.id = p.id " +
+            "JOIN guest_tbl g ON g.id = p.guest_id " +
+            "ORDER BY p.created_at DESC, p.guest_id DESC";
+
+    /**
+     * First page of conversation summaries
+     */
+    @Query(value = CONVERSATION_SUMMARY_SELECT + CONVERSATION_SUMMARY_PAGE, nativeQuery = true)
+    List<Object[]> findConversationSummaries(@Param("eventId") Long eventId, @Param("limit") int limit);
+
+    /**
+     * Conversation summaries strictly after the keyset (lastMessageAt, guestId)
+     */
+    @Query(value = CONVERSATION_SUMMARY_SELECT +
+            "AND (l.created_at < :cursorAt OR (l.created_at = :cursorAt AND lg.id < :cursorGuestId)) " +
+            CONVERSATION_SUMMARY_PAGE, nativeQuery = true)
+    List<Object[]> findConversationSummariesAfter(@Param("eventId") Long eventId,
+                                                  @Param("cursorAt") LocalDateTime cursorAt,
+                                                  @Param("cursorGuestId") Long cursorGuestId,
+                                                  @Param("limit") int limit);
+
+    /**
+     * Count unread inbound messages for an event
+     */
+    @Query("SELECT COUNT(m) FROM GuestMessage m WHERE m.event.id = :eventId AND m.direction = 'INBOUND' AND m.isRead = false")
+    long countUnreadInbound(@Param("eventId") Long eventId);
+}
@@ -1,7 +1,10 @@
 package com.wedknots.repository;
 
+import com.wedknots.dto.PhoneOwner;
+import com.wedknots.dto.UnindexedPhone;
 import com.wedknots.model.Guest;
 import com.wedknots.model.GuestPhoneNumber;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -37,18 +40,18 @@ public interface GuestPhoneNumberRepository extends JpaRepository<GuestPhoneNumb
     List<GuestPhoneNumber> findByGuestIdAndPhoneType(@Param("guestId") Long guestId, @Param("phoneType") GuestPhoneNumber.PhoneType phoneType);
 
     /**
-     * Check if a phone number already exists for a guest
+     * Check if a phone number (E.164 form) already exists for a guest
      */
-    @Query("SELECT CASE WHEN COUNT(gpn) > 0 THEN true ELSE false END FROM GuestPhoneNumber gpn WHERE gpn.guest.id = :guestId AND gpn.phoneNumber = :phoneNumber")
-    Boolean existsByGuestIdAndPhoneNumber(@Param("guestId") Long guestId, @Param("phoneNumber") String phoneNumber);
+    @Query("SELECT CASE WHEN COUNT(gpn) > 0 THEN true ELSE false END FROM GuestPhoneNumber gpn WHERE gpn.guest.id = :guestId AND gpn.phoneE164 = :phoneE164")
+    Boolean existsByGuestIdAndPhoneNumber(@Param("guestId") Long guestId, @Param("phoneE164") String phoneE164);
 
     /**
      * Check if a phone number already exists for any guest in the same event (excluding current guest)
      * Used to prevent duplicate phone numbers across all guests in a wedding
      */
     @Query("SELECT CASE WHEN COUNT(gpn) > 0 THEN true ELSE false END FROM GuestPhoneNumber gpn " +
-           "WHERE gpn.phoneNumber = :phoneNumber AND gpn.guest.event.id = :eventId AND gpn.guest.id != :guestId")
-    Boolean existsPhoneNumberInEvent(@Param("phoneNumber") String phoneNumber, @Param("eventId") Long eventId, @Param("guestId") Long guestId);
+           "WHERE gpn.phoneE164 = :phoneE164 AND gpn.eventId = :eventId AND gpn.guest.id != :guestId")
+    Boolean existsPhoneNumberInEvent(@Param("phoneE164") String phoneE164, @Param("eventId") Long eventId, @Param("guestId") Long guestId);
 
     /**
      * Get all phone numbers for a specific event (used for reporting/validation)
@@ -59,22 +62,36 @@ public interface GuestPhoneNumberRepository extends JpaRepository<GuestPhoneNumb
     /**
      * Find which guest already has this phone number in the event (for error messages)
      */
-    @Query("SELECT gpn FROM GuestPhoneNumber gpn WHERE gpn.phoneNumber = :phoneNumber AND gpn.guest.event.id = :eventId")
-    Optional<GuestPhoneNumber> findPhoneNumberInEvent(@Param("phoneNumber") String phoneNumber, @Param("eventId") Long eventId);
+    @Query("SELECT gpn FROM GuestPhoneNumber gpn WHERE gpn.phoneE164 = :phoneE164 AND gpn.eventId = :eventId")
+    Optional<GuestPhoneNumber> findPhoneNumberInEvent(@Param("phoneE164") String phoneE164, @Param("eventId") Long eventId);
 
     /**
      * Check if primary phone number already exists in the event (for validation)
      * Checks both primary phones in guest_tbl and additional phones in guest_phone_number
      */
     @Query("SELECT CASE WHEN COUNT(g) > 0 THEN true ELSE false END FROM Guest g " +
-           "WHERE g.primaryPhoneNumber = :phoneNumber AND g.event.id = :eventId AND (:guestId IS NULL OR g.id != :guestId)")
-    Boolean existsPrimaryPhoneInEvent(@Param("phoneNumber") String phoneNumber, @Param("eventId") Long eventId, @Param("guestId") Long guestId);
+           "WHERE g.primaryPhoneE164 = :phoneE164 AND g.event.id = :eventId AND (:guestId IS NULL OR g.id != :guestId)")
+    Boolean existsPrimaryPhoneInEvent(@Param("phoneE164") String phoneE164, @Param("eventId") Long eventId, @Param("guestId") Long guestId);
 
     /**
-     * Check if phone number exists anywhere in event (primary or additional)
+     * Check if phone number exists anywhere in event (primary or additional), compared in E.164 form
      */
-    @Query("SELECT CASE WHEN (EXISTS(SELECT 1 FROM Guest g WHERE g.primaryPhoneNumber = :phoneNumber AND g.event.id = :eventId AND (:guestId IS NULL OR g.id != :guestId)) " +
-           "OR EXISTS(SELECT 1 FROM GuestPhoneNumber gpn WHERE gpn.phoneNumber = :phoneNumber AND gpn.guest.event.id = :eventId AND gpn.guest.id != :guestId)) " +
+    @Query("SELECT CASE WHEN (EXISTS(SELECT 1 FROM Guest g WHERE g.primaryPhoneE164 = :phoneE164 AND g.event.id = :eventId AND (:guestId IS NULL OR g.id != :guestId)) " +
+           "OR EXISTS(SELECT 1 FROM GuestPhoneNumber gpn WHERE gpn.phoneE164 = :phoneE164 AND gpn.eventId = :eventId AND (:guestId IS NULL OR gpn.guest.id != :guestId))) " +
            "THEN true ELSE false END")
-    Boolean existsPhoneAnywhere(@Param("phoneNumber") String phoneNumber, @Param("eventId") Long eventId, @Param("guestId") Long guestId);
+    Boolean existsPhoneAnywhere(@Param("phoneE164") String phoneE164, @Param("eventId") Long eventId, @Param("guestId") Long guestId);
+
+    /**
+     * Guests reachable on an additional phone number, in E.164 form (idx_guest_phone_e164_event)
+     */
+    @Query("SELECT new com.wedknots.dto.PhoneOwner(gpn.guest.id, gpn.eventId, gpn.guest.familyNameKey, gpn.contactLastName) " +
+           "FROM GuestPhoneNumber gpn WHERE gpn.phoneE164 = :phoneE164")
+    List<PhoneOwner> findPhoneOwners(@Param("phoneE164") String phoneE164);
+
+    /**
+     * Additional phones that are set but have no E.164 form
+     */
+    @Query("SELECT new com.wedknots.dto.UnindexedPhone(g.id, g.event.id, g.event.name, g.familyName, gpn.phoneNumber, false) " +
+           "FROM GuestPhoneNumber gpn JOIN gpn.guest g WHERE gpn.phoneE164 IS NULL AND gpn.phoneNumber IS NOT NULL ORDER BY g.id")
+    List<UnindexedPhone> findUnindexedPhones(Pageable pageable);
 }
@@ -1,11 +1,17 @@
 package com.wedknots.repository;
 
+import com.wedknots.dto.GuestProfile;
+import com.wedknots.dto.GuestSummary;
+import com.wedknots.dto.PhoneOwner;
+import com.wedknots.dto.UnindexedPhone;
 import com.wedknots.model.Guest;
-import com.wedknots.model.WeddingEvent;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,119 +22,99 @@ public interface GuestRepository extends JpaRepository<Guest, Long> {
     @Query("SELECT DISTINCT g FROM Guest g LEFT JOIN FETCH g.phoneNumbers WHERE g.event.id = :eventId")
     List<Guest> findByEventIdWithPhones(@Param("eventId") Long eventId);
 
-    @Query("SELECT g FROM Guest g WHERE g.event.id = :eventId AND LOWER(g.side) = LOWER(:side)")
-    List<Guest> findByEventIdAndSideIgnoreCase(@Param("eventId") Long eventId, @Param("side") String side);
-
     /**
-     * Find guest by family name and phone number (searches primary phone and additional phones)
+     * Page of an event's guest list as flat rows, served by idx_guest_event_family
      */
-    @Query("SELECT DISTINCT g FROM Guest g " +
-           "LEFT JOIN g.phoneNumbers gp " +
-           "WHERE UPPER(g.familyName) = UPPER(:familyName) " +
-           "AND (g.primaryPhoneNumber = :phoneNumber OR gp.phoneNumber = :phoneNumber)")
-    Optional<Guest> findByFamilyNameIgnoreCaseAndContactPhone(@Param("familyName") String familyName,
-                                                               @Param("phoneNumber") String phoneNumber);
+    @Query(value = "SELECT new com.wedknots.dto.GuestSummary(g.id, g.familyName, g.contactFirstName, g.contactLastName, " +
+                   "g.contactEmail, g.primaryPhoneNumber, g.side, g.maxAttendees, SIZE(g.phoneNumbers)) " +
+                   "FROM Guest g WHERE g.event.id = :eventId ORDER BY g.familyName, g.id",
+           countQuery = "SELECT COUNT(g) FROM Guest g WHERE g.event.id = :eventId")
+    Page<GuestSummary> findSummariesByEventId(@Param("eventId") Long eventId, Pageable pageable);
 
-    /**
-     * Find guest by phone number (searches primary phone and additional phones)
-     */
-    @Query("SELECT DISTINCT g FROM Guest g " +
-           "LEFT JOIN g.phoneNumbers gp " +
-           "WHERE g.primaryPhoneNumber = :phoneNumber OR gp.phoneNumber = :phoneNumber")
-    Guest findByContactPhone(@Param("phoneNumber") String phoneNumber);
+    @Query("SELECT g FROM Guest g WHERE g.event.id = :eventId AND LOWER(g.side) = LOWER(:side)")
+    List<Guest> findByEventIdAndSideIgnoreCase(@Param("eventId") Long eventId, @Param("side") String side);
 
     Guest findByContactEmail(String contactEmail);
 
-    @Query("select g.event.id as eventId, count(g) as guests from Guest g group by g.event.id")
-    List<Object[]> summarizeGuestsPerEvent();
+    @Query("select g.event.id as eventId, count(g) as guests from Guest g where g.event.id in :eventIds group by g.event.id")
+    List<Object[]> summarizeGuestsForEvents(@Param("eventIds") Collection<Long> eventIds);
 
     /**
-     * Find guest by family name and ANY of their phone numbers
-     * Allows login using any phone number associated with the guest
+     * Check if email already exists for another guest in the same event
      */
-    @Query("SELECT DISTINCT g FROM Guest g " +
-           "JOIN g.phoneNumbers gp " +
-           "WHERE LOWER(g.familyName) = LOWER(:familyName) " +
-           "AND gp.phoneNumber = :phoneNumber")
-    Optional<Guest> findByFamilyNameAndAnyPhoneNumber(@Param("familyName") String familyName,
-                                                      @Param("phoneNumber") String phoneNumber);
+    @Query("SELECT COUNT(g) > 0 FROM Guest g WHERE g.contactEmail = :email AND g.event.id = :eventId AND (:guestId IS NULL OR g.id != :guestId)")
+    Boolean existsByEmailInEvent(@Param("email") String email, @Param("eventId") Long eventId, @Param("guestId") Long guestId);
 
     /**
-     * Find guest by ANY of their phone numbers (across all guests)
-     * Used to identify which guest owns a specific phone
+     * Find guest by ID with eagerly loaded phone numbers
+     * Used for edit form to show all phone numbers
      */
-    @Query("SELECT DISTINCT g FROM Guest g " +
-           "JOIN g.phoneNumbers gp " +
-           "WHERE gp.phoneNumber = :phoneNumber")
-    Optional<Guest> findByAnyPhoneNumber(@Param("phoneNumber") String phoneNumber);
+    @Query("SELECT g FROM Guest g LEFT JOIN FETCH g.phoneNumbers WHERE g.id = :guestId")
+    Optional<Guest> findByIdWithPhones(@Param("guestId") Long guestId);
 
     /**
-     * Find guest by family name and any phone number
-     * Primary method for multi-phone guest login
+     * Find a set of an event's guests with phone numbers eagerly loaded
+     * Used by bulk invitation dispatch to load a whole chunk in one query
      */
-    @Query("SELECT DISTINCT g FROM Guest g " +
-           "JOIN g.phoneNumbers gp " +
-           "WHERE UPPER(g.familyName) = UPPER(:familyName) " +
-           "AND gp.phoneNumber = :phoneNumber")
-    Optional<Guest> findGuestByFamilyNameAndPhone(@Param("familyName") String familyName,
-                                                  @Param("phoneNumber") String phoneNumber);
+    @Query("SELECT DISTINCT g FROM Guest g LEFT JOIN FETCH g.phoneNumbers WHERE g.event.id = :eventId AND g.id IN :guestIds")
+    List<Guest> findByEventIdAndIdInWithPhones(@Param("eventId") Long eventId, @Param("guestIds") Collection<Long> guestIds);
 
     /**
-     * Find guest by event and phone number (for mobile RSVP)
-     * Supports multiple phone numbers per guest
+     * Initialise RSVP and attendees for a set of guests already in the persistence context
+     * Template variables read attendee data; loading it per chunk avoids one query per guest
      */
-    @Query("SELECT DISTINCT g FROM Guest g " +
-           "JOIN g.phoneNumbers gp " +
-           "WHERE g.event = :event " +
-           "AND gp.phoneNumber = :phoneNumber")
-    Optional<Guest> findByEventAndPhoneNumber(@Param("event") WeddingEvent event,
-                                               @Param("phoneNumber") String phoneNumber);
+    @Query("SELECT DISTINCT g FROM Guest g LEFT JOIN FETCH g.rsvp r LEFT JOIN FETCH r.attendees WHERE g.id IN :guestIds")
+    List<Guest> findByIdInWithRsvp(@Param("guestIds") Collection<Long> guestIds);
 
     /**
-     * Find guest by phone last name and any phone number (uses exact stored phone string)
-     * Searches both:
-     * 1. Guest's own contactLastName + primaryPhoneNumber
-     * 2. Additional phone's contactLastName + that specific phoneNumber
+     * Find guest by ID with RSVP and attendees eagerly loaded
+     * Ensures attendee data is available for serialization in the controller
      */
-    @Query("SELECT DISTINCT g FROM Guest g " +
-           "LEFT JOIN g.phoneNumbers gp " +
-           "WHERE (UPPER(g.contactLastName) = UPPER(:contactLastName) AND g.primaryPhoneNumber = :phoneNumber) " +
-           "OR (UPPER(gp.contactLastName) = UPPER(:contactLastName) AND gp.phoneNumber = :phoneNumber)")
-    Optional<Guest> findByContactLastNameAndAnyPhone(@Param("contactLastName") String contactLastName,
-                                                     @Param("phoneNumber") String phoneNumber);
+    @Query("SELECT g FROM Guest g " +
+           "LEFT JOIN FETCH g.rsvp r " +
+           "LEFT JOIN FETCH r.attendees " +
+           "WHERE g.id = :guestId")
+    Optional<Guest> findByIdWithRsvpAndAttendees(@Param("guestId") Long guestId);
 
     /**
-     * Check if email already exists for another guest in the same event
+     * Guests whose primary phone is a number, in E.164 form (idx_guest_primary_e164_event)
+     * Used by GuestPhoneDirectory together with GuestPhoneNumberRepository.findPhoneOwners
      */
-    @Query("SELECT COUNT(g) > 0 FROM Guest g WHERE g.contactEmail = :email AND g.event.id = :eventId AND (:guestId IS NULL OR g.id != :guestId)")
-    Boolean existsByEmailInEvent(@Param("email") String email, @Param("eventId") Long eventId, @Param("guestId") Long guestId);
+    @Query("SELECT new com.wedknots.dto.PhoneOwner(g.id, g.event.id, g.familyNameKey, g.contactLastName) " +
+           "FROM Guest g WHERE g.primaryPhoneE164 = :phoneE164")
+    List<PhoneOwner> findPhoneOwnersByPrimaryPhone(@Param("phoneE164") String phoneE164);
 
     /**
-     * Find guest by ID with eagerly loaded phone numbers
-     * Used for edit form to show all phone numbers
+     * Guests with a phone that is not indexed in E.164 form, matched on the exact stored string
+     * Login fallback for numbers GuestPhoneIndexBackfill could not normalize or deduplicate
      */
-    @Query("SELECT g FROM Guest g LEFT JOIN FETCH g.phoneNumbers WHERE g.id = :guestId")
-    Optional<Guest> findByIdWithPhones(@Param("guestId") Long guestId);
+    @Query("SELECT DISTINCT g FROM Guest g LEFT JOIN g.phoneNumbers gp " +
+           "WHERE ((g.primaryPhoneE164 IS NULL AND g.primaryPhoneNumber = :phoneNumber) " +
+           "OR (gp.phoneE164 IS NULL AND gp.phoneNumber = :phoneNumber)) " +
+           "AND (UPPER(g.familyName) = UPPER(:name) OR UPPER(g.contactLastName) = UPPER(:name) " +
+           "OR UPPER(gp.contactLastName) = UPPER(:name)) ORDER BY g.id")
+    List<Guest> findByNameAndUnindexedPhone(@Param("name") String name, @Param("phoneNumber") String phoneNumber);
 
     /**
-     * Find guest by ID with RSVP and attendees eagerly loaded
-     * Ensures attendee data is available for serialization in the controller
+     * Primary phones that are set but have no E.164 form
      */
-    @Query("SELECT g FROM Guest g " +
-           "LEFT JOIN FETCH g.rsvp r " +
-           "LEFT JOIN FETCH r.attendees " +
-           "WHERE g.id = :guestId")
-    Optional<Guest> findByIdWithRsvpAndAttendees(@Param("guestId") Long guestId);
+    @Query("SELECT new com.wedknots.dto.UnindexedPhone(g.id, g.event.id, g.event.name, g.familyName, g.primaryPhoneNumber, true) " +
+           "FROM Guest g WHERE g.primaryPhoneE164 IS NULL AND g.primaryPhoneNumber IS NOT NULL ORDER BY g.id")
+    List<UnindexedPhone> findUnindexedPrimaryPhones(Pageable pageable);
 
     /**
-     * Find guest by primary phone number
+     * Whether any primary or additional phone is set but has no E.164 form
      */
-    @Query("SELECT g FROM Guest g WHERE g.primaryPhoneNumber = :phoneNumber")
-    Optional<Guest> findByPrimaryPhoneNumber(@Param("phoneNumber") String phoneNumber);
+    @Query("SELECT CASE WHEN (EXISTS(SELECT 1 FROM Guest g WHERE g.primaryPhoneE164 IS NULL AND g.primaryPhoneNumber IS NOT NULL) " +
+           "OR EXISTS(SELECT 1 FROM GuestPhoneNumber gpn WHERE gpn.phoneE164 IS NULL AND gpn.phoneNumber IS NOT NULL)) " +
+           "THEN true ELSE false END")
+    Boolean existsUnindexedPhone();
 
     /**
-     * Find guest by additional phone number
+     * A guest's own fields as an immutable snapshot, without loading the entity or its associations
      */
-    @Query("SELECT DISTINCT g FROM Guest g JOIN g.phoneNumbers gp WHERE gp.phoneNumber = :phoneNumber")
-    Optional<Guest> findByAdditionalPhoneNumber(@Param("phoneNumber") String phoneNumber);
+    @Query("SELECT new com.wedknots.dto.GuestProfile(g.id, g.event.id, g.familyName, g.contactFirstName, " +
+           "g.contactLastName, g.contactEmail, g.primaryPhoneNumber, g.side, g.maxAttendees, g.version) " +
+           "FROM Guest g WHERE g.id = :guestId")
+    Optional<GuestProfile> findProfileById(@Param("guestId") Long guestId);
 }
@@ -14,4 +14,6 @@ public interface HostRepository extends JpaRepository<Host, Long> {
 
     Optional<Host> findByEmail(String email);
 
+    boolean existsByEmailAndEventId(String email, Long eventId);
+
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +16,9 @@ public interface InvitationLogRepository extends JpaRepository<InvitationLog, Lo
     List<InvitationLog> findByGuestId(Long guestId);
     Optional<InvitationLog> findByInvitationIdAndGuestId(Long invitationId, Long guestId);
 
+    @Query("SELECT il.guest.id FROM InvitationLog il WHERE il.invitation.id = :invitationId AND il.guest.id IN :guestIds")
+    List<Long> findInvitedGuestIds(@Param("invitationId") Long invitationId, @Param("guestIds") Collection<Long> guestIds);
+
     @Query("SELECT il FROM InvitationLog il WHERE il.invitation.event.id = :eventId")
     List<InvitationLog> findByEventId(@Param("eventId") Long eventId);
 
@@ -24,6 +28,23 @@ public interface InvitationLogRepository extends JpaRepository<InvitationLog, Lo
     @Query("SELECT COUNT(il) FROM InvitationLog il WHERE il.invitation.id = :invitationId AND il.deliveryStatus = :status")
     Long countByInvitationIdAndStatus(@Param("invitationId") Long invitationId, @Param("status") String status);
 
-    @Query("SELECT il FROM InvitationLog il WHERE il.guest.id = :guestId AND il.invitation.event.id = :eventId")
+    @Query("SELECT il FROM InvitationLog il JOIN FETCH il.invitation i JOIN FETCH i.event " +
+           "WHERE il.guest.id = :guestId AND i.event.id = :eventId")
     List<InvitationLog> findByGuestIdAndEventId(@Param("guestId") Long guestId, @Param("eventId") Long eventId);
+
+    /**
+     * A guest's invitation logs for the guest dashboard, in one query: each with its invitation and event,
+     * and the guest with RSVP, attendees and travel info
+     */
+    @Query("SELECT il FROM InvitationLog il JOIN FETCH il.invitation i JOIN FETCH i.event e " +
+           "JOIN FETCH il.guest g LEFT JOIN FETCH g.rsvp r LEFT JOIN FETCH r.attendees LEFT JOIN FETCH g.travelInfo " +
+           "WHERE g.id = :guestId ORDER BY e.id, il.id")
+    List<InvitationLog> findForGuestDashboard(@Param("guestId") Long guestId);
+
+    /**
+     * One invitation log of a guest with its invitation and event, for the guest's invitation page
+     */
+    @Query("SELECT il FROM InvitationLog il JOIN FETCH il.invitation i JOIN FETCH i.event " +
+           "WHERE i.id = :invitationId AND il.guest.id = :guestId")
+    Optional<InvitationLog> findForGuestView(@Param("invitationId") Long invitationId, @Param("guestId") Long guestId);
 }
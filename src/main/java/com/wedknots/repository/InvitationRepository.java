@@ -1,5 +1,6 @@
 package com.wedknots.repository;
 
+import com.wedknots.dto.GuestInvitationSummary;
 import com.wedknots.model.Invitation;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -18,5 +19,17 @@ public interface InvitationRepository extends JpaRepository<Invitation, Long> {
 
     @Query("SELECT i FROM Invitation i WHERE i.event.id = :eventId ORDER BY i.createdAt DESC")
     List<Invitation> findByEventIdOrderByCreatedAtDesc(@Param("eventId") Long eventId);
-}
 
+    @Query("SELECT i.id FROM Invitation i WHERE i.imageUrl LIKE 'data:%'")
+    List<Long> findIdsWithInlineImages();
+
+    /**
+     * Invitations sent to a guest, optionally only those of one event
+     */
+    @Query("SELECT new com.wedknots.dto.GuestInvitationSummary(i.id, i.event.id, i.title, i.message) " +
+           "FROM Invitation i WHERE (:eventId IS NULL OR i.event.id = :eventId) " +
+           "AND EXISTS (SELECT 1 FROM InvitationLog il WHERE il.invitation = i AND il.guest.id = :guestId) " +
+           "ORDER BY i.id")
+    List<GuestInvitationSummary> findGuestInvitationSummaries(@Param("guestId") Long guestId,
+                                                              @Param("eventId") Long eventId);
+}
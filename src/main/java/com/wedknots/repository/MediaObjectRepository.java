@@ -0,0 +1,9 @@
+package com.wedknots.repository;
+
+import com.wedknots.model.MediaObject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MediaObjectRepository extends JpaRepository<MediaObject, String> {
+}
@@ -0,0 +1,23 @@
+package com.wedknots.repository;
+
+import com.wedknots.model.MessageBody;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface MessageBodyRepository extends JpaRepository<MessageBody, String> {
+
+    /**
+     * Insert a body unless one with the same hash exists; a concurrent insert of the same body is not an error
+     */
+    @Modifying
+    @Query(value = "INSERT INTO message_body (sha256, title, content, created_at) " +
+                   "VALUES (:sha256, :title, :content, :createdAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("sha256") String sha256, @Param("title") String title,
+                       @Param("content") String content, @Param("createdAt") LocalDateTime createdAt);
+}
@@ -1,12 +1,19 @@
 package com.wedknots.repository;
 
 import com.wedknots.model.MessageDeliveryQueue;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,21 +21,60 @@ import java.util.Optional;
 public interface MessageDeliveryQueueRepository extends JpaRepository<MessageDeliveryQueue, Long> {
 
     /**
-     * Find pending messages ready for processing
+     * Lock a bounded, priority-ordered batch of pending messages for claiming.
+     * Lock timeout -2 is Hibernate's SKIP LOCKED: rows locked by another node are
+     * skipped (FOR UPDATE SKIP LOCKED on PostgreSQL). Dialects without SKIP LOCKED
+     * support, such as H2, fall back to a plain FOR UPDATE row lock.
      */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
     @Query("SELECT m FROM MessageDeliveryQueue m WHERE m.status = 'PENDING' " +
            "AND (m.scheduledAt IS NULL OR m.scheduledAt <= :now) " +
            "ORDER BY m.priority DESC, m.createdAt ASC")
-    List<MessageDeliveryQueue> findPendingMessages(@Param("now") LocalDateTime now);
+    List<MessageDeliveryQueue> lockPendingBatch(@Param("now") LocalDateTime now, Pageable pageable);
 
     /**
-     * Find messages ready for retry
+     * Lock a bounded batch of messages due for retry (see {@link #lockPendingBatch})
      */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
     @Query("SELECT m FROM MessageDeliveryQueue m WHERE m.status = 'RETRY' " +
            "AND m.nextRetryAt <= :now " +
            "AND m.retryCount < m.maxRetries " +
            "ORDER BY m.priority DESC, m.nextRetryAt ASC")
-    List<MessageDeliveryQueue> findMessagesForRetry(@Param("now") LocalDateTime now);
+    List<MessageDeliveryQueue> lockRetryBatch(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Return claimed messages whose lease has expired to the queue so any node can pick them up
+     * A message that has already failed goes back to RETRY, keeping its backoff; others to PENDING.
+     * Rows left PROCESSING without a lease (in flight before leases existed) are released too
+     */
+    @Modifying
+    @Query("UPDATE MessageDeliveryQueue m SET " +
+           "m.status = CASE WHEN m.retryCount > 0 THEN 'RETRY' ELSE 'PENDING' END, " +
+           "m.nextRetryAt = CASE WHEN m.retryCount > 0 THEN COALESCE(m.nextRetryAt, :now) ELSE m.nextRetryAt END, " +
+           "m.claimedBy = NULL, m.leaseExpiresAt = NULL, m.processingStartedAt = NULL " +
+           "WHERE m.status = 'PROCESSING' AND (m.leaseExpiresAt < :now OR m.leaseExpiresAt IS NULL)")
+    int releaseExpiredClaims(@Param("now") LocalDateTime now);
+
+    /**
+     * Extend the lease of claims still owned by the given node
+     * @return number of rows whose lease was extended; rows missing from the count have lost their claim
+     */
+    @Modifying
+    @Query("UPDATE MessageDeliveryQueue m SET m.leaseExpiresAt = :leaseExpiresAt " +
+           "WHERE m.id IN :ids AND m.status = 'PROCESSING' AND m.claimedBy = :owner")
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+                    @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    /**
+     * Return a single claim owned by the given node to PENDING (e.g. when it could not be dispatched)
+     */
+    @Modifying
+    @Query("UPDATE MessageDeliveryQueue m SET m.status = 'PENDING', m.claimedBy = NULL, " +
+           "m.leaseExpiresAt = NULL, m.processingStartedAt = NULL " +
+           "WHERE m.id = :id AND m.status = 'PROCESSING' AND m.claimedBy = :owner")
+    int releaseClaim(@Param("id") Long id, @Param("owner") String owner);
 
     /**
      * Find messages by status
@@ -54,12 +100,4 @@ public interface MessageDeliveryQueueRepository extends JpaRepository<MessageDel
      * Count pending messages
      */
     long countByStatus(String status);
-
-    /**
-     * Find stuck messages (processing for too long)
-     */
-    @Query("SELECT m FROM MessageDeliveryQueue m WHERE m.status = 'PROCESSING' " +
-           "AND m.processingStartedAt < :cutoffTime")
-    List<MessageDeliveryQueue> findStuckMessages(@Param("cutoffTime") LocalDateTime cutoffTime);
 }
-
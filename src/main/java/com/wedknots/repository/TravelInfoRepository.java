@@ -2,12 +2,21 @@ package com.wedknots.repository;
 
 import com.wedknots.model.TravelInfo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TravelInfoRepository extends JpaRepository<TravelInfo, Long> {
     Optional<TravelInfo> findByGuestId(Long guestId);
+
+    /**
+     * Travel records of an event with their guest, in one query
+     */
+    @Query("SELECT ti FROM TravelInfo ti JOIN FETCH ti.guest g WHERE g.event.id = :eventId ORDER BY g.familyName, g.id")
+    List<TravelInfo> findByEventIdWithGuest(@Param("eventId") Long eventId);
 }
 
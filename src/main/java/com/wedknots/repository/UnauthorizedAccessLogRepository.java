@@ -1,12 +1,31 @@
 package com.wedknots.repository;
 
 import com.wedknots.model.UnauthorizedAccessLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface UnauthorizedAccessLogRepository extends JpaRepository<UnauthorizedAccessLog, Long> {
-    List<UnauthorizedAccessLog> findTop100ByOrderByCreatedAtDesc();
+
+    /**
+     * First page of the audit log, newest first (idx_unauthorized_access_created)
+     */
+    @Query("SELECT l FROM UnauthorizedAccessLog l ORDER BY l.createdAt DESC, l.id DESC")
+    List<UnauthorizedAccessLog> findLatest(Pageable limit);
+
+    /**
+     * Audit log rows strictly after the keyset (createdAt, id), newest first
+     */
+    @Query("SELECT l FROM UnauthorizedAccessLog l " +
+           "WHERE l.createdAt < :cursorAt OR (l.createdAt = :cursorAt AND l.id < :cursorId) " +
+           "ORDER BY l.createdAt DESC, l.id DESC")
+    List<UnauthorizedAccessLog> findLatestAfter(@Param("cursorAt") LocalDateTime cursorAt,
+                                                @Param("cursorId") Long cursorId,
+                                                Pageable limit);
 }
@@ -1,19 +1,96 @@
 package com.wedknots.service;
 
-import com.wedknots.model.UnauthorizedAccessLog;
-import com.wedknots.repository.UnauthorizedAccessLogRepository;
+import com.wedknots.util.MpscRingBuffer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Write-behind audit log of denied requests
+ * Request threads only copy the few fields of a denial into a bounded lock-free ring
+ * buffer. A background flush folds identical denials (user, IP, URI, reason) seen within
+ * access-audit.coalesce-window-seconds into one row with an occurrence count and writes
+ * finished rows with JDBC batch inserts. When the buffer is full denials are dropped and
+ * counted rather than slowing the request down.
+ */
 @Service
 public class AccessAuditService {
+    private static final Logger logger = LoggerFactory.getLogger(AccessAuditService.class);
+    private static final String INSERT_SQL =
+            "INSERT INTO unauthorized_access_log (username, role, request_uri, http_method, client_ip, reason, " +
+            "created_at, last_seen_at, occurrences) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Repeated rejections of one client for one reason
+     */
+    public record Rejection(String clientIp, String reason, long count) {
+    }
+
+    /**
+     * Denials sharing this key inside a window become one row
+     */
+    private record AuditKey(String username, String role, String requestUri, String httpMethod,
+                            String clientIp, String reason) {
+    }
+
+    private record AuditEvent(AuditKey key, long count, LocalDateTime at) {
+    }
+
+    /**
+     * An open row, mutated only by the flushing thread
+     */
+    private static final class Aggregate {
+        final LocalDateTime firstSeen;
+        LocalDateTime lastSeen;
+        long count;
+
+        Aggregate(LocalDateTime firstSeen) {
+            this.firstSeen = firstSeen;
+            this.lastSeen = firstSeen;
+        }
+    }
+
+    private final MpscRingBuffer<AuditEvent> buffer;
+    private final int batchSize;
+    private final long coalesceWindowSeconds;
+    private final int maxOpenRows;
+
+    // Open rows by key, oldest first; guarded by the flush lock
+    private final Map<AuditKey, Aggregate> open = new LinkedHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
 
     @Autowired
-    private UnauthorizedAccessLogRepository repository;
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public AccessAuditService(@Value("${access-audit.buffer-capacity:4096}") int bufferCapacity,
+                              @Value("${access-audit.batch-size:500}") int batchSize,
+                              @Value("${access-audit.coalesce-window-seconds:60}") long coalesceWindowSeconds,
+                              @Value("${access-audit.max-open-rows:5000}") int maxOpenRows) {
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.coalesceWindowSeconds = coalesceWindowSeconds;
+        this.maxOpenRows = maxOpenRows;
+    }
 
     public void logUnauthorized(HttpServletRequest request, Authentication authentication, String reason) {
         String username = authentication != null ? authentication.getName() : "ANONYMOUS";
@@ -21,23 +98,105 @@ public class AccessAuditService {
                 ? authentication.getAuthorities().toString()
                 : "NONE";
 
-        UnauthorizedAccessLog log = UnauthorizedAccessLog.builder()
-                .username(username)
-                .role(role)
-                .requestUri(request.getRequestURI())
-                .httpMethod(request.getMethod())
-                .clientIp(getClientIp(request))
-                .reason(reason)
-                .createdAt(LocalDateTime.now())
-                .build();
-        repository.save(log);
+        record(new AuditKey(truncate(username, 255), truncate(role, 255), truncate(request.getRequestURI(), 1024),
+                truncate(request.getMethod(), 16), truncate(getClientIp(request), 64), truncate(reason, 1024)), 1);
     }
 
-    private String getClientIp(HttpServletRequest request) {
-        String ip = request.getHeader("X-Forwarded-For");
-        if (ip == null || ip.isBlank()) {
-            ip = request.getRemoteAddr();
+    /**
+     * Record batched rejections of anonymous requests, one row per client and reason
+     */
+    public void logRejections(String requestUri, String httpMethod, Collection<Rejection> rejections) {
+        for (Rejection rejection : rejections) {
+            record(new AuditKey("ANONYMOUS", "NONE", truncate(requestUri, 1024), truncate(httpMethod, 16),
+                    truncate(rejection.clientIp(), 64), truncate(rejection.reason(), 1024)), rejection.count());
         }
-        return ip;
+    }
+
+    /**
+     * Fold buffered denials into open rows and write the rows whose window has closed
+     */
+    @Scheduled(fixedDelayString = "${access-audit.flush-interval-ms:2000}")
+    public void flush() {
+        flush(false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush(true);
+    }
+
+    private void record(AuditKey key, long count) {
+        if (!buffer.offer(new AuditEvent(key, count, LocalDateTime.now()))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private synchronized void flush(boolean all) {
+        List<AuditEvent> events = new ArrayList<>(batchSize);
+        while (buffer.drainTo(events, batchSize) > 0) {
+            for (AuditEvent event : events) {
+                Aggregate aggregate = open.computeIfAbsent(event.key(), key -> new Aggregate(event.at()));
+                aggregate.count += event.count();
+                if (event.at().isAfter(aggregate.lastSeen)) {
+                    aggregate.lastSeen = event.at();
+                }
+            }
+            events.clear();
+        }
+
+        // Rows close when their window ends, or early when too many are open
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(coalesceWindowSeconds);
+        boolean overflow = open.size() > maxOpenRows;
+        List<Map.Entry<AuditKey, Aggregate>> closed = new ArrayList<>();
+        var iterator = open.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<AuditKey, Aggregate> entry = iterator.next();
+            if (all || overflow || !entry.getValue().firstSeen.isAfter(cutoff)) {
+                closed.add(entry);
+                iterator.remove();
+            }
+        }
+        for (int from = 0; from < closed.size(); from += batchSize) {
+            List<Map.Entry<AuditKey, Aggregate>> batch = closed.subList(from, Math.min(closed.size(), from + batchSize));
+            try {
+                insert(batch);
+            } catch (Exception e) {
+                logger.warn("Failed to write {} access audit rows: {}", batch.size(), e.getMessage());
+            }
+        }
+
+        long droppedNow = dropped.getAndSet(0);
+        if (droppedNow > 0) {
+            logger.warn("Access audit buffer full: {} denials not recorded", droppedNow);
+        }
+    }
+
+    private void insert(List<Map.Entry<AuditKey, Aggregate>> rows) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+                    AuditKey key = row.getKey();
+                    Aggregate aggregate = row.getValue();
+                    ps.setString(1, key.username());
+                    ps.setString(2, key.role());
+                    ps.setString(3, key.requestUri());
+                    ps.setString(4, key.httpMethod());
+                    ps.setString(5, key.clientIp());
+                    ps.setString(6, key.reason());
+                    ps.setTimestamp(7, Timestamp.valueOf(aggregate.firstSeen));
+                    ps.setTimestamp(8, Timestamp.valueOf(aggregate.lastSeen));
+                    ps.setInt(9, (int) Math.min(Integer.MAX_VALUE, aggregate.count));
+                }));
+    }
+
+    /**
+     * Client address as resolved by Tomcat, which honours X-Forwarded-For only from trusted proxies
+     * The raw header is never read: a client could vary it per request and defeat coalescing
+     */
+    private String getClientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
     }
 }
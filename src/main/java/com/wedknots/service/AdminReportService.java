@@ -2,8 +2,6 @@ package com.wedknots.service;
 
 import com.wedknots.model.WeddingEvent;
 import com.wedknots.repository.AttendeeRepository;
-import com.wedknots.repository.EventTrafficLogRepository;
-import com.wedknots.repository.GuestRepository;
 import com.wedknots.repository.WeddingEventRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -23,72 +21,17 @@ public class AdminReportService {
     @Autowired
     private WeddingEventRepository eventRepository;
 
-    @Autowired
-    private GuestRepository guestRepository;
-
     @Autowired
     private AttendeeRepository attendeeRepository;
 
     @Autowired
-    private EventTrafficLogRepository trafficRepository;
-
-    public Map<String, Object> buildSummary() {
-        Map<String, Object> summary = new HashMap<>();
-        List<WeddingEvent> events = eventRepository.findAll();
-        summary.put("weddingsCount", events.size());
-
-        long guestsTotal = 0;
-        long attendeesTotal = 0;
-        Map<Long, Long> guestsPerEvent = new HashMap<>();
-        Map<Long, Long> attendeesPerEvent = new HashMap<>();
-        Map<Long, Long> trafficViews = new HashMap<>();
-        Map<Long, LocalDateTime> lastUpdated = new HashMap<>();
+    private EventStatsCache eventStatsCache;
 
-        // Guests aggregated
-        for (Object[] row : guestRepository.summarizeGuestsPerEvent()) {
-            Long eventId = (Long) row[0];
-            Long count = (Long) row[1];
-            guestsPerEvent.put(eventId, count);
-            guestsTotal += count;
-        }
-
-        // Attendees aggregated
-        for (Object[] row : attendeeRepository.summarizeAttendeesPerEvent()) {
-            Long eventId = (Long) row[0];
-            Long count = (Long) row[1];
-            attendeesPerEvent.put(eventId, count);
-            attendeesTotal += count;
-        }
-
-        // Traffic aggregated
-        for (Object[] row : trafficRepository.summarizeViewsPerEvent()) {
-            Long eventId = (Long) row[0];
-            Long views = (Long) row[1];
-            trafficViews.put(eventId, views);
-        }
-
-        for (Object[] row : trafficRepository.summarizeLastViewPerEvent()) {
-            Long eventId = (Long) row[0];
-            LocalDateTime lastView = (LocalDateTime) row[1];
-            lastUpdated.put(eventId, lastView);
-        }
-
-        // Last updated per event: prefer attendees updatedAt if available, else traffic last view
-        for (WeddingEvent event : events) {
-            var attendeeUpdated = attendeeRepository.findLastUpdatedByEventId(event.getId());
-            var trafficUpdated = lastUpdated.get(event.getId());
-            var effective = attendeeUpdated != null ? attendeeUpdated : trafficUpdated;
-            lastUpdated.put(event.getId(), effective);
-        }
-
-        summary.put("guestsCount", guestsTotal);
-        summary.put("attendeesCount", attendeesTotal);
-        summary.put("guestsPerEvent", guestsPerEvent);
-        summary.put("attendeesPerEvent", attendeesPerEvent);
-        summary.put("trafficViews", trafficViews);
-        summary.put("lastUpdated", lastUpdated);
-        summary.put("generatedAt", LocalDateTime.now());
-        return summary;
+    /**
+     * Report summary for one page of events; totals still cover every event
+     */
+    public Map<String, Object> buildSummary(Pageable pageable) {
+        return buildSummaryForEvents(eventRepository.findAll(pageable).getContent());
     }
 
     // Example filter/pagination method for attendees list (can be used in controller if you add a UI)
@@ -103,61 +46,43 @@ public class AdminReportService {
         return eventRepository.findAll(pageable);
     }
 
+    /**
+     * Report summary for the given events (typically one page)
+     * Per-event figures are keyed lookups in EventStatsCache for these event IDs only;
+     * headline totals come from the cached global counts.
+     */
     public Map<String, Object> buildSummaryForEvents(List<WeddingEvent> events) {
         Map<String, Object> summary = new HashMap<>();
 
-        long guestsTotal = 0;
-        long attendeesTotal = 0;
         Map<Long, Long> guestsPerEvent = new HashMap<>();
         Map<Long, Long> attendeesPerEvent = new HashMap<>();
         Map<Long, Long> trafficViews = new HashMap<>();
         Map<Long, LocalDateTime> lastUpdated = new HashMap<>();
 
-        // Guests aggregated
-        for (Object[] row : guestRepository.summarizeGuestsPerEvent()) {
-            Long eventId = (Long) row[0];
-            Long count = (Long) row[1];
-            guestsPerEvent.put(eventId, count);
-            guestsTotal += count;
-        }
-
-        // Attendees aggregated
-        for (Object[] row : attendeeRepository.summarizeAttendeesPerEvent()) {
-            Long eventId = (Long) row[0];
-            Long count = (Long) row[1];
-            attendeesPerEvent.put(eventId, count);
-            attendeesTotal += count;
-        }
-
-        // Traffic aggregated
-        for (Object[] row : trafficRepository.summarizeViewsPerEvent()) {
-            Long eventId = (Long) row[0];
-            Long views = (Long) row[1];
-            trafficViews.put(eventId, views);
-        }
-
-        for (Object[] row : trafficRepository.summarizeLastViewPerEvent()) {
-            Long eventId = (Long) row[0];
-            LocalDateTime lastView = (LocalDateTime) row[1];
-            lastUpdated.put(eventId, lastView);
-        }
+        List<Long> eventIds = events.stream().map(WeddingEvent::getId).toList();
+        Map<Long, EventStatsCache.EventStats> stats = eventStatsCache.getStats(eventIds);
 
         // Last updated per event: prefer entity audit if present, else attendee updatedAt, else traffic last view
         for (WeddingEvent event : events) {
+            EventStatsCache.EventStats eventStats = stats.getOrDefault(event.getId(), EventStatsCache.EventStats.EMPTY);
+            guestsPerEvent.put(event.getId(), eventStats.guests());
+            attendeesPerEvent.put(event.getId(), eventStats.attendees());
+            trafficViews.put(event.getId(), eventStats.views());
+
             LocalDateTime candidate = event.getUpdatedAt();
-            if (candidate == null && attendeesPerEvent.containsKey(event.getId())) {
-                var attendeeUpdated = attendeeRepository.findLastUpdatedByEventId(event.getId());
-                candidate = attendeeUpdated != null ? attendeeUpdated : candidate;
+            if (candidate == null) {
+                candidate = eventStats.attendeesUpdatedAt();
             }
             if (candidate == null) {
-                candidate = lastUpdated.get(event.getId());
+                candidate = eventStats.lastViewAt();
             }
             lastUpdated.put(event.getId(), candidate);
         }
 
-        summary.put("weddingsCount", events.size());
-        summary.put("guestsCount", guestsTotal);
-        summary.put("attendeesCount", attendeesTotal);
+        EventStatsCache.Totals totals = eventStatsCache.getTotals();
+        summary.put("weddingsCount", totals.events());
+        summary.put("guestsCount", totals.guests());
+        summary.put("attendeesCount", totals.attendees());
         summary.put("guestsPerEvent", guestsPerEvent);
         summary.put("attendeesPerEvent", attendeesPerEvent);
         summary.put("trafficViews", trafficViews);
@@ -19,10 +19,6 @@ public class AttendeeService {
     @Autowired
     private RSVPService rsvpService;
 
-    public List<Attendee> getAllAttendees() {
-        return attendeeRepository.findAll();
-    }
-
     public Optional<Attendee> getAttendeeById(Long id) {
         return attendeeRepository.findById(id);
     }
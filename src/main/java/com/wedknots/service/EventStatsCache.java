@@ -0,0 +1,166 @@
+package com.wedknots.service;
+
+import com.wedknots.repository.AttendeeRepository;
+import com.wedknots.repository.EventTrafficRollupRepository;
+import com.wedknots.repository.GuestRepository;
+import com.wedknots.repository.WeddingEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-event report statistics with TTL and explicit invalidation
+ * Snapshots are loaded in bulk, only for the requested event IDs, with one grouped query
+ * per source. Guest, RSVP and attendee writes evict the affected event through
+ * EventStatsInvalidationListener; traffic views simply age out with the TTL.
+ * A load that raced with an invalidation is returned but not cached.
+ */
+@Service
+public class EventStatsCache {
+
+    /**
+     * Report statistics of one event
+     */
+    public record EventStats(long guests, long attendees, long views,
+                             LocalDateTime attendeesUpdatedAt, LocalDateTime lastViewAt) {
+        static final EventStats EMPTY = new EventStats(0, 0, 0, null, null);
+    }
+
+    /**
+     * Totals across all events
+     */
+    public record Totals(long events, long guests, long attendees) {
+    }
+
+    private record Entry<T>(T value, long expiresAt) {
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    @Autowired
+    private WeddingEventRepository eventRepository;
+
+    @Autowired
+    private GuestRepository guestRepository;
+
+    @Autowired
+    private AttendeeRepository attendeeRepository;
+
+    @Autowired
+    private EventTrafficRollupRepository trafficRollupRepository;
+
+    @Value("${admin-report.stats-ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final Map<Long, Entry<EventStats>> stats = new ConcurrentHashMap<>();
+    private volatile Entry<Totals> totals;
+
+    // Bumped on every invalidation; a load that raced with one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Statistics for the given events, loading only missing or expired entries
+     */
+    public Map<Long, EventStats> getStats(Collection<Long> eventIds) {
+        long now = System.currentTimeMillis();
+        Map<Long, EventStats> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long eventId : eventIds) {
+            Entry<EventStats> entry = stats.get(eventId);
+            if (entry == null || entry.isExpired(now)) {
+                missing.add(eventId);
+            } else {
+                result.put(eventId, entry.value());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long loadedAt = generation.get();
+            Map<Long, EventStats> loaded = load(missing);
+            long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000;
+            synchronized (stats) {
+                if (generation.get() == loadedAt) {
+                    loaded.forEach((eventId, value) -> stats.put(eventId, new Entry<>(value, expiresAt)));
+                }
+            }
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    public Totals getTotals() {
+        Entry<Totals> entry = totals;
+        if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+            long loadedAt = generation.get();
+            Totals loaded = new Totals(eventRepository.count(), guestRepository.count(), attendeeRepository.count());
+            entry = new Entry<>(loaded, System.currentTimeMillis() + ttlSeconds * 1000);
+            synchronized (stats) {
+                if (generation.get() == loadedAt) {
+                    totals = entry;
+                }
+            }
+        }
+        return entry.value();
+    }
+
+    /**
+     * Drop the cached statistics of an event, and the totals it contributes to
+     */
+    public void invalidate(Long eventId) {
+        synchronized (stats) {
+            generation.incrementAndGet();
+            if (eventId != null) {
+                stats.remove(eventId);
+            }
+            totals = null;
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (stats) {
+            generation.incrementAndGet();
+            stats.clear();
+            totals = null;
+        }
+    }
+
+    private Map<Long, EventStats> load(List<Long> eventIds) {
+        Map<Long, Long> guests = new HashMap<>();
+        for (Object[] row : guestRepository.summarizeGuestsForEvents(eventIds)) {
+            guests.put((Long) row[0], (Long) row[1]);
+        }
+
+        Map<Long, Object[]> attendees = new HashMap<>();
+        for (Object[] row : attendeeRepository.summarizeAttendeesForEvents(eventIds)) {
+            attendees.put((Long) row[0], row);
+        }
+
+        Map<Long, Object[]> traffic = new HashMap<>();
+        for (Object[] row : trafficRollupRepository.summarizeViewsForEvents(eventIds)) {
+            traffic.put((Long) row[0], row);
+        }
+
+        Map<Long, EventStats> loaded = new HashMap<>();
+        for (Long eventId : eventIds) {
+            Object[] attendeeRow = attendees.get(eventId);
+            Object[] trafficRow = traffic.get(eventId);
+            loaded.put(eventId, new EventStats(
+                    guests.getOrDefault(eventId, 0L),
+                    attendeeRow != null ? (Long) attendeeRow[1] : 0L,
+                    trafficRow != null ? (Long) trafficRow[1] : 0L,
+                    attendeeRow != null ? (LocalDateTime) attendeeRow[2] : null,
+                    trafficRow != null ? (LocalDateTime) trafficRow[2] : null));
+        }
+        return loaded;
+    }
+}
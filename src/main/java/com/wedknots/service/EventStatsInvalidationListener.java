@@ -0,0 +1,55 @@
+package com.wedknots.service;
+
+import com.wedknots.model.Attendee;
+import com.wedknots.model.Guest;
+import com.wedknots.model.RSVP;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that evicts report statistics when guests, RSVPs or attendees change
+ * Eviction runs after commit so a concurrent report cannot re-cache uncommitted state.
+ * Instantiated by Hibernate through Spring's bean container, which injects the cache.
+ */
+public class EventStatsInvalidationListener {
+
+    @Autowired
+    private EventStatsCache eventStatsCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        Long eventId = eventIdOf(entity);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventStatsCache.invalidate(eventId);
+                }
+            });
+        } else {
+            eventStatsCache.invalidate(eventId);
+        }
+    }
+
+    private Long eventIdOf(Object entity) {
+        if (entity instanceof Guest guest) {
+            return guest.getEventId();
+        }
+        if (entity instanceof RSVP rsvp) {
+            if (rsvp.getEventId() != null) {
+                return rsvp.getEventId();
+            }
+            return rsvp.getGuest() != null ? rsvp.getGuest().getEventId() : null;
+        }
+        if (entity instanceof Attendee attendee && attendee.getRsvp() != null) {
+            return eventIdOf(attendee.getRsvp());
+        }
+        return null;
+    }
+}
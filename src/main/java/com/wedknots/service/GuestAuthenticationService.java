@@ -20,6 +20,12 @@ public class GuestAuthenticationService {
     @Autowired
     private GuestRepository guestRepository;
 
+    @Autowired
+    private GuestPhoneDirectory guestPhoneDirectory;
+
+    @Autowired
+    private GuestPhoneIndexBackfill guestPhoneIndexBackfill;
+
     /**
      * Validate guest login credentials (family name + any phone number)
      * Returns success if guest found with matching family name and any phone number
@@ -32,13 +38,7 @@ public class GuestAuthenticationService {
             return new GuestLoginResult(false, "Phone number is required", null);
         }
 
-        // Try new multi-phone system
-        Optional<Guest> guestOpt = guestRepository.findByFamilyNameAndAnyPhoneNumber(familyName, phoneNumber);
-
-        // Fallback to old single-phone system for backward compatibility
-        if (guestOpt.isEmpty()) {
-            guestOpt = guestRepository.findByFamilyNameIgnoreCaseAndContactPhone(familyName, phoneNumber);
-        }
+        Optional<Guest> guestOpt = getGuestForAuthentication(familyName, phoneNumber);
 
         if (guestOpt.isEmpty()) {
             logger.warn("Guest login attempt failed - no guest found with family name: {} and phone: {}",
@@ -59,15 +59,16 @@ public class GuestAuthenticationService {
      * Accepts any of the guest's phone numbers
      */
     public Optional<Guest> getGuestForAuthentication(String familyName, String phoneNumber) {
-        // Try new multi-phone system first
-        Optional<Guest> guestOpt = guestRepository.findByFamilyNameAndAnyPhoneNumber(familyName, phoneNumber);
-
-        // Fallback to old system
-        if (guestOpt.isEmpty()) {
-            guestOpt = guestRepository.findByFamilyNameIgnoreCaseAndContactPhone(familyName, phoneNumber);
+        // Phone matched in E.164 form through the in-memory directory, then one primary-key load
+        Optional<Guest> guest = guestPhoneDirectory.findGuestForLogin(familyName, phoneNumber)
+                .flatMap(guestRepository::findById);
+        if (guest.isPresent() || familyName == null || phoneNumber == null
+                || !guestPhoneIndexBackfill.hasUnindexedPhones()) {
+            return guest;
         }
 
-        return guestOpt;
+        // Numbers the backfill could not index still log in with the exact string they were saved as
+        return guestRepository.findByNameAndUnindexedPhone(familyName.trim(), phoneNumber.trim()).stream().findFirst();
     }
 
     /**
@@ -80,15 +81,20 @@ public class GuestAuthenticationService {
             return false;
         }
 
+        String e164 = guestPhoneDirectory.normalize(phoneNumber);
+        if (e164 == null) {
+            return false;
+        }
+
         Guest guest = guestOpt.get();
         if (guest.getPhoneNumbers() == null || guest.getPhoneNumbers().isEmpty()) {
             // Fallback: check contact_phone
-            return guest.getContactPhone() != null && guest.getContactPhone().equals(phoneNumber);
+            return e164.equals(guestPhoneDirectory.normalize(guest.getContactPhone()));
         }
 
         // Check if phone is in guest's phone numbers
         return guest.getPhoneNumbers().stream()
-                .anyMatch(phone -> phone.getPhoneNumber().equals(phoneNumber));
+                .anyMatch(phone -> e164.equals(guestPhoneDirectory.normalize(phone.getPhoneNumber())));
     }
 
     /**
@@ -161,58 +167,6 @@ public class GuestAuthenticationService {
         return guest.getContactPhone();
     }
 
-    /**
-     * Normalize phone numbers to digits only, optionally keep leading '+'
-     */
-    private String normalizePhone(String phone) {
-        if (phone == null) return null;
-        // Remove spaces, parentheses, dashes
-        String cleaned = phone.replaceAll("[\\s\\-\\(\\)]", "");
-        // If starts with 00, convert to +
-        if (cleaned.startsWith("00")) {
-            cleaned = "+" + cleaned.substring(2);
-        }
-        // If starts with single 0 but not 00, keep as-is (local) and also consider without leading 0
-        return cleaned;
-    }
-
-    /**
-     * Normalize phone into multiple candidate forms to match stored numbers
-     */
-    private java.util.List<String> generatePhoneCandidates(String phone) {
-        java.util.List<String> variants = new java.util.ArrayList<>();
-        if (phone == null || phone.trim().isEmpty()) return variants;
-
-        String p = phone.trim();
-        String cleaned = p.replaceAll("[\\s\\-\\(\\)]", "");
-
-        // exact cleaned
-        variants.add(cleaned);
-
-        // 00 -> +
-        if (cleaned.startsWith("00")) {
-            variants.add("+" + cleaned.substring(2));
-        }
-
-        // leading +, variant without plus
-        if (cleaned.startsWith("+")) {
-            variants.add(cleaned.substring(1));
-        }
-
-        // leading single 0: add without leading 0
-        if (cleaned.startsWith("0") && !cleaned.startsWith("00")) {
-            variants.add(cleaned.substring(1));
-        }
-
-        // also add original trimmed if different
-        if (!variants.contains(p)) {
-            variants.add(p);
-        }
-
-        // Deduplicate
-        return variants.stream().distinct().toList();
-    }
-
     /**
      * Validate guest login using phone contact last name + phone number (any registered phone)
      */
@@ -224,35 +178,19 @@ public class GuestAuthenticationService {
             return new GuestLoginResult(false, "Phone number is required", null);
         }
 
-        java.util.List<String> phoneCandidates = generatePhoneCandidates(phoneNumber);
-
-        Optional<Guest> guestOpt = Optional.empty();
-        for (String candidate : phoneCandidates) {
-            guestOpt = guestRepository.findByContactLastNameAndAnyPhone(contactLastName, candidate);
-            if (guestOpt.isPresent()) {
-                break;
-            }
-            // Legacy: also try familyName + phone in case last name stored as family
-            guestOpt = guestRepository.findByFamilyNameAndAnyPhoneNumber(contactLastName, candidate);
-            if (guestOpt.isPresent()) {
-                break;
-            }
-            guestOpt = guestRepository.findByFamilyNameIgnoreCaseAndContactPhone(contactLastName, candidate);
-            if (guestOpt.isPresent()) {
-                break;
-            }
-        }
+        // Matches the contact last name of the phone's owner, or the family name for legacy guests
+        Optional<Guest> guestOpt = getGuestForAuthentication(contactLastName, phoneNumber);
 
         if (guestOpt.isEmpty()) {
-            logger.warn("Guest login attempt failed - no guest found with contact last name: {} and phone variants: {}",
-                       contactLastName, phoneCandidates);
+            logger.warn("Guest login attempt failed - no guest found with contact last name: {} and phone: {}",
+                       contactLastName, phoneNumber);
             return new GuestLoginResult(false,
                 "Guest not found. Please verify your last name and phone number.", null);
         }
 
         Guest guest = guestOpt.get();
-        logger.info("Guest authentication successful - Contact last name: {}, Guest ID: {}, Phone variants: {}",
-                   contactLastName, guest.getId(), phoneCandidates);
+        logger.info("Guest authentication successful - Contact last name: {}, Guest ID: {}, Phone: {}",
+                   contactLastName, guest.getId(), phoneNumber);
         return new GuestLoginResult(true, "Authentication successful", guest);
     }
 
@@ -0,0 +1,399 @@
+package com.wedknots.service;
+
+import com.wedknots.dto.GuestImportResult;
+import com.wedknots.model.GuestPhoneNumber;
+import com.wedknots.model.RSVPStatus;
+import com.wedknots.util.PhoneNumbers;
+import com.wedknots.util.SpreadsheetReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk guest import from CSV or XLSX
+ * Rows are parsed one at a time and validated against the event's phone numbers (compared
+ * in E.164 form) and emails, loaded once up front. Valid rows are written in chunks: guests, their
+ * additional phone numbers and default RSVPs each go in as one JDBC batch per chunk.
+ * Invalid rows are skipped and reported with their row number.
+ */
+@Service
+public class GuestImportService {
+    private static final Logger logger = LoggerFactory.getLogger(GuestImportService.class);
+
+    private static final String EVENT_PHONES_SQL =
+            "SELECT primary_phone_e164 FROM guest_tbl WHERE event_id = ? AND primary_phone_e164 IS NOT NULL " +
+            "UNION SELECT phone_e164 FROM guest_phone_number_tbl WHERE event_id = ? AND phone_e164 IS NOT NULL";
+    private static final String EVENT_EMAILS_SQL =
+            "SELECT LOWER(contact_email) FROM guest_tbl WHERE event_id = ? AND contact_email IS NOT NULL";
+    private static final String INSERT_GUEST_SQL =
+            "INSERT INTO guest_tbl (family_name, contact_first_name, contact_last_name, contact_email, " +
+            "primary_phone_number, side, max_attendees, address_line_1, address_line_2, city, postal_code, country, " +
+            "event_id, created_at, updated_at, family_name_key, primary_phone_e164, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_PHONE_SQL =
+            "INSERT INTO guest_phone_number_tbl (guest_id, event_id, phone_number, phone_e164, phone_type, is_primary, " +
+            "contact_first_name, contact_last_name, created_at, updated_at) VALUES (?, ?, ?, ?, ?, false, ?, ?, ?, ?)";
+    private static final String INSERT_RSVP_SQL =
+            "INSERT INTO rsvp_tbl (guest_id, event_id, status, attendee_count, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, 0, ?, ?, 0)";
+
+    // Accepted header spellings, compared lower-case with spaces, dashes and underscores removed
+    private static final Map<String, String> HEADER_ALIASES = Map.ofEntries(
+            Map.entry("familyname", "familyName"),
+            Map.entry("family", "familyName"),
+            Map.entry("firstname", "firstName"),
+            Map.entry("contactfirstname", "firstName"),
+            Map.entry("lastname", "lastName"),
+            Map.entry("contactlastname", "lastName"),
+            Map.entry("email", "email"),
+            Map.entry("contactemail", "email"),
+            Map.entry("phone", "phone"),
+            Map.entry("phonenumber", "phone"),
+            Map.entry("primaryphone", "phone"),
+            Map.entry("primaryphonenumber", "phone"),
+            Map.entry("side", "side"),
+            Map.entry("maxattendees", "maxAttendees"),
+            Map.entry("additionalphones", "additionalPhones"),
+            Map.entry("otherphones", "additionalPhones"),
+            Map.entry("addressline1", "addressLine1"),
+            Map.entry("address", "addressLine1"),
+            Map.entry("addressline2", "addressLine2"),
+            Map.entry("city", "city"),
+            Map.entry("postalcode", "postalCode"),
+            Map.entry("postcode", "postalCode"),
+            Map.entry("country", "country"));
+    private static final List<String> REQUIRED_COLUMNS = List.of("familyName", "firstName", "lastName", "phone", "side");
+
+    /**
+     * A validated row waiting to be written
+     */
+    private record PendingGuest(int row, String familyName, String firstName, String lastName, String email,
+                                String phone, String phoneE164, String side, int maxAttendees, String addressLine1,
+                                String addressLine2, String city, String postalCode, String country,
+                                Map<String, String> additionalPhones) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EventStatsCache eventStatsCache;
+
+    @Autowired
+    private GuestPhoneDirectory guestPhoneDirectory;
+
+    @Value("${guest-import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${guest-import.max-rows:5000}")
+    private int maxRows;
+
+    /**
+     * Import guests from an uploaded .csv or .xlsx file into an event
+     */
+    public GuestImportResult importGuests(Long eventId, MultipartFile file) throws IOException {
+        Path tmp = Files.createTempFile("guest-import-", ".upload");
+        try {
+            file.transferTo(tmp);
+            try (SpreadsheetReader reader = SpreadsheetReader.open(tmp, file.getOriginalFilename())) {
+                return importRows(eventId, reader);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private GuestImportResult importRows(Long eventId, SpreadsheetReader reader) throws IOException {
+        List<GuestImportResult.RowError> errors = new ArrayList<>();
+        List<String> header = reader.next();
+        if (header == null) {
+            errors.add(new GuestImportResult.RowError(1, "The file is empty"));
+            return new GuestImportResult(0, 0, errors);
+        }
+        Map<String, Integer> columns = mapColumns(header);
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(c -> !columns.containsKey(c)).toList();
+        if (!missing.isEmpty()) {
+            errors.add(new GuestImportResult.RowError(reader.rowNumber(), "Missing required columns: " + String.join(", ", missing)));
+            return new GuestImportResult(0, 0, errors);
+        }
+
+        Set<String> phones = new HashSet<>(jdbcTemplate.queryForList(EVENT_PHONES_SQL, String.class, eventId, eventId));
+        Set<String> emails = new HashSet<>(jdbcTemplate.queryForList(EVENT_EMAILS_SQL, String.class, eventId));
+
+        int rowsRead = 0;
+        int imported = 0;
+        List<PendingGuest> chunk = new ArrayList<>(batchSize);
+        List<String> cells;
+        while ((cells = reader.next()) != null) {
+            if (isBlank(cells)) {
+                continue;
+            }
+            if (++rowsRead > maxRows) {
+                errors.add(new GuestImportResult.RowError(reader.rowNumber(),
+                        "Import stopped: a file may contain at most " + maxRows + " guests"));
+                rowsRead--;
+                break;
+            }
+            String error = validate(reader.rowNumber(), cells, columns, phones, emails, chunk);
+            if (error != null) {
+                errors.add(new GuestImportResult.RowError(reader.rowNumber(), error));
+            }
+            if (chunk.size() >= batchSize) {
+                imported += writeChunk(eventId, chunk, errors);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += writeChunk(eventId, chunk, errors);
+        }
+
+        if (imported > 0) {
+            // Rows went in through JDBC, so the entity listeners that normally do this never ran
+            eventStatsCache.invalidate(eventId);
+            guestPhoneDirectory.invalidateAll();
+        }
+        logger.info("Guest import for event {}: {} rows read, {} imported, {} rejected",
+                eventId, rowsRead, imported, errors.size());
+        errors.sort((a, b) -> Integer.compare(a.row(), b.row()));
+        return new GuestImportResult(rowsRead, imported, errors);
+    }
+
+    /**
+     * Validate a row and queue it for writing
+     * @return the reason the row is rejected, or null if it was queued
+     */
+    private String validate(int row, List<String> cells, Map<String, Integer> columns,
+                            Set<String> phones, Set<String> emails, List<PendingGuest> chunk) {
+        String familyName = cell(cells, columns, "familyName");
+        String firstName = cell(cells, columns, "firstName");
+        String lastName = cell(cells, columns, "lastName");
+        String email = cell(cells, columns, "email");
+        String phone = cell(cells, columns, "phone");
+        String side = cell(cells, columns, "side");
+
+        if (familyName == null) {
+            return "Family name is required";
+        }
+        if (firstName == null) {
+            return "Contact first name is required";
+        }
+        if (lastName == null) {
+            return "Contact last name is required";
+        }
+        if (side == null) {
+            return "Side (Bride/Groom/Both) is required";
+        }
+        if (phone == null) {
+            return "Primary phone number is required";
+        }
+
+        int maxAttendees = 1;
+        String maxAttendeesCell = cell(cells, columns, "maxAttendees");
+        if (maxAttendeesCell != null) {
+            try {
+                maxAttendees = Integer.parseInt(maxAttendeesCell);
+            } catch (NumberFormatException e) {
+                return "Max attendees must be a whole number";
+            }
+            if (maxAttendees < 0) {
+                return "Max attendees must be 0 or greater";
+            }
+        }
+
+        String phoneE164 = guestPhoneDirectory.normalize(phone);
+        if (phoneE164 == null) {
+            return "Phone number '" + phone + "' is not a valid phone number";
+        }
+
+        // E.164 form -> number as written, skipping repeats of the primary in another format
+        Map<String, String> additionalPhones = new LinkedHashMap<>();
+        String additionalCell = cell(cells, columns, "additionalPhones");
+        if (additionalCell != null) {
+            for (String additional : additionalCell.split("[;|]")) {
+                String trimmed = additional.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                String additionalE164 = guestPhoneDirectory.normalize(trimmed);
+                if (additionalE164 == null) {
+                    return "Phone number '" + trimmed + "' is not a valid phone number";
+                }
+                if (!additionalE164.equals(phoneE164)) {
+                    additionalPhones.putIfAbsent(additionalE164, trimmed);
+                }
+            }
+        }
+
+        if (phones.contains(phoneE164)) {
+            return "Phone number '" + phone + "' is already registered to another guest in this event";
+        }
+        for (Map.Entry<String, String> additional : additionalPhones.entrySet()) {
+            if (phones.contains(additional.getKey())) {
+                return "Phone number '" + additional.getValue() + "' is already registered to another guest in this event";
+            }
+        }
+        String emailKey = email != null ? email.toLowerCase(Locale.ROOT) : null;
+        if (emailKey != null && emails.contains(emailKey)) {
+            return "Email address '" + email + "' is already registered for another guest in this event";
+        }
+
+        // Later rows in the same file are checked against this one
+        phones.add(phoneE164);
+        phones.addAll(additionalPhones.keySet());
+        if (emailKey != null) {
+            emails.add(emailKey);
+        }
+        chunk.add(new PendingGuest(row, familyName, firstName, lastName, email, phone, phoneE164, side, maxAttendees,
+                cell(cells, columns, "addressLine1"), cell(cells, columns, "addressLine2"),
+                cell(cells, columns, "city"), cell(cells, columns, "postalCode"), cell(cells, columns, "country"),
+                additionalPhones));
+        return null;
+    }
+
+    /**
+     * Write one chunk in a single transaction; if it fails, every row of the chunk is reported
+     * @return number of guests written
+     */
+    private int writeChunk(Long eventId, List<PendingGuest> chunk, List<GuestImportResult.RowError> errors) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertChunk(eventId, chunk));
+            return chunk.size();
+        } catch (Exception e) {
+            logger.warn("Guest import chunk of {} rows failed for event {}: {}", chunk.size(), eventId, e.getMessage());
+            String message = "Not imported: " + rootMessage(e);
+            for (PendingGuest guest : chunk) {
+                errors.add(new GuestImportResult.RowError(guest.row(), message));
+            }
+            return 0;
+        }
+    }
+
+    private void insertChunk(Long eventId, List<PendingGuest> chunk) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_GUEST_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PendingGuest guest = chunk.get(i);
+                        ps.setString(1, guest.familyName());
+                        ps.setString(2, guest.firstName());
+                        ps.setString(3, guest.lastName());
+                        ps.setString(4, guest.email());
+                        ps.setString(5, guest.phone());
+                        ps.setString(6, guest.side());
+                        ps.setInt(7, guest.maxAttendees());
+                        ps.setString(8, guest.addressLine1());
+                        ps.setString(9, guest.addressLine2());
+                        ps.setString(10, guest.city());
+                        ps.setString(11, guest.postalCode());
+                        ps.setString(12, guest.country());
+                        ps.setLong(13, eventId);
+                        ps.setTimestamp(14, now);
+                        ps.setTimestamp(15, now);
+                        ps.setString(16, PhoneNumbers.nameKey(guest.familyName()));
+                        ps.setString(17, guest.phoneE164());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != chunk.size()) {
+            throw new IllegalStateException("Expected " + chunk.size() + " generated guest ids, got " + keys.size());
+        }
+        List<Long> guestIds = new ArrayList<>(keys.size());
+        for (Map<String, Object> key : keys) {
+            guestIds.add(((Number) key.values().iterator().next()).longValue());
+        }
+
+        List<Object[]> phoneRows = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            PendingGuest guest = chunk.get(i);
+            for (Map.Entry<String, String> phone : guest.additionalPhones().entrySet()) {
+                phoneRows.add(new Object[]{guestIds.get(i), eventId, phone.getValue(), phone.getKey(),
+                        GuestPhoneNumber.PhoneType.PERSONAL.name(), guest.firstName(), guest.lastName(), now, now});
+            }
+        }
+        if (!phoneRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PHONE_SQL, phoneRows);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_RSVP_SQL, guestIds, guestIds.size(), (ps, guestId) -> {
+            ps.setLong(1, guestId);
+            ps.setLong(2, eventId);
+            ps.setString(3, RSVPStatus.PENDING.name());
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+        });
+    }
+
+    private static Map<String, Integer> mapColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String key = header.get(i) == null ? "" : header.get(i).toLowerCase(Locale.ROOT).replaceAll("[\\s_\\-]", "");
+            String column = HEADER_ALIASES.get(key);
+            if (column != null) {
+                columns.putIfAbsent(column, i);
+            }
+        }
+        return columns;
+    }
+
+    private static String cell(List<String> cells, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= cells.size() || cells.get(index) == null) {
+            return null;
+        }
+        String value = cells.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static boolean isBlank(List<String> cells) {
+        for (String cell : cells) {
+            if (cell != null && !cell.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,263 @@
+package com.wedknots.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory throttle for guest logins, keyed by client IP and by phone number
+ * Failed attempts are counted in a sliding window (current plus weighted previous fixed
+ * window). After a few consecutive failures each further attempt must wait a doubling
+ * delay; exceeding the window limit bans an IP, for longer on each repeat ban. Phone keys
+ * are only ever delayed, so failing on purpose cannot lock a guest out of their own number.
+ * The IP is the client address resolved by Tomcat from trusted proxies; a request whose
+ * address is still a trusted proxy has no IP key, rather than sharing one bucket with everyone.
+ * Checks are lock-free (a CAS per key in a ConcurrentHashMap) and never touch the
+ * database, so throttled attempts are rejected before any guest lookup. Rejections are
+ * counted per client and reason and written to the access audit log in batches.
+ */
+@Service
+public class GuestLoginThrottle {
+    private static final Logger logger = LoggerFactory.getLogger(GuestLoginThrottle.class);
+    private static final String LOGIN_URI = "/login/guest";
+    private static final int MAX_BAN_DOUBLINGS = 3;
+    private static final int NEVER_BAN = Integer.MAX_VALUE;
+
+    /**
+     * Outcome of a throttle check
+     */
+    public record Decision(boolean allowed, long retryAfterSeconds, String reason) {
+        static final Decision ALLOWED = new Decision(true, 0, null);
+    }
+
+    /**
+     * Counters of one key; replaced as a whole on every update
+     * @param windowStart start of the current fixed window (epoch millis)
+     * @param current failures in the current window
+     * @param previous failures in the window before it
+     * @param streak consecutive failures since the last success
+     * @param blockedUntil no attempts accepted before this time (epoch millis)
+     * @param banned whether blockedUntil is a ban rather than a delay
+     * @param bans bans so far, for escalation
+     */
+    private record State(long windowStart, int current, int previous, int streak, long blockedUntil,
+                         boolean banned, int bans) {
+    }
+
+    private record RejectionKey(String clientIp, String reason) {
+    }
+
+    private final Map<String, AtomicReference<State>> counters = new ConcurrentHashMap<>();
+    private final Map<RejectionKey, LongAdder> rejections = new ConcurrentHashMap<>();
+
+    @Autowired
+    private GuestPhoneDirectory guestPhoneDirectory;
+
+    @Autowired
+    private AccessAuditService accessAuditService;
+
+    @Value("${guest-login-throttle.window-seconds:600}")
+    private long windowSeconds;
+
+    @Value("${guest-login-throttle.max-failures-per-ip:30}")
+    private int maxFailuresPerIp;
+
+    @Value("${guest-login-throttle.free-failures:3}")
+    private int freeFailures;
+
+    @Value("${guest-login-throttle.base-delay-seconds:2}")
+    private long baseDelaySeconds;
+
+    @Value("${guest-login-throttle.max-delay-seconds:60}")
+    private long maxDelaySeconds;
+
+    @Value("${guest-login-throttle.ban-seconds:900}")
+    private long banSeconds;
+
+    @Value("${guest-login-throttle.max-keys:100000}")
+    private int maxKeys;
+
+    private final Pattern trustedProxies;
+
+    public GuestLoginThrottle(@Value("${server.tomcat.remoteip.internal-proxies:}") String trustedProxies) {
+        this.trustedProxies = trustedProxies.isBlank() ? null : Pattern.compile(trustedProxies);
+    }
+
+    /**
+     * Whether a login attempt from a client for a phone number may proceed
+     * Rejected attempts are recorded for the audit log; they do not extend a delay or ban.
+     */
+    public Decision check(String clientIp, String phoneNumber) {
+        long now = System.currentTimeMillis();
+        Decision decision = check(ipKey(clientIp), "IP", now);
+        if (decision.allowed()) {
+            decision = check(phoneKey(phoneNumber), "phone", now);
+        }
+        if (!decision.allowed()) {
+            rejections.computeIfAbsent(new RejectionKey(clientIp, decision.reason()), key -> new LongAdder()).increment();
+        }
+        return decision;
+    }
+
+    public void recordFailure(String clientIp, String phoneNumber) {
+        long now = System.currentTimeMillis();
+        fail(ipKey(clientIp), maxFailuresPerIp, now);
+        fail(phoneKey(phoneNumber), NEVER_BAN, now);
+    }
+
+    /**
+     * Clear the consecutive-failure streaks; failures already in the window still count
+     */
+    public void recordSuccess(String clientIp, String phoneNumber) {
+        resetStreak(ipKey(clientIp));
+        resetStreak(phoneKey(phoneNumber));
+    }
+
+    /**
+     * Write batched rejection counts to the access audit log
+     */
+    @Scheduled(fixedDelayString = "${guest-login-throttle.audit-flush-ms:10000}")
+    public void flushRejections() {
+        List<AccessAuditService.Rejection> batch = new ArrayList<>();
+        for (RejectionKey key : List.copyOf(rejections.keySet())) {
+            LongAdder count = rejections.remove(key);
+            if (count != null && count.sum() > 0) {
+                batch.add(new AccessAuditService.Rejection(key.clientIp(), key.reason(), count.sum()));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            accessAuditService.logRejections(LOGIN_URI, "POST", batch);
+        } catch (Exception e) {
+            logger.warn("Failed to audit {} throttled guest login sources: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Drop keys with no recent failures and no active delay or ban
+     */
+    @Scheduled(fixedDelayString = "${guest-login-throttle.cleanup-ms:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        long idleAfter = 2 * windowSeconds * 1000;
+        counters.entrySet().removeIf(entry -> {
+            State state = entry.getValue().get();
+            return state.blockedUntil() <= now && now - state.windowStart() >= idleAfter;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushRejections();
+    }
+
+    private Decision check(String key, String scope, long now) {
+        if (key == null) {
+            return Decision.ALLOWED;
+        }
+        AtomicReference<State> ref = counters.get(key);
+        State state = ref != null ? ref.get() : null;
+        if (state == null || state.blockedUntil() <= now) {
+            return Decision.ALLOWED;
+        }
+        long retryAfter = Math.max(1, (state.blockedUntil() - now + 999) / 1000);
+        String reason = state.banned()
+                ? "Guest login banned (" + scope + " failure limit)"
+                : "Guest login delayed (" + scope + " consecutive failures)";
+        return new Decision(false, retryAfter, reason);
+    }
+
+    private void fail(String key, int maxFailures, long now) {
+        if (key == null) {
+            return;
+        }
+        AtomicReference<State> ref = counters.get(key);
+        if (ref == null) {
+            if (counters.size() >= maxKeys) {
+                // Under a flood of distinct keys, stop tracking new ones; the IP key still applies
+                logger.debug("Guest login throttle is tracking {} keys, not adding {}", counters.size(), key);
+                return;
+            }
+            ref = counters.computeIfAbsent(key, k -> new AtomicReference<>(new State(now, 0, 0, 0, 0, false, 0)));
+        }
+
+        long windowMillis = windowSeconds * 1000;
+        State updated = ref.updateAndGet(state -> {
+            long windowStart = state.windowStart();
+            int current = state.current();
+            int previous = state.previous();
+            long elapsed = now - windowStart;
+            if (elapsed >= windowMillis) {
+                previous = elapsed >= 2 * windowMillis ? 0 : current;
+                current = 0;
+                windowStart = now - elapsed % windowMillis;
+            }
+            current++;
+            int streak = state.streak() + 1;
+
+            double previousWeight = 1.0 - (double) (now - windowStart) / windowMillis;
+            double estimate = current + previous * previousWeight;
+            if (estimate > maxFailures) {
+                int bans = state.bans() + 1;
+                long ban = banSeconds * 1000 << Math.min(bans - 1, MAX_BAN_DOUBLINGS);
+                return new State(windowStart, 0, 0, 0, now + ban, true, bans);
+            }
+
+            long blockedUntil = state.blockedUntil();
+            if (streak > freeFailures) {
+                int doublings = Math.min(streak - freeFailures - 1, 30);
+                long delaySeconds = Math.min(baseDelaySeconds << doublings, maxDelaySeconds);
+                blockedUntil = Math.max(blockedUntil, now + delaySeconds * 1000);
+            }
+            return new State(windowStart, current, previous, streak, blockedUntil, false, state.bans());
+        });
+
+        // Failures are only recorded for attempts the check let through, so a ban here is new
+        if (updated.banned()) {
+            logger.warn("Guest login key {} banned for {}s after repeated failures", key,
+                    (updated.blockedUntil() - now) / 1000);
+        }
+    }
+
+    private void resetStreak(String key) {
+        if (key == null) {
+            return;
+        }
+        AtomicReference<State> ref = counters.get(key);
+        if (ref != null) {
+            ref.updateAndGet(state -> state.streak() == 0 ? state
+                    : new State(state.windowStart(), state.current(), state.previous(), 0,
+                            state.blockedUntil(), state.banned(), state.bans()));
+        }
+    }
+
+    private String ipKey(String clientIp) {
+        if (clientIp == null || (trustedProxies != null && trustedProxies.matcher(clientIp).matches())) {
+            return null;
+        }
+        return "ip:" + clientIp;
+    }
+
+    private String phoneKey(String phoneNumber) {
+        if (phoneNumber == null || phoneNumber.isBlank()) {
+            return null;
+        }
+        // Every spelling of a number shares one key, so reformatting it does not reset the count
+        String e164 = guestPhoneDirectory.normalize(phoneNumber);
+        return "phone:" + (e164 != null ? e164 : phoneNumber.trim());
+    }
+}
@@ -0,0 +1,177 @@
+package com.wedknots.service;
+
+import com.wedknots.dto.PhoneOwner;
+import com.wedknots.repository.GuestPhoneNumberRepository;
+import com.wedknots.repository.GuestRepository;
+import com.wedknots.util.PhoneNumbers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory map from a canonical (E.164) phone number to the guests reachable on it
+ * Entries are loaded on first use from the indexed E.164 columns and kept in a bounded LRU map
+ * for a short TTL; numbers with no owner are not cached, so a guest added on another node is
+ * found at once. Any guest or phone write clears the map when its transaction completes, and
+ * other nodes are told through GuestPhoneNotificationListener.
+ */
+@Service
+public class GuestPhoneDirectory {
+
+    @Autowired
+    private GuestRepository guestRepository;
+
+    @Autowired
+    private GuestPhoneNumberRepository guestPhoneNumberRepository;
+
+    @Autowired
+    private GuestPhoneNotificationListener notificationListener;
+
+    /**
+     * Owners of one number and when they must be reloaded
+     */
+    private record Entry(List<PhoneOwner> owners, long expiresAt) {
+    }
+
+    private final String defaultCountryCode;
+    private final long ttlMillis;
+    private final Map<String, Entry> owners;
+
+    // Bumped on every invalidation; a load that raced with one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public GuestPhoneDirectory(@Value("${guest-phone.default-country-code:91}") String defaultCountryCode,
+                               @Value("${guest-phone.directory-size:20000}") int maxEntries,
+                               @Value("${guest-phone.directory-ttl-seconds:300}") long ttlSeconds) {
+        this.defaultCountryCode = defaultCountryCode;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.owners = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * E.164 form of a phone number, using the configured default country code for national numbers
+     */
+    public String normalize(String phoneNumber) {
+        return PhoneNumbers.toE164(phoneNumber, defaultCountryCode);
+    }
+
+    /**
+     * Guests reachable on a phone number, in any event, ordered by guest ID
+     */
+    public List<PhoneOwner> lookup(String phoneNumber) {
+        String e164 = normalize(phoneNumber);
+        if (e164 == null) {
+            return List.of();
+        }
+
+        synchronized (owners) {
+            Entry cached = owners.get(e164);
+            if (cached != null && System.currentTimeMillis() < cached.expiresAt()) {
+                return cached.owners();
+            }
+        }
+
+        long loadedAt = generation.get();
+        List<PhoneOwner> loaded = new ArrayList<>(guestRepository.findPhoneOwnersByPrimaryPhone(e164));
+        loaded.addAll(guestPhoneNumberRepository.findPhoneOwners(e164));
+        loaded.sort(Comparator.comparing(PhoneOwner::guestId));
+        List<PhoneOwner> result = List.copyOf(loaded);
+
+        synchronized (owners) {
+            if (result.isEmpty()) {
+                owners.remove(e164);
+            } else if (generation.get() == loadedAt) {
+                owners.put(e164, new Entry(result, System.currentTimeMillis() + ttlMillis));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * ID of the guest logging in with a phone number and a last or family name
+     */
+    public Optional<Long> findGuestForLogin(String name, String phoneNumber) {
+        return lookup(phoneNumber).stream()
+                .filter(owner -> owner.matchesName(name))
+                .map(PhoneOwner::guestId)
+                .findFirst();
+    }
+
+    /**
+     * ID of the guest of an event reachable on a phone number
+     */
+    public Optional<Long> findGuestInEvent(Long eventId, String phoneNumber) {
+        return lookup(phoneNumber).stream()
+                .filter(owner -> owner.eventId().equals(eventId))
+                .map(PhoneOwner::guestId)
+                .findFirst();
+    }
+
+    /**
+     * ID of a guest reachable on a phone number in any event (lowest guest ID if several)
+     */
+    public Optional<Long> findGuest(String phoneNumber) {
+        return lookup(phoneNumber).stream().map(PhoneOwner::guestId).findFirst();
+    }
+
+    /**
+     * Drop all entries once the current transaction completes (immediately outside a transaction)
+     * Registered at most once per transaction however many guests or phones it writes; other
+     * nodes are notified only if it commits
+     */
+    public void invalidateAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateAll();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // Also on rollback: a lookup inside the transaction may have cached its uncommitted rows
+                TransactionSynchronizationManager.unbindResourceIfPossible(GuestPhoneDirectory.this);
+                if (status == STATUS_COMMITTED) {
+                    invalidateAll();
+                } else {
+                    invalidateLocal();
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop all entries here and on every other node
+     */
+    public void invalidateAll() {
+        invalidateLocal();
+        notificationListener.notifyChanged();
+    }
+
+    /**
+     * Drop all entries of this node only
+     */
+    public void invalidateLocal() {
+        synchronized (owners) {
+            generation.incrementAndGet();
+            owners.clear();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.wedknots.service;
+
+import com.wedknots.dto.UnindexedPhone;
+import com.wedknots.repository.GuestPhoneNumberRepository;
+import com.wedknots.repository.GuestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One-time fill of the E.164 phone columns for guests and phones saved before they existed
+ * Runs at startup in id order, a batch per transaction. A number that is invalid or normalizes
+ * to one already used in its event is left unindexed; such guests still log in with the exact
+ * stored string and are listed on the admin reports page, so they can be fixed by hand.
+ * Once every number is indexed this is two empty queries, and the exact-string login fallback
+ * is switched off until a write stores a number that cannot be indexed.
+ */
+@Component
+public class GuestPhoneIndexBackfill {
+    private static final Logger logger = LoggerFactory.getLogger(GuestPhoneIndexBackfill.class);
+    private static final int BATCH_SIZE = 500;
+
+    private static final String SELECT_GUESTS_SQL =
+            "SELECT id, primary_phone_number AS phone FROM guest_tbl WHERE primary_phone_e164 IS NULL " +
+            "AND primary_phone_number IS NOT NULL AND id > ? ORDER BY id LIMIT " + BATCH_SIZE;
+    private static final String UPDATE_GUEST_SQL = "UPDATE guest_tbl SET primary_phone_e164 = ? WHERE id = ?";
+    private static final String SELECT_PHONES_SQL =
+            "SELECT id, phone_number AS phone FROM guest_phone_number_tbl WHERE phone_e164 IS NULL " +
+            "AND phone_number IS NOT NULL AND id > ? ORDER BY id LIMIT " + BATCH_SIZE;
+    private static final String UPDATE_PHONE_SQL = "UPDATE guest_phone_number_tbl SET phone_e164 = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private GuestPhoneDirectory guestPhoneDirectory;
+
+    @Autowired
+    private GuestRepository guestRepository;
+
+    @Autowired
+    private GuestPhoneNumberRepository guestPhoneNumberRepository;
+
+    // Assume unindexed rows until the backfill has looked, so no legacy guest is locked out at startup
+    private volatile boolean unindexedPhonesExist = true;
+
+    // Writes of unindexed numbers seen here, and the count at the last check
+    private final AtomicLong unindexedWrites = new AtomicLong();
+    private long unindexedWritesChecked;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int filled = fill("guest", SELECT_GUESTS_SQL, UPDATE_GUEST_SQL)
+                + fill("guest phone", SELECT_PHONES_SQL, UPDATE_PHONE_SQL);
+        if (filled > 0) {
+            logger.info("Indexed {} phone numbers in E.164 form", filled);
+            guestPhoneDirectory.invalidateAll();
+        }
+        refreshUnindexed();
+    }
+
+    /**
+     * Whether any guest may hold a phone number with no E.164 form, so login must also try the exact stored string
+     */
+    public boolean hasUnindexedPhones() {
+        return unindexedPhonesExist;
+    }
+
+    /**
+     * Called when a write stores a number that cannot be indexed
+     */
+    public void markUnindexed() {
+        unindexedWrites.incrementAndGet();
+        unindexedPhonesExist = true;
+    }
+
+    /**
+     * Re-check for unindexed numbers, picking up admin fixes and writes on other nodes
+     * A number marked here since the last check keeps the flag set for one more round, as its
+     * transaction may not have committed when the query ran.
+     */
+    @Scheduled(fixedDelayString = "${guest-phone.unindexed-check-ms:600000}",
+               initialDelayString = "${guest-phone.unindexed-check-ms:600000}")
+    public synchronized void refreshUnindexed() {
+        long writes = unindexedWrites.get();
+        boolean exist = Boolean.TRUE.equals(guestRepository.existsUnindexedPhone()) || writes != unindexedWritesChecked;
+        unindexedWritesChecked = writes;
+        if (unindexedPhonesExist && !exist) {
+            logger.info("Every guest phone number is indexed; login no longer falls back to the exact stored string");
+        }
+        unindexedPhonesExist = exist;
+    }
+
+    /**
+     * Phone numbers still without an E.164 form, primary phones first, at most limit of each kind
+     */
+    public List<UnindexedPhone> findUnindexed(int limit) {
+        List<UnindexedPhone> unindexed = new ArrayList<>(guestRepository.findUnindexedPrimaryPhones(PageRequest.of(0, limit)));
+        unindexed.addAll(guestPhoneNumberRepository.findUnindexedPhones(PageRequest.of(0, limit)));
+        return unindexed;
+    }
+
+    private int fill(String label, String selectSql, String updateSql) {
+        int filled = 0;
+        long lastId = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(selectSql, lastId);
+            if (rows.isEmpty()) {
+                return filled;
+            }
+            lastId = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                Object id = row.get("id");
+                String raw = (String) row.get("phone");
+                String e164 = guestPhoneDirectory.normalize(raw);
+                if (e164 == null) {
+                    logger.warn("Cannot index {} {}: '{}' is not a valid phone number", label, id, raw);
+                } else {
+                    updates.add(new Object[]{e164, id});
+                }
+            }
+            filled += apply(label, updateSql, updates);
+        }
+    }
+
+    /**
+     * Apply a batch in one transaction, falling back to one row at a time if a number collides
+     */
+    private int apply(String label, String updateSql, List<Object[]> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(updateSql, updates));
+            return updates.size();
+        } catch (DataIntegrityViolationException e) {
+            int applied = 0;
+            for (Object[] update : updates) {
+                try {
+                    jdbcTemplate.update(updateSql, update);
+                    applied++;
+                } catch (DataIntegrityViolationException duplicate) {
+                    logger.warn("Cannot index {} {}: {} is already used by another guest in its event",
+                            label, update[1], update[0]);
+                }
+            }
+            return applied;
+        }
+    }
+}
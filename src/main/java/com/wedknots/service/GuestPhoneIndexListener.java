@@ -0,0 +1,57 @@
+package com.wedknots.service;
+
+import com.wedknots.model.Guest;
+import com.wedknots.model.GuestPhoneNumber;
+import com.wedknots.util.PhoneNumbers;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA entity listener that keeps the indexed E.164 phone and family name key columns in step
+ * with what the guest entered, and clears the phone directory when guests or phones change.
+ * A number that cannot be indexed keeps the exact-string login fallback switched on.
+ * Instantiated by Hibernate through Spring's bean container, which injects the directory.
+ */
+public class GuestPhoneIndexListener {
+
+    @Autowired
+    private GuestPhoneDirectory guestPhoneDirectory;
+
+    // Looked up when needed; the backfill's repositories are built after this listener
+    @Autowired
+    private ObjectProvider<GuestPhoneIndexBackfill> guestPhoneIndexBackfill;
+
+    @PrePersist
+    @PreUpdate
+    public void normalize(Object entity) {
+        if (entity instanceof Guest guest) {
+            guest.setFamilyNameKey(PhoneNumbers.nameKey(guest.getFamilyName()));
+            guest.setPrimaryPhoneE164(guestPhoneDirectory.normalize(guest.getPrimaryPhoneNumber()));
+            markIfUnindexed(guest.getPrimaryPhoneNumber(), guest.getPrimaryPhoneE164());
+        } else if (entity instanceof GuestPhoneNumber phone) {
+            phone.setPhoneE164(guestPhoneDirectory.normalize(phone.getPhoneNumber()));
+            markIfUnindexed(phone.getPhoneNumber(), phone.getPhoneE164());
+        }
+    }
+
+    /**
+     * Keep the exact-string login fallback on when a number cannot be indexed
+     */
+    private void markIfUnindexed(String phoneNumber, String e164) {
+        if (phoneNumber != null && e164 == null) {
+            guestPhoneIndexBackfill.ifAvailable(GuestPhoneIndexBackfill::markUnindexed);
+        }
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        guestPhoneDirectory.invalidateAfterCommit();
+    }
+}
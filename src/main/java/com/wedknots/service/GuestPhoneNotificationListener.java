@@ -0,0 +1,133 @@
+package com.wedknots.service;
+
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Cross-node invalidation of GuestPhoneDirectory using PostgreSQL LISTEN/NOTIFY
+ * After a guest or phone write commits, the writing node sends a NOTIFY carrying its
+ * instance ID; every other node clears its directory when the notification arrives.
+ * Inactive on other databases such as H2, where the directory TTL bounds staleness instead.
+ */
+@Component
+public class GuestPhoneNotificationListener {
+    private static final Logger logger = LoggerFactory.getLogger(GuestPhoneNotificationListener.class);
+    static final String CHANNEL = "wedknots_guest_phones";
+    private static final int POLL_TIMEOUT_MS = 5000;
+    private static final long RECONNECT_DELAY_MS = 10000;
+
+    @Autowired
+    private DataSource dataSource;
+
+    // Provider, since the directory also depends on this listener to broadcast
+    @Autowired
+    private ObjectProvider<GuestPhoneDirectory> guestPhoneDirectory;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile boolean postgres;
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (Exception e) {
+            logger.warn("Could not determine database type, guest phone LISTEN/NOTIFY disabled", e);
+            return;
+        }
+
+        if (!postgres) {
+            logger.info("Database is not PostgreSQL, guest phone LISTEN/NOTIFY disabled");
+            return;
+        }
+
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "guest-phone-listen");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    /**
+     * Tell other nodes that guest phones changed
+     * Sent on its own autocommit connection, so it must only be called once the change has committed.
+     * No-op when the database is not PostgreSQL.
+     */
+    public void notifyChanged() {
+        if (!postgres) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            connection.setAutoCommit(true);
+            statement.setString(1, CHANNEL);
+            statement.setString(2, instanceId);
+            statement.execute();
+        } catch (Exception e) {
+            // Other nodes still drop their entries when the TTL expires
+            logger.warn("Failed to send guest phone notification: {}", e.getMessage());
+        }
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                logger.info("Listening for guest phone notifications on channel {}", CHANNEL);
+                // Changes made while this node was not listening
+                guestPhoneDirectory.getObject().invalidateLocal();
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        if (!instanceId.equals(notification.getParameter())) {
+                            guestPhoneDirectory.getObject().invalidateLocal();
+                            break;
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                logger.warn("Guest phone notification listener failed, reconnecting in {}ms: {}",
+                        RECONNECT_DELAY_MS, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.wedknots.service;
+
+import com.wedknots.dto.GuestProfile;
+import com.wedknots.repository.GuestRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guest profile snapshots shared across requests, keyed by guest ID
+ * Guest writes leave a tombstone carrying the committed version (GuestProfileInvalidationListener);
+ * a snapshot is only stored if it is at least as new as what the cache holds, so a read
+ * that raced with an update cannot put the old profile back. Entries also expire after
+ * guest-profile.ttl-seconds, for writes made outside JPA or by another instance.
+ */
+@Service
+public class GuestProfileCache {
+
+    /**
+     * A snapshot, or a tombstone (null profile) left by a write
+     */
+    private record Entry(GuestProfile profile, long version, long expiresAt) {
+    }
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    @Autowired
+    private GuestRepository guestRepository;
+
+    @Value("${guest-profile.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${guest-profile.max-entries:20000}")
+    private int maxEntries;
+
+    /**
+     * Profile of a guest, loaded with one projection query on a miss
+     */
+    public Optional<GuestProfile> get(Long guestId) {
+        if (guestId == null) {
+            return Optional.empty();
+        }
+        Entry entry = entries.get(guestId);
+        if (entry != null && entry.profile() != null && entry.expiresAt() > System.currentTimeMillis()) {
+            return Optional.of(entry.profile());
+        }
+        Optional<GuestProfile> loaded = guestRepository.findProfileById(guestId);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    /**
+     * Store a snapshot unless the cache already knows of a newer version
+     */
+    public void put(GuestProfile profile) {
+        if (profile == null || profile.getId() == null) {
+            return;
+        }
+        store(profile.getId(), new Entry(profile, versionOf(profile.getVersion()), expiry()));
+    }
+
+    /**
+     * Drop a guest's snapshot after a write that committed the given version (null on delete)
+     */
+    public void evict(Long guestId, Long committedVersion) {
+        if (guestId == null) {
+            return;
+        }
+        long version = committedVersion != null ? committedVersion : Long.MAX_VALUE;
+        store(guestId, new Entry(null, version, expiry()));
+    }
+
+    private void store(Long guestId, Entry entry) {
+        if (entries.size() >= maxEntries && !entries.containsKey(guestId)) {
+            entries.clear();
+        }
+        entries.merge(guestId, entry, (current, candidate) ->
+                candidate.version() >= current.version() || current.expiresAt() <= System.currentTimeMillis()
+                        ? candidate : current);
+    }
+
+    private long expiry() {
+        return System.currentTimeMillis() + ttlSeconds * 1000;
+    }
+
+    private static long versionOf(Long version) {
+        return version != null ? version : 0;
+    }
+}
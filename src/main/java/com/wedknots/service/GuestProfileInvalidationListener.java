@@ -0,0 +1,42 @@
+package com.wedknots.service;
+
+import com.wedknots.model.Guest;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that retires cached guest profiles when a guest is updated or deleted
+ * Eviction runs after commit, tagged with the committed version so older snapshots are refused.
+ * Instantiated by Hibernate through Spring's bean container, which injects the cache.
+ */
+public class GuestProfileInvalidationListener {
+
+    @Autowired
+    private GuestProfileCache guestProfileCache;
+
+    @PostUpdate
+    public void onUpdate(Guest guest) {
+        evictAfterCommit(guest.getId(), guest.getVersion());
+    }
+
+    @PostRemove
+    public void onRemove(Guest guest) {
+        evictAfterCommit(guest.getId(), null);
+    }
+
+    private void evictAfterCommit(Long guestId, Long version) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    guestProfileCache.evict(guestId, version);
+                }
+            });
+        } else {
+            guestProfileCache.evict(guestId, version);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.wedknots.service;
 
+import com.wedknots.dto.GuestSummary;
 import com.wedknots.model.Guest;
 import com.wedknots.model.GuestPhoneNumber;
 import com.wedknots.model.RSVP;
@@ -8,6 +9,8 @@ import com.wedknots.repository.GuestPhoneNumberRepository;
 import com.wedknots.repository.GuestRepository;
 import com.wedknots.repository.RSVPRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +29,9 @@ public class GuestService {
     @Autowired
     private GuestPhoneNumberRepository guestPhoneNumberRepository;
 
+    @Autowired
+    private GuestPhoneDirectory guestPhoneDirectory;
+
     @Transactional
     public Guest createGuest(Guest guest) {
         // Validate that the initial phone number (if any) doesn't already exist in the event
@@ -33,9 +39,9 @@ public class GuestService {
             for (GuestPhoneNumber phone : guest.getPhoneNumbers()) {
                 if (phone.getPhoneNumber() != null && !phone.getPhoneNumber().trim().isEmpty()) {
                     if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsPhoneNumberInEvent(
-                            phone.getPhoneNumber(), guest.getEventId(), 0L))) {
+                            guestPhoneDirectory.normalize(phone.getPhoneNumber()), guest.getEventId(), 0L))) {
                         Optional<GuestPhoneNumber> existingPhone = guestPhoneNumberRepository.findPhoneNumberInEvent(
-                                phone.getPhoneNumber(), guest.getEventId());
+                                guestPhoneDirectory.normalize(phone.getPhoneNumber()), guest.getEventId());
                         if (existingPhone.isPresent()) {
                             Guest existingGuest = existingPhone.get().getGuest();
                             String contactName = (existingGuest.getContactFirstName() != null ? existingGuest.getContactFirstName() : "") +
@@ -82,9 +88,9 @@ public class GuestService {
                 Long eventId = guest.getEventId() != null ? guest.getEventId() : guestDetails.getEventId();
                 if (eventId != null) {
                     if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsPhoneNumberInEvent(
-                            newContactPhone, eventId, id))) {
+                            guestPhoneDirectory.normalize(newContactPhone), eventId, id))) {
                         Optional<GuestPhoneNumber> existingPhone = guestPhoneNumberRepository.findPhoneNumberInEvent(
-                                newContactPhone, eventId);
+                                guestPhoneDirectory.normalize(newContactPhone), eventId);
                         if (existingPhone.isPresent()) {
                             Guest existingGuest = existingPhone.get().getGuest();
                             String contactName = (existingGuest.getContactFirstName() != null ? existingGuest.getContactFirstName() : "") +
@@ -134,18 +140,19 @@ public class GuestService {
         throw new RuntimeException("Guest not found with id: " + id);
     }
 
-    public List<Guest> getAllGuests() {
-        return guestRepository.findAll();
-    }
-
     public Optional<Guest> getGuestById(Long id) {
         return guestRepository.findById(id);
     }
 
     public List<Guest> getGuestsByEventId(Long eventId) {
-        return guestRepository.findAll().stream()
-                .filter(guest -> guest.getEventId() != null && guest.getEventId().equals(eventId))
-                .toList();
+        return guestRepository.findByEventId(eventId);
+    }
+
+    /**
+     * Page of an event's guest list as lightweight rows
+     */
+    public Page<GuestSummary> getGuestSummaries(Long eventId, Pageable pageable) {
+        return guestRepository.findSummariesByEventId(eventId, pageable);
     }
 
     @Transactional
@@ -184,15 +191,15 @@ public class GuestService {
         Guest guest = guestOpt.get();
 
         // Check if phone number already exists for this guest
-        if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsByGuestIdAndPhoneNumber(guestId, phoneNumber))) {
+        if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsByGuestIdAndPhoneNumber(guestId, guestPhoneDirectory.normalize(phoneNumber)))) {
             throw new RuntimeException("Phone number already exists for this guest");
         }
 
         // Check if phone number exists for ANY other guest in the same event
         Long eventId = guest.getEventId();
         if (eventId != null) {
-            if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsPhoneNumberInEvent(phoneNumber, eventId, guestId))) {
-                Optional<GuestPhoneNumber> existingPhone = guestPhoneNumberRepository.findPhoneNumberInEvent(phoneNumber, eventId);
+            if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsPhoneNumberInEvent(guestPhoneDirectory.normalize(phoneNumber), eventId, guestId))) {
+                Optional<GuestPhoneNumber> existingPhone = guestPhoneNumberRepository.findPhoneNumberInEvent(guestPhoneDirectory.normalize(phoneNumber), eventId);
                 if (existingPhone.isPresent()) {
                     Guest existingGuest = existingPhone.get().getGuest();
                     String contactName = (existingGuest.getContactFirstName() != null ? existingGuest.getContactFirstName() : "") +
@@ -248,15 +255,15 @@ public class GuestService {
         // If phone number is being changed, validate it doesn't exist for another guest
         if (!phone.getPhoneNumber().equals(newPhoneNumber)) {
             // Check if new number already exists for this guest
-            if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsByGuestIdAndPhoneNumber(guestId, newPhoneNumber))) {
+            if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsByGuestIdAndPhoneNumber(guestId, guestPhoneDirectory.normalize(newPhoneNumber)))) {
                 throw new RuntimeException("This phone number already exists for this guest");
             }
 
             // Check if new number exists for ANY other guest in the same event
             Long eventId = guest.getEventId();
             if (eventId != null) {
-                if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsPhoneNumberInEvent(newPhoneNumber, eventId, guestId))) {
-                    Optional<GuestPhoneNumber> existingPhone = guestPhoneNumberRepository.findPhoneNumberInEvent(newPhoneNumber, eventId);
+                if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsPhoneNumberInEvent(guestPhoneDirectory.normalize(newPhoneNumber), eventId, guestId))) {
+                    Optional<GuestPhoneNumber> existingPhone = guestPhoneNumberRepository.findPhoneNumberInEvent(guestPhoneDirectory.normalize(newPhoneNumber), eventId);
                     if (existingPhone.isPresent()) {
                         Guest existingGuest = existingPhone.get().getGuest();
                         String contactName = (existingGuest.getContactFirstName() != null ? existingGuest.getContactFirstName() : "") +
@@ -372,14 +379,14 @@ public class GuestService {
      * Useful for validation before adding a phone number
      */
     public boolean isPhoneNumberUsedInEvent(String phoneNumber, Long eventId, Long currentGuestId) {
-        return Boolean.TRUE.equals(guestPhoneNumberRepository.existsPhoneNumberInEvent(phoneNumber, eventId, currentGuestId));
+        return Boolean.TRUE.equals(guestPhoneNumberRepository.existsPhoneNumberInEvent(guestPhoneDirectory.normalize(phoneNumber), eventId, currentGuestId));
     }
 
     /**
      * Get the guest who already has a specific phone number in an event
      */
     public Optional<Guest> findGuestWithPhoneInEvent(String phoneNumber, Long eventId) {
-        Optional<GuestPhoneNumber> phoneOpt = guestPhoneNumberRepository.findPhoneNumberInEvent(phoneNumber, eventId);
+        Optional<GuestPhoneNumber> phoneOpt = guestPhoneNumberRepository.findPhoneNumberInEvent(guestPhoneDirectory.normalize(phoneNumber), eventId);
         return phoneOpt.map(GuestPhoneNumber::getGuest);
     }
 }
@@ -0,0 +1,367 @@
+package com.wedknots.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Resized, re-encoded variants of event and invitation images
+ * Variants (thumbnail, mobile, desktop) are generated with ImageIO on first request and
+ * kept in a disk cache capped at media.derivatives.max-cache-mb, evicting least recently
+ * used files first. Images are never upscaled; GIFs and unknown formats are served as is.
+ * Source dimensions are read from the header before decoding, so sources above
+ * media.derivatives.max-source-pixels are never decoded.
+ */
+@Service
+public class ImageDerivativeService {
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    /**
+     * Target widths of the generated variants
+     */
+    public enum Variant {
+        THUMBNAIL(320),
+        MOBILE(768),
+        DESKTOP(1600);
+
+        private final int width;
+
+        Variant(int width) {
+            this.width = width;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        /**
+         * Smallest variant at least as wide as requested, or empty if wider than all variants
+         */
+        public static Optional<Variant> forWidth(int requestedWidth) {
+            for (Variant variant : values()) {
+                if (requestedWidth <= variant.width) {
+                    return Optional.of(variant);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Source image to derive from
+     */
+    @FunctionalInterface
+    public interface ImageSource {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * A generated variant on disk
+     */
+    public record Derivative(Path path, String contentType, long size) {
+    }
+
+    private final Path cacheDir;
+    private final long maxCacheBytes;
+    private final float jpegQuality;
+    private final long maxSourcePixels;
+
+    private static final int SOURCE_WIDTH_CACHE_SIZE = 1024;
+    private static final int UNUSABLE = -1;
+
+    // Width of each recently seen source, or UNUSABLE, so "serve the original" needs no re-read
+    private final Map<String, Integer> sourceWidths = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+            return size() > SOURCE_WIDTH_CACHE_SIZE;
+        }
+    };
+
+    // Cached files in access order, for LRU eviction
+    private final LinkedHashMap<Path, Long> lru = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+
+    private final Map<Path, CompletableFuture<Optional<Derivative>>> inFlight = new ConcurrentHashMap<>();
+
+    public ImageDerivativeService(@Value("${media.derivatives.cache-dir:./data/image-cache}") String cacheDir,
+                                  @Value("${media.derivatives.max-cache-mb:512}") long maxCacheMb,
+                                  @Value("${media.derivatives.jpeg-quality:0.82}") float jpegQuality,
+                                  @Value("${media.derivatives.max-source-pixels:40000000}") long maxSourcePixels) {
+        this.cacheDir = Paths.get(cacheDir).toAbsolutePath().normalize();
+        this.maxCacheBytes = maxCacheMb * 1024 * 1024;
+        this.jpegQuality = jpegQuality;
+        this.maxSourcePixels = maxSourcePixels;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(cacheDir);
+        // Rebuild the LRU order from file modification times
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(cacheDir)) {
+            stream.filter(Files::isRegularFile).forEach(files::add);
+        }
+        files.sort(Comparator.comparingLong(this::lastModified));
+        synchronized (lru) {
+            for (Path file : files) {
+                long size = sizeOf(file);
+                lru.put(file, size);
+                cachedBytes += size;
+            }
+        }
+        evictIfNeeded();
+    }
+
+    /**
+     * Variant of an image for the requested width
+     * @param sourceKey stable identity of the source content, e.g. a content hash or resource path
+     * @return empty if the original should be served instead
+     */
+    public Optional<Derivative> getDerivative(String sourceKey, ImageSource source, String contentType, int requestedWidth) {
+        String format = formatOf(contentType);
+        Optional<Variant> variant = Variant.forWidth(requestedWidth);
+        if (format == null || variant.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Path target = cacheDir.resolve(hash(sourceKey) + "-" + variant.get().getWidth() + "." + format);
+        String targetType = "jpg".equals(format) ? "image/jpeg" : "image/png";
+        synchronized (lru) {
+            Long size = lru.get(target);
+            if (size != null && Files.exists(target)) {
+                return Optional.of(new Derivative(target, targetType, size));
+            }
+        }
+        Integer knownWidth;
+        synchronized (sourceWidths) {
+            knownWidth = sourceWidths.get(sourceKey);
+        }
+        if (knownWidth != null && knownWidth <= variant.get().getWidth()) {
+            return Optional.empty();
+        }
+
+        // One generation per target; concurrent requests wait for the same result
+        CompletableFuture<Optional<Derivative>> future = new CompletableFuture<>();
+        CompletableFuture<Optional<Derivative>> existing = inFlight.putIfAbsent(target, future);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            Optional<Derivative> result = generate(sourceKey, source, format, targetType, variant.get(), target);
+            future.complete(result);
+            return result;
+        } catch (Exception e) {
+            logger.warn("Could not generate {} variant of {}: {}", variant.get(), sourceKey, e.getMessage());
+            future.complete(Optional.empty());
+            return Optional.empty();
+        } finally {
+            inFlight.remove(target);
+        }
+    }
+
+    private Optional<Derivative> generate(String sourceKey, ImageSource source, String format, String targetType,
+                                          Variant variant, Path target) throws IOException {
+        BufferedImage original = decode(sourceKey, source, variant);
+        if (original == null) {
+            return Optional.empty();
+        }
+
+        int height = Math.max(1, (int) Math.round((double) original.getHeight() * variant.getWidth() / original.getWidth()));
+        BufferedImage resized = resize(original, variant.getWidth(), height, "png".equals(format));
+
+        Path tmp = Files.createTempFile(cacheDir, "derivative-", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                write(resized, format, out);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+
+        long size = Files.size(target);
+        synchronized (lru) {
+            Long previous = lru.put(target, size);
+            cachedBytes += size - (previous != null ? previous : 0);
+        }
+        evictIfNeeded();
+        logger.debug("Generated {} variant {} ({} bytes)", variant, target.getFileName(), size);
+        return Optional.of(new Derivative(target, targetType, size));
+    }
+
+    /**
+     * Decode the source if it is wider than the variant and within the pixel limit, else null
+     * The dimensions come from the image header, so oversized sources are rejected without decoding.
+     */
+    private BufferedImage decode(String sourceKey, ImageSource source, Variant variant) throws IOException {
+        try (InputStream in = source.open();
+             ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = iis != null ? ImageIO.getImageReaders(iis) : null;
+            if (readers == null || !readers.hasNext()) {
+                rememberWidth(sourceKey, UNUSABLE);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) {
+                    logger.warn("Image {} is {}x{}, above the {} pixel limit, serving the original",
+                            sourceKey, width, height, maxSourcePixels);
+                    rememberWidth(sourceKey, UNUSABLE);
+                    return null;
+                }
+                rememberWidth(sourceKey, width);
+                if (width <= variant.getWidth()) {
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void rememberWidth(String sourceKey, int width) {
+        synchronized (sourceWidths) {
+            sourceWidths.put(sourceKey, width);
+        }
+    }
+
+    /**
+     * Downscale in halving steps, then to the exact size, for smooth bilinear results
+     */
+    private BufferedImage resize(BufferedImage source, int width, int height, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D g = step.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        } while (currentWidth > width || currentHeight > height);
+        return current;
+    }
+
+    private void write(BufferedImage image, String format, OutputStream out) throws IOException {
+        if (!"jpg".equals(format)) {
+            ImageIO.write(image, format, out);
+            return;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private void evictIfNeeded() {
+        List<Path> evicted = new ArrayList<>();
+        synchronized (lru) {
+            Iterator<Map.Entry<Path, Long>> it = lru.entrySet().iterator();
+            while (cachedBytes > maxCacheBytes && it.hasNext()) {
+                Map.Entry<Path, Long> eldest = it.next();
+                cachedBytes -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                it.remove();
+            }
+        }
+        for (Path path : evicted) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                logger.warn("Could not evict image derivative {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    private static String formatOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        switch (contentType.toLowerCase()) {
+            case "image/jpeg":
+            case "image/jpg":
+                return "jpg";
+            case "image/png":
+                return "png";
+            default:
+                return null;
+        }
+    }
+
+    private static String hash(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
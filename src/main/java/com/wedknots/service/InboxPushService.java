@@ -0,0 +1,214 @@
+package com.wedknots.service;
+
+import com.wedknots.dto.InboxUpdate;
+import com.wedknots.repository.HostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process fan-out of inbox changes to connected hosts
+ * Updates are published after the writing transaction commits, serialized once and sent
+ * to the STOMP topic /topic/events/{eventId}/inbox and to every SSE stream of the event.
+ * The fan-out runs on a single dedicated thread, so a slow SSE client never holds up the
+ * committing request; when the pending queue is full, updates are dropped.
+ */
+@Service
+public class InboxPushService {
+    private static final Logger logger = LoggerFactory.getLogger(InboxPushService.class);
+    public static final String TOPIC_PREFIX = "/topic/events/";
+    public static final String TOPIC_SUFFIX = "/inbox";
+
+    // SSE streams per event; iteration (every push) far outnumbers subscribe/unsubscribe
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+
+    @Autowired
+    private HostRepository hostRepository;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Value("${inbox.push.sse-timeout-minutes:30}")
+    private long sseTimeoutMinutes;
+
+    @Value("${inbox.push.max-pending:1000}")
+    private int maxPending;
+
+    private ThreadPoolExecutor fanOut;
+
+    @PostConstruct
+    public void init() {
+        fanOut = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxPending)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "inbox-push");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOut.shutdownNow();
+    }
+
+    /**
+     * Publish an update once the current transaction commits, or now if there is none
+     */
+    public void publish(InboxUpdate update) {
+        if (update == null || update.eventId() == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(update);
+                }
+            });
+        } else {
+            enqueue(update);
+        }
+    }
+
+    /**
+     * Open an SSE stream of an event's inbox updates
+     */
+    public SseEmitter subscribe(Long eventId) {
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(sseTimeoutMinutes));
+        emitters.compute(eventId, (id, eventEmitters) -> {
+            List<SseEmitter> list = eventEmitters != null ? eventEmitters : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            return list;
+        });
+        emitter.onCompletion(() -> remove(eventId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(eventId, emitter));
+        try {
+            // Flushes the response headers so the browser sees the stream as open
+            emitter.send(SseEmitter.event().comment("connected").reconnectTime(5000));
+        } catch (IOException e) {
+            remove(eventId, emitter);
+        }
+        return emitter;
+    }
+
+    /**
+     * Whether a user may receive an event's inbox updates: admins always, hosts for their own event
+     */
+    public boolean canAccess(Authentication auth, Long eventId) {
+        if (auth == null || !auth.isAuthenticated() || eventId == null) {
+            return false;
+        }
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            if ("ROLE_ADMIN".equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return hostRepository.existsByEmailAndEventId(auth.getName(), eventId);
+    }
+
+    /**
+     * Keep idle streams alive through proxies and drop ones whose client went away
+     */
+    @Scheduled(fixedDelayString = "${inbox.push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        Set<SseEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        try {
+            fanOut.execute(() -> emitters.forEach((eventId, eventEmitters) -> {
+                for (SseEmitter emitter : eventEmitters) {
+                    send(eventId, emitter, ping);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            // Streams are busy with updates anyway; the next heartbeat tries again
+            logger.debug("Inbox push queue full, skipping heartbeat");
+        }
+    }
+
+    private void enqueue(InboxUpdate update) {
+        try {
+            fanOut.execute(() -> broadcast(update));
+        } catch (RejectedExecutionException e) {
+            // Clients catch up on their next page load
+            logger.warn("Inbox push queue full ({} pending), dropping update for event {}",
+                    fanOut.getQueue().size(), update.eventId());
+        }
+    }
+
+    private void broadcast(InboxUpdate update) {
+        String json;
+        try {
+            json = jsonMapper.writeValueAsString(update);
+        } catch (Exception e) {
+            logger.warn("Failed to serialize inbox update for event {}: {}", update.eventId(), e.getMessage());
+            return;
+        }
+
+        SimpMessagingTemplate template = messagingTemplate.getIfAvailable();
+        if (template != null) {
+            try {
+                template.convertAndSend(TOPIC_PREFIX + update.eventId() + TOPIC_SUFFIX, json);
+            } catch (Exception e) {
+                logger.warn("Failed to push inbox update for event {}: {}", update.eventId(), e.getMessage());
+            }
+        }
+
+        List<SseEmitter> eventEmitters = emitters.get(update.eventId());
+        if (eventEmitters == null || eventEmitters.isEmpty()) {
+            return;
+        }
+        // Built once and shared by every stream of the event
+        Set<SseEmitter.DataWithMediaType> event = SseEmitter.event()
+                .name("inbox")
+                .data(json, MediaType.APPLICATION_JSON)
+                .build();
+        for (SseEmitter emitter : eventEmitters) {
+            send(update.eventId(), emitter, event);
+        }
+    }
+
+    private void send(Long eventId, SseEmitter emitter, Set<SseEmitter.DataWithMediaType> event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            remove(eventId, emitter);
+        }
+    }
+
+    private void remove(Long eventId, SseEmitter emitter) {
+        emitters.computeIfPresent(eventId, (id, eventEmitters) -> {
+            eventEmitters.remove(emitter);
+            return eventEmitters.isEmpty() ? null : eventEmitters;
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.wedknots.service;
+
+import com.wedknots.model.Invitation;
+import com.wedknots.repository.InvitationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One-time migration of invitation images stored inline as base64 data URIs
+ * Runs at startup; each data URI is moved into the media store and replaced by its
+ * /media/&lt;sha256&gt; reference. Once no data URIs remain this is a single empty query.
+ */
+@Component
+public class InvitationImageMigrator {
+    private static final Logger logger = LoggerFactory.getLogger(InvitationImageMigrator.class);
+
+    @Autowired
+    private InvitationRepository invitationRepository;
+
+    @Autowired
+    private MediaStoreService mediaStoreService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateInlineImages() {
+        List<Long> ids = invitationRepository.findIdsWithInlineImages();
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+
+        logger.info("Migrating {} inline invitation images to the media store", ids.size());
+        for (Long id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> invitationRepository.findById(id).ifPresent(this::migrate));
+            } catch (Exception e) {
+                logger.error("Failed to migrate image of invitation {}: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    private void migrate(Invitation invitation) {
+        String dataUri = invitation.getImageUrl();
+        int comma = dataUri.indexOf(',');
+        String header = comma > 0 ? dataUri.substring(5, comma) : "";
+        if (comma < 0 || !header.endsWith(";base64")) {
+            logger.warn("Invitation {} has an unsupported data URI, leaving it unchanged", invitation.getId());
+            return;
+        }
+
+        byte[] bytes = Base64.getDecoder().decode(dataUri.substring(comma + 1));
+        try {
+            invitation.setImageUrl(mediaStoreService.store(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        invitationRepository.save(invitation);
+    }
+}
@@ -10,13 +10,19 @@ import com.wedknots.repository.InvitationRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
 
 /**
  * Service for managing invitation logs
@@ -44,95 +50,30 @@ public class InvitationLogService {
     @Autowired
     private MessageDeliveryService messageDeliveryService;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${invitation-dispatch.chunk-size:200}")
+    private int chunkSize;
+
     /**
      * Record invitations as sent to multiple guests
      * Supports both sending notifications and just recording the send
+     * Guests are processed in chunks, each committed on its own; guests already sent this invitation are skipped
      * @param invitationId ID of the invitation
      * @param guestIds List of guest IDs to send to
      * @param sentBy Username of person sending
      * @param method Invitation method (EMAIL, SMS, IN_PERSON, etc.)
      * @return List of created invitation logs
      */
-    @Transactional
     public List<InvitationLog> sendInvitationToGuests(Long invitationId, List<Long> guestIds, String sentBy, String method) {
-        Optional<Invitation> invitationOpt = invitationRepository.findById(invitationId);
-        if (invitationOpt.isEmpty()) {
-            throw new RuntimeException("Invitation not found with id: " + invitationId);
-        }
-
-        Invitation invitation = invitationOpt.get();
-        List<InvitationLog> logs = new ArrayList<>();
-
-        for (Long guestId : guestIds) {
-            Optional<Guest> guestOpt = guestRepository.findById(guestId);
-            if (guestOpt.isEmpty()) {
-                logger.warn("Guest not found with id: {}", guestId);
-                continue;
-            }
-
-            Guest guest = guestOpt.get();
-
-            // Check if invitation already sent to this guest
-            Optional<InvitationLog> existingLog = invitationLogRepository.findByInvitationIdAndGuestId(invitationId, guestId);
-            if (existingLog.isPresent()) {
-                logger.info("Invitation already sent to guest: {}", guestId);
-                continue;
-            }
-
-            // Create invitation log - mark as sent
-            InvitationLog log = InvitationLog.builder()
-                    .invitation(invitation)
-                    .guest(guest)
-                    .sentBy(sentBy)
-                    .sentAt(LocalDateTime.now())
-                    .deliveryStatus("SENT")
-                    .deliveryTimestamp(LocalDateTime.now())
-                    .invitationMethod(method != null ? method : "EMAIL")
-                    .build();
-
-            InvitationLog savedLog = invitationLogRepository.save(log);
-            logs.add(savedLog);
-
-            logger.info("✓ Recorded invitation sent to guest {} via {}", guestId, method);
-
-            // Create GuestMessage record for tracking
-            try {
-                String messageText = (invitation.getTitle() != null ? invitation.getTitle() + "\n\n" : "") +
-                        (invitation.getMessage() != null ? invitation.getMessage() : "");
-
-                GuestMessage guestMessage = messageService.createOutboundMessage(
-                    invitation.getEvent(),
-                    guest,
-                    messageText
-                );
-                guestMessage.setStatus(GuestMessage.MessageStatus.SENT);
-                guestMessage.setMessageType(GuestMessage.MessageType.TEXT);
-                messageService.updateMessage(guestMessage);
-
-                logger.info("Created GuestMessage record for invitation to guest {}", guestId);
-            } catch (Exception msgEx) {
-                logger.error("Failed to create GuestMessage for invitation to guest {}: {}", guestId, msgEx.getMessage());
-                // Don't fail the overall operation
-            }
-
-            // Record invitation sent to each of the guest's phone numbers if they have any
-            try {
-                if (guest.getPhoneNumbers() != null && !guest.getPhoneNumbers().isEmpty()) {
-                    logger.info("Recording invitation phone records for guest {} with {} phone numbers",
-                            guestId, guest.getPhoneNumbers().size());
-                    invitationPhoneRecordService.recordInvitationForAllGuestPhones(
-                            savedLog.getId(),
-                            method != null ? method : "EMAIL",
-                            "SENT"
-                    );
-                }
-            } catch (Exception phoneEx) {
-                logger.error("Failed to record invitation phone records for guest {}: {}", guestId, phoneEx.getMessage());
-                // Don't fail if phone records can't be created
-            }
-        }
-
-        return logs;
+        String invitationMethod = method != null ? method : "EMAIL";
+        return dispatchInChunks(invitationId, guestIds, true, (invitation, guests) -> {
+            String messageText = (invitation.getTitle() != null ? invitation.getTitle() + "\n\n" : "") +
+                    (invitation.getMessage() != null ? invitation.getMessage() : "");
+            return recordSent(invitation, guests, sentBy, invitationMethod, null, invitationMethod,
+                    messageText, GuestMessage.MessageStatus.SENT);
+        });
     }
 
     @Transactional(readOnly = true)
@@ -244,25 +185,19 @@ public class InvitationLogService {
 
     /**
      * Mark multiple invitations as sent externally
+     * Guests are processed in chunks, each committed on its own; guests already sent this invitation are skipped
      * @param invitationId ID of the invitation
      * @param guestIds List of guest IDs
      * @param externalMethod How it was sent (Email, SMS, etc.)
      * @param sentBy Username of person who sent it
      * @return List of created invitation logs
      */
-    @Transactional
     public List<InvitationLog> markMultipleInvitationsSentExternally(Long invitationId, List<Long> guestIds,
                                                                       String externalMethod, String sentBy) {
-        List<InvitationLog> logs = new ArrayList<>();
-        for (Long guestId : guestIds) {
-            try {
-                InvitationLog log = markInvitationSentExternally(invitationId, guestId, externalMethod, sentBy);
-                logs.add(log);
-            } catch (Exception e) {
-                logger.warn("Failed to mark invitation as sent externally for guest {}: {}", guestId, e.getMessage());
-            }
-        }
-        return logs;
+        return dispatchInChunks(invitationId, guestIds, true, (invitation, guests) ->
+                recordSent(invitation, guests, sentBy, "EMAIL", externalMethod, externalMethod,
+                        "[" + externalMethod + "] " + invitation.getTitle() + "\n\n" + invitation.getMessage(),
+                        GuestMessage.MessageStatus.DELIVERED));
     }
 
     /**
@@ -276,15 +211,11 @@ public class InvitationLogService {
 
     /**
      * Queue invitations for delivery via selected mode (email, sms, whatsapp_personal, whatsapp_adb)
-     * Creates InvitationLog entries with QUEUED status and enqueues DeliveryRequests
+     * Creates InvitationLog entries with QUEUED status and enqueues DeliveryRequests, one chunk of guests per transaction
      */
-    @Transactional
     public List<InvitationLog> queueInvitationsForDelivery(Long invitationId, List<Long> guestIds, String queuedBy, String mode) {
-        Optional<Invitation> invitationOpt = invitationRepository.findById(invitationId);
-        if (invitationOpt.isEmpty()) {
-            throw new RuntimeException("Invitation not found with id: " + invitationId);
-        }
-        Invitation invitation = invitationOpt.get();
+        Invitation invitation = invitationRepository.findById(invitationId)
+                .orElseThrow(() -> new RuntimeException("Invitation not found with id: " + invitationId));
 
         // Use invitation's delivery method if mode not specified
         String deliveryMethod = (mode != null && !mode.isEmpty()) ? mode : invitation.getDeliveryMethod();
@@ -293,47 +224,128 @@ public class InvitationLogService {
         }
 
         DeliveryMode deliveryMode = mapDeliveryMethodToMode(deliveryMethod);
-        List<InvitationLog> logs = new ArrayList<>();
-
-        for (Long guestId : guestIds) {
-            Optional<Guest> guestOpt = guestRepository.findById(guestId);
-            if (guestOpt.isEmpty()) {
-                logger.warn("Guest not found with id: {}", guestId);
-                continue;
+        String title = getContentTitle(invitation, deliveryMethod);
+        String content = getContentBody(invitation, deliveryMethod);
+
+        return dispatchInChunks(invitationId, guestIds, false, (chunkInvitation, guests) -> {
+            // Template variables read RSVP attendees; load them for the whole chunk at once
+            guestRepository.findByIdInWithRsvp(guests.stream().map(Guest::getId).toList());
+
+            List<DeliveryRequest> requests = new ArrayList<>(guests.size());
+            List<InvitationLog> logs = new ArrayList<>(guests.size());
+            for (Guest guest : guests) {
+                requests.add(DeliveryRequest.builder()
+                        .messageType("INVITATION")
+                        .title(title)
+                        .content(content)
+                        .recipient(guest)
+                        .event(chunkInvitation.getEvent())
+                        .preferredMode(deliveryMode)
+                        .build());
+
+                // Create log with QUEUED status
+                logs.add(InvitationLog.builder()
+                        .invitation(chunkInvitation)
+                        .guest(guest)
+                        .sentBy(queuedBy)
+                        .sentAt(LocalDateTime.now())
+                        .deliveryStatus("QUEUED")
+                        .invitationMethod(deliveryMethod)
+                        .build());
             }
-            Guest guest = guestOpt.get();
 
-            // Build delivery request based on invitation's delivery method
-            String title = getContentTitle(invitation, deliveryMethod);
-            String content = getContentBody(invitation, deliveryMethod);
+            messageDeliveryService.queueMessagesInBatch(requests);
+            List<InvitationLog> saved = invitationLogRepository.saveAll(logs);
+            logger.info("Queued invitation {} for {} guests via {}", invitationId, saved.size(), deliveryMethod);
+            return saved;
+        });
+    }
 
-            DeliveryRequest request = DeliveryRequest.builder()
-                    .messageType("INVITATION")
-                    .title(title)
-                    .content(content)
-                    .recipient(guest)
-                    .event(invitation.getEvent())
-                    .preferredMode(deliveryMode)
-                    .build();
+    /**
+     * Run a multi-guest invitation operation in chunks
+     * Each chunk loads its guests (with phones) in one query, filters out already-invited guests
+     * with one IN query and commits on its own, so a failing chunk does not roll back the others
+     */
+    private List<InvitationLog> dispatchInChunks(Long invitationId, List<Long> guestIds, boolean skipInvited,
+                                                 BiFunction<Invitation, List<Guest>, List<InvitationLog>> writer) {
+        Long eventId = transactionTemplate.execute(status -> invitationRepository.findById(invitationId)
+                .map(invitation -> invitation.getEvent().getId())
+                .orElseThrow(() -> new RuntimeException("Invitation not found with id: " + invitationId)));
+
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(guestIds));
+        List<InvitationLog> logs = new ArrayList<>();
+        int skipped = 0;
+        int failed = 0;
+
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            try {
+                DispatchedChunk result = transactionTemplate.execute(status -> {
+                    Invitation invitation = invitationRepository.findById(invitationId)
+                            .orElseThrow(() -> new RuntimeException("Invitation not found with id: " + invitationId));
+                    List<Guest> guests = guestRepository.findByEventIdAndIdInWithPhones(eventId, chunk);
+                    int found = guests.size();
+                    if (skipInvited && !guests.isEmpty()) {
+                        Set<Long> invited = new HashSet<>(invitationLogRepository.findInvitedGuestIds(invitationId, chunk));
+                        guests = guests.stream().filter(guest -> !invited.contains(guest.getId())).toList();
+                    }
+                    List<InvitationLog> written = guests.isEmpty() ? List.of() : writer.apply(invitation, guests);
+                    return new DispatchedChunk(written, chunk.size() - found, found - guests.size());
+                });
+                logs.addAll(result.logs());
+                skipped += result.missing() + result.alreadyInvited();
+                if (result.missing() > 0) {
+                    logger.warn("{} guests not found in event {} for invitation {}", result.missing(), eventId, invitationId);
+                }
+            } catch (Exception e) {
+                failed += chunk.size();
+                logger.error("Failed to dispatch invitation {} to {} guests: {}", invitationId, chunk.size(), e.getMessage());
+            }
+        }
 
-            String messageId = messageDeliveryService.queueMessage(request);
+        logger.info("Invitation {} dispatched to {} guests ({} skipped, {} failed)", invitationId, logs.size(), skipped, failed);
+        return logs;
+    }
 
-            // Create log with QUEUED status
-            InvitationLog log = InvitationLog.builder()
+    /**
+     * Insert SENT logs, their outbound messages and phone records for a chunk of guests
+     */
+    private List<InvitationLog> recordSent(Invitation invitation, List<Guest> guests, String sentBy,
+                                           String invitationMethod, String externalMethod, String contactMethod,
+                                           String messageText, GuestMessage.MessageStatus messageStatus) {
+        List<InvitationLog> logs = new ArrayList<>(guests.size());
+        List<GuestMessage> messages = new ArrayList<>(guests.size());
+        for (Guest guest : guests) {
+            logs.add(InvitationLog.builder()
                     .invitation(invitation)
                     .guest(guest)
-                    .sentBy(queuedBy)
+                    .sentBy(sentBy)
                     .sentAt(LocalDateTime.now())
-                    .deliveryStatus("QUEUED")
-                    .invitationMethod(deliveryMethod)
-                    .build();
-            InvitationLog saved = invitationLogRepository.save(log);
-            logs.add(saved);
+                    .deliveryStatus("SENT")
+                    .deliveryTimestamp(LocalDateTime.now())
+                    .invitationMethod(invitationMethod)
+                    .externalMethodDescription(externalMethod)
+                    .build());
 
-            logger.info("Queued invitation {} for guest {} via {} (messageId={})", invitationId, guestId, deliveryMethod, messageId);
+            messages.add(GuestMessage.builder()
+                    .event(invitation.getEvent())
+                    .guest(guest)
+                    .guestPhoneNumber(guest.getContactPhone())
+                    .messageContent(messageText)
+                    .direction(GuestMessage.MessageDirection.OUTBOUND)
+                    .messageType(GuestMessage.MessageType.TEXT)
+                    .status(messageStatus)
+                    .isRead(false)
+                    .build());
         }
 
-        return logs;
+        List<InvitationLog> saved = invitationLogRepository.saveAll(logs);
+        messageService.saveOutboundMessages(messages);
+        invitationPhoneRecordService.recordInvitationsForGuestPhones(saved, contactMethod, "SENT");
+        return saved;
+    }
+
+    private record DispatchedChunk(List<InvitationLog> logs, int missing, int alreadyInvited) {
     }
 
     /**
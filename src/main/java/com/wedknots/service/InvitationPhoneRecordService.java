@@ -103,6 +103,32 @@ public class InvitationPhoneRecordService {
         return records;
     }
 
+    /**
+     * Record invitations sent to all phone numbers of several guests in one batch
+     * Expects each log's guest to have its phone numbers already loaded
+     */
+    @Transactional
+    public List<InvitationPhoneRecord> recordInvitationsForGuestPhones(List<InvitationLog> logs,
+                                                                       String contactMethod,
+                                                                       String deliveryStatus) {
+        List<InvitationPhoneRecord> records = new ArrayList<>();
+        for (InvitationLog log : logs) {
+            for (GuestPhoneNumber phone : log.getGuest().getPhoneNumbers()) {
+                records.add(InvitationPhoneRecord.builder()
+                        .invitationLog(log)
+                        .guestPhoneNumber(phone)
+                        .phoneNumber(phone.getPhoneNumber())
+                        .isPrimary(phone.getIsPrimary())
+                        .phoneType(phone.getPhoneType() != null ? phone.getPhoneType().name() : null)
+                        .contactMethod(contactMethod)
+                        .deliveryStatus(deliveryStatus)
+                        .recordedAt(LocalDateTime.now())
+                        .build());
+            }
+        }
+        return invitationPhoneRecordRepository.saveAll(records);
+    }
+
     /**
      * Record invitation sent to selected phone numbers of a guest
      */
@@ -53,7 +53,10 @@ public class InvitationService {
         existing.setTitle(updatedInvitation.getTitle());
         existing.setMessage(updatedInvitation.getMessage());
         existing.setInvitationType(updatedInvitation.getInvitationType());
-        existing.setImageUrl(updatedInvitation.getImageUrl());
+        // The form only posts an image when a new one was uploaded
+        if (updatedInvitation.getImageUrl() != null) {
+            existing.setImageUrl(updatedInvitation.getImageUrl());
+        }
         existing.setStatus(updatedInvitation.getStatus());
         existing.setMessageType(updatedInvitation.getMessageType());
         existing.setTemplateName(updatedInvitation.getTemplateName());
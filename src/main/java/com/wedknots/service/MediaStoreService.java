@@ -0,0 +1,180 @@
+package com.wedknots.service;
+
+import com.wedknots.model.MediaObject;
+import com.wedknots.repository.MediaObjectRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed media store
+ * Files are keyed by the SHA-256 of their bytes and written once under
+ * media.storage-dir/ab/cd/&lt;sha256&gt;; identical uploads share one file. Metadata (content
+ * type, size) is kept in media_object. Stored media is referenced as /media/&lt;sha256&gt;.
+ * Only PNG, JPEG, GIF and WebP images are accepted; the content type is taken from the file's
+ * magic bytes, never from the client.
+ */
+@Service
+public class MediaStoreService {
+    private static final Logger logger = LoggerFactory.getLogger(MediaStoreService.class);
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+    public static final String URL_PREFIX = "/media/";
+    public static final Set<String> IMAGE_TYPES = Set.of("image/png", "image/jpeg", "image/gif", "image/webp");
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+    @Autowired
+    private MediaObjectRepository mediaObjectRepository;
+
+    private final Path root;
+
+    public MediaStoreService(@Value("${media.storage-dir:./data/media}") String storageDir) {
+        this.root = Paths.get(storageDir).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Store an uploaded image and return its reference URL
+     */
+    public String store(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return URL_PREFIX + store(in).getSha256();
+        }
+    }
+
+    /**
+     * Store raw image bytes and return their reference URL
+     */
+    public String store(byte[] bytes) throws IOException {
+        return URL_PREFIX + store(new ByteArrayInputStream(bytes)).getSha256();
+    }
+
+    /**
+     * Stream an image to a temporary file while hashing it, then move it into place
+     * @throws IllegalArgumentException if the content is not a supported image
+     */
+    public MediaObject store(InputStream in) throws IOException {
+        Path tmpDir = root.resolve("tmp");
+        Files.createDirectories(tmpDir);
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (DigestInputStream digestIn = new DigestInputStream(in, digest)) {
+                size = Files.copy(digestIn, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String sha = HexFormat.of().formatHex(digest.digest());
+
+            String contentType;
+            try (InputStream head = Files.newInputStream(tmp)) {
+                contentType = detectImageType(head.readNBytes(12));
+            }
+            if (contentType == null) {
+                throw new IllegalArgumentException("Only PNG, JPEG, GIF and WebP images can be uploaded");
+            }
+
+            Path target = pathOf(sha);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    // Lost a race with an identical upload
+                    if (!Files.exists(target)) {
+                        throw e;
+                    }
+                }
+            }
+
+            Optional<MediaObject> existing = mediaObjectRepository.findById(sha);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+            MediaObject media = MediaObject.builder()
+                    .sha256(sha)
+                    .contentType(contentType)
+                    .sizeBytes(size)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            logger.info("Stored media {} ({}, {} bytes)", sha, contentType, size);
+            return mediaObjectRepository.save(media);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Metadata of a stored file, if both the row and the file exist
+     */
+    public Optional<MediaObject> find(String sha) {
+        if (sha == null || !SHA256.matcher(sha).matches() || !Files.exists(pathOf(sha))) {
+            return Optional.empty();
+        }
+        return mediaObjectRepository.findById(sha);
+    }
+
+    public Path pathOf(String sha) {
+        return root.resolve(sha.substring(0, 2)).resolve(sha.substring(2, 4)).resolve(sha);
+    }
+
+    public static boolean isMediaUrl(String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    /**
+     * Whether a stored content type is an image that is safe to render inline
+     */
+    public static boolean isInlineImage(String contentType) {
+        return contentType != null && IMAGE_TYPES.contains(contentType);
+    }
+
+    /**
+     * Image content type from the leading bytes of a file, or null if it is not a supported image
+     */
+    static String detectImageType(byte[] head) {
+        if (head.length >= 8 && Arrays.equals(head, 0, 8, PNG_MAGIC, 0, 8)) {
+            return "image/png";
+        }
+        if (head.length >= 3 && (head[0] & 0xff) == 0xff && (head[1] & 0xff) == 0xd8 && (head[2] & 0xff) == 0xff) {
+            return "image/jpeg";
+        }
+        if (head.length >= 6) {
+            String gif = new String(head, 0, 6, StandardCharsets.US_ASCII);
+            if (gif.equals("GIF87a") || gif.equals("GIF89a")) {
+                return "image/gif";
+            }
+        }
+        if (head.length >= 12 && new String(head, 0, 4, StandardCharsets.US_ASCII).equals("RIFF")
+                && new String(head, 8, 4, StandardCharsets.US_ASCII).equals("WEBP")) {
+            return "image/webp";
+        }
+        return null;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
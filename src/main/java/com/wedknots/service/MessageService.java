@@ -1,5 +1,8 @@
 package com.wedknots.service;
 
+import com.wedknots.dto.ConversationPage;
+import com.wedknots.dto.ConversationSummary;
+import com.wedknots.dto.InboxUpdate;
 import com.wedknots.model.GuestMessage;
 import com.wedknots.model.WeddingEvent;
 import com.wedknots.model.Guest;
@@ -14,9 +17,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Service for managing guest messages
@@ -25,6 +29,7 @@ import java.util.stream.Collectors;
 @Transactional
 public class MessageService {
     private static final Logger logger = LoggerFactory.getLogger(MessageService.class);
+    private static final int MAX_CONVERSATION_PAGE_SIZE = 100;
 
     @Autowired
     private GuestMessageRepository guestMessageRepository;
@@ -32,9 +37,18 @@ public class MessageService {
     @Autowired
     private GuestRepository guestRepository;
 
+    @Autowired
+    private GuestPhoneDirectory guestPhoneDirectory;
+
     @Autowired
     private WeddingEventRepository weddingEventRepository;
 
+    @Autowired
+    private MessageStatsCache messageStatsCache;
+
+    @Autowired
+    private InboxPushService inboxPushService;
+
     /**
      * Get all messages for an event, paginated
      */
@@ -59,7 +73,7 @@ public class MessageService {
     public long getUnreadCount(Long eventId) {
         WeddingEvent event = weddingEventRepository.findById(eventId)
             .orElseThrow(() -> new RuntimeException("Event not found"));
-        return guestMessageRepository.countByEventAndIsReadFalse(event);
+        return guestMessageRepository.countUnreadInbound(event.getId());
     }
 
     /**
@@ -113,8 +127,13 @@ public class MessageService {
      */
     public GuestMessage markAsRead(Long messageId) {
         GuestMessage message = getMessage(messageId);
+        boolean wasUnread = InboxUpdate.countsAsUnread(message);
         message.markAsRead();
-        return guestMessageRepository.save(message);
+        GuestMessage saved = guestMessageRepository.save(message);
+        if (wasUnread) {
+            publishUnreadDelta(saved, -1);
+        }
+        return saved;
     }
 
     /**
@@ -122,8 +141,13 @@ public class MessageService {
      */
     public GuestMessage markAsUnread(Long messageId) {
         GuestMessage message = getMessage(messageId);
+        boolean wasUnread = InboxUpdate.countsAsUnread(message);
         message.markAsUnread();
-        return guestMessageRepository.save(message);
+        GuestMessage saved = guestMessageRepository.save(message);
+        if (!wasUnread && InboxUpdate.countsAsUnread(saved)) {
+            publishUnreadDelta(saved, 1);
+        }
+        return saved;
     }
 
     /**
@@ -138,8 +162,12 @@ public class MessageService {
         List<GuestMessage> unreadMessages = guestMessageRepository
             .findByGuestAndEventAndIsReadFalseOrderByCreatedAtDesc(guest, event);
 
+        int unreadInbound = countUnreadInbound(unreadMessages);
         unreadMessages.forEach(GuestMessage::markAsRead);
         guestMessageRepository.saveAll(unreadMessages);
+        if (unreadInbound > 0) {
+            inboxPushService.publish(InboxUpdate.unreadDelta(eventId, guestId, -unreadInbound));
+        }
     }
 
     /**
@@ -150,8 +178,12 @@ public class MessageService {
             .orElseThrow(() -> new RuntimeException("Event not found"));
 
         List<GuestMessage> unreadMessages = guestMessageRepository.findByEventAndIsReadFalse(event);
+        int unreadInbound = countUnreadInbound(unreadMessages);
         unreadMessages.forEach(GuestMessage::markAsRead);
         guestMessageRepository.saveAll(unreadMessages);
+        if (unreadInbound > 0) {
+            inboxPushService.publish(InboxUpdate.unreadDelta(eventId, null, -unreadInbound));
+        }
     }
 
     /**
@@ -170,8 +202,10 @@ public class MessageService {
         WeddingEvent event = weddingEventRepository.findById(eventId)
             .orElseThrow(() -> new RuntimeException("Event not found"));
 
-        // Try to find guest by phone number
-        Guest guest = guestRepository.findByContactPhone(guestPhoneNumber);
+        // Try to find the event's guest by phone number, in any format the sender's number arrives in
+        Guest guest = guestPhoneDirectory.findGuestInEvent(eventId, guestPhoneNumber)
+            .map(guestRepository::getReferenceById)
+            .orElse(null);
 
         if (guest == null) {
             logger.warn("Message received from unknown phone number: {}", guestPhoneNumber);
@@ -191,7 +225,9 @@ public class MessageService {
             .createdAt(LocalDateTime.now())
             .build();
 
-        return guestMessageRepository.save(message);
+        GuestMessage saved = guestMessageRepository.save(message);
+        inboxPushService.publish(InboxUpdate.newMessage(saved));
+        return saved;
     }
 
 
@@ -208,21 +244,57 @@ public class MessageService {
     }
 
     /**
-     * Get grouped messages by guest (for inbox view)
-     * Returns a map with guest ID as key to avoid circular reference issues with Hibernate proxies
+     * Get one page of the conversation list (for inbox view)
+     * Each row is a guest with the snippet and time of their latest message and their unread
+     * inbound count, computed by a single keyset-paginated query; threads load per guest.
      */
-    public Map<Long, List<GuestMessage>> getMessagesGroupedByGuest(Long eventId) {
-        WeddingEvent event = weddingEventRepository.findById(eventId)
-            .orElseThrow(() -> new RuntimeException("Event not found"));
+    @Transactional(readOnly = true)
+    public ConversationPage getConversationSummaries(Long eventId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_CONVERSATION_PAGE_SIZE));
+
+        List<Object[]> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = guestMessageRepository.findConversationSummaries(eventId, pageSize + 1);
+        } else {
+            String[] keyset = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+            if (keyset.length != 2) {
+                throw new IllegalArgumentException("Invalid conversation cursor");
+            }
+            rows = guestMessageRepository.findConversationSummariesAfter(eventId,
+                LocalDateTime.parse(keyset[0]), Long.parseLong(keyset[1]), pageSize + 1);
+        }
 
-        List<GuestMessage> allMessages = guestMessageRepository.findByEventOrderByCreatedAtDesc(event);
+        boolean hasNext = rows.size() > pageSize;
+        List<ConversationSummary> conversations = new ArrayList<>(Math.min(rows.size(), pageSize));
+        for (Object[] row : rows.subList(0, Math.min(rows.size(), pageSize))) {
+            String firstName = row[5] != null ? (String) row[5] : "";
+            String lastName = row[6] != null ? (String) row[6] : "";
+            String guestName = (firstName + " " + lastName).trim();
+            conversations.add(new ConversationSummary(
+                ((Number) row[0]).longValue(),
+                guestName.isEmpty() ? "Unknown" : guestName,
+                row[7] != null ? (String) row[7] : "",
+                (String) row[3],
+                toLocalDateTime(row[2]),
+                row[4] != null ? ((Number) row[4]).longValue() : 0L));
+        }
 
-        return allMessages.stream()
-            .filter(m -> m.getGuest() != null && m.getGuest().getId() != null)
-            .collect(Collectors.groupingBy(
-                m -> m.getGuest().getId(),
-                Collectors.toList()
-            ));
+        String nextCursor = null;
+        if (hasNext) {
+            ConversationSummary last = conversations.get(conversations.size() - 1);
+            String keyset = last.lastMessageTime() + "|" + last.guestId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(keyset.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Long totalUnread = cursor == null || cursor.isBlank() ? guestMessageRepository.countUnreadInbound(eventId) : null;
+        return new ConversationPage(conversations, nextCursor, hasNext, totalUnread);
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
     }
 
     /**
@@ -273,35 +345,20 @@ public class MessageService {
      * Delete message
      */
     public void deleteMessage(Long messageId) {
+        GuestMessage message = guestMessageRepository.findById(messageId).orElse(null);
         guestMessageRepository.deleteById(messageId);
+        if (message != null && InboxUpdate.countsAsUnread(message)) {
+            publishUnreadDelta(message, -1);
+        }
     }
 
     /**
      * Get message statistics for an event
+     * Computed by one aggregate query and served from a short-lived per-event cache
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getEventMessageStats(Long eventId) {
-        WeddingEvent event = weddingEventRepository.findById(eventId)
-            .orElseThrow(() -> new RuntimeException("Event not found"));
-
-        List<GuestMessage> allMessages = guestMessageRepository.findByEventOrderByCreatedAtDesc(event);
-        long unreadCount = allMessages.stream().filter(m -> !m.isRead()).count();
-        long inboundCount = allMessages.stream().filter(m ->
-            GuestMessage.MessageDirection.INBOUND.equals(m.getDirection())).count();
-        long outboundCount = allMessages.stream().filter(m ->
-            GuestMessage.MessageDirection.OUTBOUND.equals(m.getDirection())).count();
-
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalMessages", allMessages.size());
-        stats.put("unreadMessages", unreadCount);
-        stats.put("inboundMessages", inboundCount);
-        stats.put("outboundMessages", outboundCount);
-        stats.put("totalGuests", allMessages.stream()
-            .map(GuestMessage::getGuest)
-            .filter(Objects::nonNull)
-            .distinct()
-            .count());
-
-        return stats;
+        return messageStatsCache.get(eventId).toMap();
     }
 
     /**
@@ -331,16 +388,31 @@ public class MessageService {
             .build();
 
         GuestMessage saved = guestMessageRepository.save(message);
+        inboxPushService.publish(InboxUpdate.newMessage(saved));
         logger.info("Outbound message created for guest {} in event {}. Message ID: {}",
             guest.getId(), event.getId(), saved.getId());
         return saved;
     }
 
+    /**
+     * Insert a batch of outbound messages built by the caller
+     * Messages are persisted with JDBC batching; one push update is published per message
+     */
+    public List<GuestMessage> saveOutboundMessages(List<GuestMessage> messages) {
+        List<GuestMessage> saved = guestMessageRepository.saveAll(messages);
+        saved.forEach(message -> inboxPushService.publish(InboxUpdate.newMessage(message)));
+        logger.info("{} outbound messages created", saved.size());
+        return saved;
+    }
+
     /**
      * Update message (used for updating status, error messages, etc.)
      */
     public GuestMessage updateMessage(GuestMessage message) {
         GuestMessage updated = guestMessageRepository.save(message);
+        inboxPushService.publish(InboxUpdate.deliveryStatus(updated.getEvent().getId(),
+            updated.getGuest() != null ? updated.getGuest().getId() : null, updated.getId(),
+            updated.getStatus() != null ? updated.getStatus().name() : null));
         logger.debug("Message {} updated with status: {}", updated.getId(), updated.getStatus());
         return updated;
     }
@@ -349,7 +421,21 @@ public class MessageService {
      * Save a message to database
      */
     public GuestMessage saveMessage(GuestMessage message) {
-        return guestMessageRepository.save(message);
+        boolean isNew = message.getId() == null;
+        GuestMessage saved = guestMessageRepository.save(message);
+        if (isNew) {
+            inboxPushService.publish(InboxUpdate.newMessage(saved));
+        }
+        return saved;
+    }
+
+    private int countUnreadInbound(List<GuestMessage> messages) {
+        return (int) messages.stream().filter(InboxUpdate::countsAsUnread).count();
+    }
+
+    private void publishUnreadDelta(GuestMessage message, int delta) {
+        inboxPushService.publish(InboxUpdate.unreadDelta(message.getEvent().getId(),
+            message.getGuest() != null ? message.getGuest().getId() : null, delta));
     }
 }
 
@@ -0,0 +1,59 @@
+package com.wedknots.service;
+
+import com.wedknots.dto.MessageStats;
+import com.wedknots.repository.GuestMessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived per-event cache of message statistics
+ * Entries expire after messages.stats-ttl-seconds and are evicted when a message of the
+ * event is inserted, changes read state or is deleted (see MessageStatsInvalidationListener).
+ * A load that raced with an invalidation is returned but not cached.
+ */
+@Service
+public class MessageStatsCache {
+
+    private record Entry(MessageStats stats, long expiresAt) {
+    }
+
+    @Autowired
+    private GuestMessageRepository guestMessageRepository;
+
+    @Value("${messages.stats-ttl-seconds:15}")
+    private long ttlSeconds;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation; a load that raced with one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public MessageStats get(Long eventId) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(eventId);
+        if (entry == null || now >= entry.expiresAt()) {
+            long loadedAt = generation.get();
+            entry = new Entry(guestMessageRepository.getMessageStats(eventId), now + ttlSeconds * 1000);
+            synchronized (entries) {
+                if (generation.get() == loadedAt) {
+                    entries.put(eventId, entry);
+                }
+            }
+        }
+        return entry.stats();
+    }
+
+    public void invalidate(Long eventId) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            if (eventId != null) {
+                entries.remove(eventId);
+            }
+        }
+    }
+}
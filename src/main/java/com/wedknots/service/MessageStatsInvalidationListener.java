@@ -0,0 +1,36 @@
+package com.wedknots.service;
+
+import com.wedknots.model.GuestMessage;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that evicts cached message statistics when a guest message changes
+ * Eviction runs after commit, like EventStatsInvalidationListener.
+ */
+public class MessageStatsInvalidationListener {
+
+    @Autowired
+    private MessageStatsCache messageStatsCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(GuestMessage message) {
+        Long eventId = message.getEvent() != null ? message.getEvent().getId() : null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    messageStatsCache.invalidate(eventId);
+                }
+            });
+        } else {
+            messageStatsCache.invalidate(eventId);
+        }
+    }
+}
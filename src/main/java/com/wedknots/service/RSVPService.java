@@ -7,7 +7,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -16,10 +15,6 @@ public class RSVPService {
     @Autowired
     private RSVPRepository rsvpRepository;
 
-    public List<RSVP> getAllRSVPs() {
-        return rsvpRepository.findAll();
-    }
-
     public Optional<RSVP> getRSVPById(Long id) {
         return rsvpRepository.findById(id);
     }
@@ -0,0 +1,167 @@
+package com.wedknots.service;
+
+import com.wedknots.util.MpscRingBuffer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind pipeline for event page views
+ * Request threads only push (eventId, path, time) into a bounded lock-free ring buffer;
+ * a background flush writes them with JDBC batch inserts. No entity lookups happen on
+ * the request thread. Under pressure entries are sampled and, when the buffer is full,
+ * dropped, according to traffic-log.overflow-policy.
+ */
+@Service
+public class TrafficLogWriter {
+    private static final Logger logger = LoggerFactory.getLogger(TrafficLogWriter.class);
+    private static final int MAX_PATH_LENGTH = 512;
+    private static final String INSERT_SQL =
+            "INSERT INTO event_traffic_log (event_id, path, created_at) VALUES (?, ?, ?)";
+
+    /**
+     * A page view waiting to be written
+     */
+    public record PageView(long eventId, String path, LocalDateTime createdAt) {
+    }
+
+    private final MpscRingBuffer<PageView> buffer;
+    private final int batchSize;
+    private final String overflowPolicy;
+    private final int sampleRate;
+    private final int sampleThreshold;
+
+    // Event IDs known to exist, so rows never violate the event foreign key
+    private final Set<Long> knownEventIds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sampledOut = new AtomicLong();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public TrafficLogWriter(@Value("${traffic-log.buffer-capacity:8192}") int bufferCapacity,
+                            @Value("${traffic-log.batch-size:500}") int batchSize,
+                            @Value("${traffic-log.overflow-policy:sample}") String overflowPolicy,
+                            @Value("${traffic-log.sample-rate:10}") int sampleRate) {
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(1, sampleRate);
+        // Start sampling once the buffer is three quarters full
+        this.sampleThreshold = buffer.capacity() * 3 / 4;
+    }
+
+    /**
+     * Record a page view; never blocks and never touches the database
+     */
+    public void record(long eventId, String path) {
+        if ("sample".equalsIgnoreCase(overflowPolicy) && buffer.size() >= sampleThreshold
+                && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            sampledOut.incrementAndGet();
+            return;
+        }
+        String truncated = path != null && path.length() > MAX_PATH_LENGTH ? path.substring(0, MAX_PATH_LENGTH) : path;
+        if (!buffer.offer(new PageView(eventId, truncated, LocalDateTime.now()))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Flush buffered page views in JDBC batches
+     */
+    @Scheduled(fixedDelayString = "${traffic-log.flush-interval-ms:1000}")
+    public void flush() {
+        List<PageView> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            try {
+                writeBatch(batch);
+            } catch (Exception e) {
+                logger.warn("Failed to write {} traffic log entries: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+
+        long droppedNow = dropped.getAndSet(0);
+        long sampledNow = sampledOut.getAndSet(0);
+        if (droppedNow > 0 || sampledNow > 0) {
+            logger.warn("Traffic log under pressure: {} page views dropped, {} sampled out", droppedNow, sampledNow);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void writeBatch(List<PageView> batch) {
+        try {
+            insert(filterKnownEvents(batch));
+        } catch (DataIntegrityViolationException e) {
+            // An event was deleted after it was cached as known; re-check and retry once
+            knownEventIds.clear();
+            insert(filterKnownEvents(batch));
+        }
+    }
+
+    private void insert(List<PageView> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, view) -> {
+                    ps.setLong(1, view.eventId());
+                    ps.setString(2, view.path());
+                    ps.setTimestamp(3, Timestamp.valueOf(view.createdAt()));
+                }));
+    }
+
+    /**
+     * Drop views of events that do not exist, resolving unknown IDs with one IN query
+     */
+    private List<PageView> filterKnownEvents(List<PageView> batch) {
+        Set<Long> unknown = new HashSet<>();
+        for (PageView view : batch) {
+            if (!knownEventIds.contains(view.eventId())) {
+                unknown.add(view.eventId());
+            }
+        }
+        if (!unknown.isEmpty()) {
+            knownEventIds.addAll(namedJdbcTemplate.queryForList(
+                    "SELECT id FROM wedding_event_tbl WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", unknown), Long.class));
+        }
+
+        List<PageView> rows = new ArrayList<>(batch.size());
+        for (PageView view : batch) {
+            if (knownEventIds.contains(view.eventId())) {
+                rows.add(view);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,266 @@
+package com.wedknots.service;
+
+import com.wedknots.model.EventTrafficRollup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incremental maintenance of event_traffic_rollup
+ * Raw page views past the (created_at, id) watermark are folded into hour and day buckets in chunks;
+ * each chunk and its watermark advance commit together, so a crash never double counts.
+ * Only rows older than a safety lag are read: nodes flush their write-behind buffers concurrently,
+ * so rows become visible in commit order, not in id or created_at order, and a recent row may
+ * still commit behind the watermark.
+ * The watermark row is locked for the duration of a chunk, which serializes nodes.
+ * Retention deletes raw rows that are both rolled up and older than the configured age.
+ */
+@Service
+public class TrafficRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(TrafficRollupService.class);
+    private static final String WATERMARK = "event_traffic_log";
+
+    private static final String LOCK_WATERMARK_SQL =
+            "SELECT last_created_at, last_log_id FROM event_traffic_rollup_watermark WHERE name = ? FOR UPDATE";
+    private static final String UPDATE_WATERMARK_SQL =
+            "UPDATE event_traffic_rollup_watermark SET last_created_at = ?, last_log_id = ?, updated_at = ? WHERE name = ?";
+    private static final String SELECT_LOGS_SQL =
+            "SELECT id, event_id, path, created_at FROM event_traffic_log " +
+            "WHERE (created_at > ? OR (created_at = ? AND id > ?)) AND created_at < ? " +
+            "ORDER BY created_at, id LIMIT ?";
+    private static final String UPDATE_BUCKET_SQL =
+            "UPDATE event_traffic_rollup SET view_count = view_count + ?, " +
+            "last_view_at = CASE WHEN last_view_at IS NULL OR last_view_at < ? THEN ? ELSE last_view_at END " +
+            "WHERE event_id = ? AND granularity = ? AND bucket_start = ?";
+    private static final String INSERT_BUCKET_SQL =
+            "INSERT INTO event_traffic_rollup (event_id, granularity, bucket_start, view_count, last_view_at, distinct_paths) " +
+            "VALUES (?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_PATH_SQL =
+            "INSERT INTO event_traffic_rollup_path (event_id, granularity, bucket_start, path) " +
+            "SELECT CAST(? AS BIGINT), CAST(? AS VARCHAR(10)), CAST(? AS TIMESTAMP), CAST(? AS VARCHAR(512)) " +
+            "WHERE NOT EXISTS (SELECT 1 FROM event_traffic_rollup_path " +
+            "WHERE event_id = ? AND granularity = ? AND bucket_start = ? AND path = ?)";
+    private static final String UPDATE_DISTINCT_PATHS_SQL =
+            "UPDATE event_traffic_rollup SET distinct_paths = (SELECT COUNT(*) FROM event_traffic_rollup_path p " +
+            "WHERE p.event_id = ? AND p.granularity = ? AND p.bucket_start = ?) " +
+            "WHERE event_id = ? AND granularity = ? AND bucket_start = ?";
+    private static final String DELETE_RAW_SQL =
+            "DELETE FROM event_traffic_log WHERE id IN (SELECT id FROM event_traffic_log " +
+            "WHERE created_at < ? ORDER BY created_at LIMIT ?)";
+
+    /**
+     * One rollup row: an event's hour or day bucket
+     */
+    private record Bucket(long eventId, String granularity, LocalDateTime start) {
+    }
+
+    /**
+     * Position of the last raw row folded into the rollups
+     */
+    private record Watermark(LocalDateTime createdAt, long logId) {
+    }
+
+    /**
+     * Views of a bucket found in the current chunk
+     */
+    private static class BucketDelta {
+        private long views;
+        private LocalDateTime lastView;
+        private final Set<String> paths = new HashSet<>();
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${traffic-log.rollup.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${traffic-log.rollup.safety-lag-seconds:300}")
+    private int safetyLagSeconds;
+
+    @Value("${traffic-log.retention.raw-days:30}")
+    private int rawRetentionDays;
+
+    @Value("${traffic-log.retention.hourly-days:90}")
+    private int hourlyRetentionDays;
+
+    @Value("${traffic-log.retention.delete-batch-size:5000}")
+    private int deleteBatchSize;
+
+    /**
+     * Fold new raw page views into the rollups until the watermark catches up
+     */
+    @Scheduled(fixedDelayString = "${traffic-log.rollup.interval-ms:60000}", initialDelay = 30000)
+    public void rollup() {
+        try {
+            int total = 0;
+            int processed;
+            do {
+                Integer chunk = transactionTemplate.execute(status -> rollupChunk());
+                processed = chunk != null ? chunk : 0;
+                total += processed;
+            } while (processed >= chunkSize);
+
+            if (total > 0) {
+                logger.debug("Rolled up {} traffic log entries", total);
+            }
+        } catch (Exception e) {
+            logger.error("Traffic rollup failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Delete raw page views already covered by rollups and older than the retention window,
+     * plus hourly buckets and path sets that are no longer needed
+     */
+    @Scheduled(cron = "${traffic-log.retention.cron:0 30 3 * * *}")
+    public void compact() {
+        try {
+            LocalDateTime rawCutoff = LocalDateTime.now().minusDays(rawRetentionDays);
+            LocalDateTime hourlyCutoff = LocalDateTime.now().minusDays(hourlyRetentionDays);
+            Timestamp watermark = jdbcTemplate.queryForObject(
+                    "SELECT last_created_at FROM event_traffic_rollup_watermark WHERE name = ?", Timestamp.class, WATERMARK);
+            if (watermark == null) {
+                logger.info("Traffic retention: nothing rolled up yet, keeping raw entries");
+                return;
+            }
+            // Rows at or after the watermark may not be rolled up yet
+            LocalDateTime deleteBefore = watermark.toLocalDateTime().isBefore(rawCutoff)
+                    ? watermark.toLocalDateTime() : rawCutoff;
+
+            long deletedRaw = 0;
+            int deleted;
+            do {
+                Integer chunk = transactionTemplate.execute(status -> jdbcTemplate.update(DELETE_RAW_SQL,
+                        Timestamp.valueOf(deleteBefore), deleteBatchSize));
+                deleted = chunk != null ? chunk : 0;
+                deletedRaw += deleted;
+            } while (deleted >= deleteBatchSize);
+
+            Integer deletedPaths = transactionTemplate.execute(status -> jdbcTemplate.update(
+                    "DELETE FROM event_traffic_rollup_path WHERE bucket_start < ?", Timestamp.valueOf(rawCutoff)));
+            Integer deletedHourly = transactionTemplate.execute(status -> jdbcTemplate.update(
+                    "DELETE FROM event_traffic_rollup WHERE granularity = ? AND bucket_start < ?",
+                    EventTrafficRollup.HOUR, Timestamp.valueOf(hourlyCutoff)));
+
+            logger.info("Traffic retention: deleted {} raw entries, {} rollup paths, {} hourly buckets",
+                    deletedRaw, deletedPaths, deletedHourly);
+        } catch (Exception e) {
+            logger.error("Traffic retention failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private int rollupChunk() {
+        Watermark watermark = jdbcTemplate.queryForObject(LOCK_WATERMARK_SQL, (rs, rowNum) -> {
+            Timestamp createdAt = rs.getTimestamp("last_created_at");
+            return new Watermark(createdAt != null ? createdAt.toLocalDateTime() : LocalDateTime.of(1970, 1, 1, 0, 0),
+                    rs.getLong("last_log_id"));
+        }, WATERMARK);
+        Timestamp lastCreatedAt = Timestamp.valueOf(watermark.createdAt());
+        Timestamp settledBefore = Timestamp.valueOf(LocalDateTime.now().minusSeconds(safetyLagSeconds));
+
+        Map<Bucket, BucketDelta> deltas = new LinkedHashMap<>();
+        List<Watermark> rows = jdbcTemplate.query(SELECT_LOGS_SQL, (rs, rowNum) -> {
+            LocalDateTime viewedAt = rs.getTimestamp("created_at").toLocalDateTime();
+            long eventId = rs.getLong("event_id");
+            String path = rs.getString("path");
+            addView(deltas, new Bucket(eventId, EventTrafficRollup.HOUR, viewedAt.truncatedTo(ChronoUnit.HOURS)), viewedAt, path);
+            addView(deltas, new Bucket(eventId, EventTrafficRollup.DAY, viewedAt.truncatedTo(ChronoUnit.DAYS)), viewedAt, path);
+            return new Watermark(viewedAt, rs.getLong("id"));
+        }, lastCreatedAt, lastCreatedAt, watermark.logId(), settledBefore, chunkSize);
+
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        applyDeltas(deltas);
+        Watermark last = rows.get(rows.size() - 1);
+        jdbcTemplate.update(UPDATE_WATERMARK_SQL, Timestamp.valueOf(last.createdAt()), last.logId(),
+                Timestamp.valueOf(LocalDateTime.now()), WATERMARK);
+        return rows.size();
+    }
+
+    private void addView(Map<Bucket, BucketDelta> deltas, Bucket bucket, LocalDateTime viewedAt, String path) {
+        BucketDelta delta = deltas.computeIfAbsent(bucket, b -> new BucketDelta());
+        delta.views++;
+        if (delta.lastView == null || viewedAt.isAfter(delta.lastView)) {
+            delta.lastView = viewedAt;
+        }
+        if (path != null) {
+            delta.paths.add(path);
+        }
+    }
+
+    private void applyDeltas(Map<Bucket, BucketDelta> deltas) {
+        List<Map.Entry<Bucket, BucketDelta>> entries = new ArrayList<>(deltas.entrySet());
+
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_BUCKET_SQL, entries, entries.size(), (ps, entry) -> {
+            Bucket bucket = entry.getKey();
+            Timestamp lastView = Timestamp.valueOf(entry.getValue().lastView);
+            ps.setLong(1, entry.getValue().views);
+            ps.setTimestamp(2, lastView);
+            ps.setTimestamp(3, lastView);
+            ps.setLong(4, bucket.eventId());
+            ps.setString(5, bucket.granularity());
+            ps.setTimestamp(6, Timestamp.valueOf(bucket.start()));
+        })[0];
+
+        List<Map.Entry<Bucket, BucketDelta>> missing = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (updated[i] == 0) {
+                missing.add(entries.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BUCKET_SQL, missing, missing.size(), (ps, entry) -> {
+                Bucket bucket = entry.getKey();
+                ps.setLong(1, bucket.eventId());
+                ps.setString(2, bucket.granularity());
+                ps.setTimestamp(3, Timestamp.valueOf(bucket.start()));
+                ps.setLong(4, entry.getValue().views);
+                ps.setTimestamp(5, Timestamp.valueOf(entry.getValue().lastView));
+            });
+        }
+
+        List<Object[]> paths = new ArrayList<>();
+        for (Map.Entry<Bucket, BucketDelta> entry : entries) {
+            Bucket bucket = entry.getKey();
+            Timestamp start = Timestamp.valueOf(bucket.start());
+            for (String path : entry.getValue().paths) {
+                paths.add(new Object[]{bucket.eventId(), bucket.granularity(), start, path,
+                        bucket.eventId(), bucket.granularity(), start, path});
+            }
+        }
+        if (!paths.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PATH_SQL, paths);
+            jdbcTemplate.batchUpdate(UPDATE_DISTINCT_PATHS_SQL, entries, entries.size(), (ps, entry) -> {
+                Bucket bucket = entry.getKey();
+                Timestamp start = Timestamp.valueOf(bucket.start());
+                ps.setLong(1, bucket.eventId());
+                ps.setString(2, bucket.granularity());
+                ps.setTimestamp(3, start);
+                ps.setLong(4, bucket.eventId());
+                ps.setString(5, bucket.granularity());
+                ps.setTimestamp(6, start);
+            });
+        }
+    }
+}
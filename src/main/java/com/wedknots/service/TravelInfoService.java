@@ -2,7 +2,6 @@ package com.wedknots.service;
 
 import com.wedknots.model.Guest;
 import com.wedknots.model.TravelInfo;
-import com.wedknots.model.WeddingEvent;
 import com.wedknots.repository.GuestRepository;
 import com.wedknots.repository.TravelInfoRepository;
 import com.wedknots.repository.WeddingEventRepository;
@@ -12,7 +11,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class TravelInfoService {
@@ -96,14 +94,11 @@ public class TravelInfoService {
      */
     @Transactional(readOnly = true)
     public List<TravelInfo> getTravelInfoByEvent(Long eventId) {
-        WeddingEvent event = weddingEventRepository.findById(eventId)
-                .orElseThrow(() -> new RuntimeException("Event not found"));
-
-        return travelInfoRepository.findAll().stream()
-                .filter(ti -> ti.getGuest() != null
-                        && ti.getGuest().getEvent() != null
-                        && ti.getGuest().getEvent().getId().equals(eventId))
-                .collect(Collectors.toList());
+        if (!weddingEventRepository.existsById(eventId)) {
+            throw new RuntimeException("Event not found");
+        }
+
+        return travelInfoRepository.findByEventIdWithGuest(eventId);
     }
 }
 
@@ -0,0 +1,107 @@
+package com.wedknots.template;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A message template parsed once into literal and variable segments
+ * Rendering is a single pass over the segments; each variable is resolved only when it is reached,
+ * and a variable with no value is left in the output as written.
+ */
+public final class CompiledTemplate {
+    private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{\\{([^}]+)\\}\\}");
+
+    /**
+     * Literal text or a variable reference; {@code placeholder} is the original {{...}} text
+     * and {@code index} the variable's position in {@link #getVariables()}
+     */
+    private record Segment(String text, String variable, String placeholder, int index) {
+        boolean isLiteral() {
+            return variable == null;
+        }
+    }
+
+    private final List<Segment> segments;
+    private final List<String> variables;
+    private final int literalLength;
+
+    private CompiledTemplate(List<Segment> segments, List<String> variables, int literalLength) {
+        this.segments = segments;
+        this.variables = variables;
+        this.literalLength = literalLength;
+    }
+
+    public static CompiledTemplate compile(String template) {
+        List<Segment> segments = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int literalLength = 0;
+        int position = 0;
+
+        Matcher matcher = VARIABLE_PATTERN.matcher(template);
+        while (matcher.find()) {
+            if (matcher.start() > position) {
+                segments.add(new Segment(template.substring(position, matcher.start()), null, null, -1));
+                literalLength += matcher.start() - position;
+            }
+            String variable = matcher.group(1).trim();
+            int index = variables.indexOf(variable);
+            if (index < 0) {
+                index = variables.size();
+                variables.add(variable);
+            }
+            segments.add(new Segment(null, variable, matcher.group(0), index));
+            position = matcher.end();
+        }
+        if (position < template.length()) {
+            segments.add(new Segment(template.substring(position), null, null, -1));
+            literalLength += template.length() - position;
+        }
+        return new CompiledTemplate(List.copyOf(segments), Collections.unmodifiableList(variables), literalLength);
+    }
+
+    /**
+     * Distinct variable names referenced by the template, in order of first use
+     */
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * Render with a resolver returning the value of a variable, or null to leave it as-is
+     * The resolver is called at most once per distinct variable
+     */
+    public String render(Function<String, String> resolver) {
+        if (variables.isEmpty()) {
+            return segments.isEmpty() ? "" : segments.get(0).text();
+        }
+
+        String[] resolved = new String[variables.size()];
+        boolean[] done = new boolean[variables.size()];
+        StringBuilder out = new StringBuilder(literalLength + variables.size() * 16);
+        for (Segment segment : segments) {
+            if (segment.isLiteral()) {
+                out.append(segment.text());
+                continue;
+            }
+            int index = segment.index();
+            if (!done[index]) {
+                resolved[index] = resolver.apply(segment.variable());
+                done[index] = true;
+            }
+            out.append(resolved[index] != null ? resolved[index] : segment.placeholder());
+        }
+        return out.toString();
+    }
+
+    /**
+     * Render with a fixed set of variable values
+     */
+    public String render(Map<String, String> values) {
+        return render(values::get);
+    }
+}
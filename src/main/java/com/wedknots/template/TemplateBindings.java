@@ -0,0 +1,45 @@
+package com.wedknots.template;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact text form of the variable values bound to one recipient
+ * Encoded as form-urlencoded pairs (name=value&amp;...) in the map's iteration order,
+ * so the same bindings always produce the same text.
+ */
+public final class TemplateBindings {
+
+    private TemplateBindings() {
+    }
+
+    public static String encode(Map<String, String> values) {
+        StringBuilder out = new StringBuilder();
+        values.forEach((name, value) -> {
+            if (!out.isEmpty()) {
+                out.append('&');
+            }
+            out.append(URLEncoder.encode(name, StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+        });
+        return out.toString();
+    }
+
+    public static Map<String, String> decode(String encoded) {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return values;
+        }
+        for (String pair : encoded.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq >= 0 ? pair.substring(0, eq) : pair;
+            String value = eq >= 0 ? pair.substring(eq + 1) : "";
+            values.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+}
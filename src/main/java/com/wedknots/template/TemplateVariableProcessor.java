@@ -9,10 +9,12 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Template Variable Processor
@@ -27,7 +29,44 @@ import java.util.regex.Pattern;
 public class TemplateVariableProcessor {
     private static final Logger logger = LoggerFactory.getLogger(TemplateVariableProcessor.class);
 
-    private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{\\{([^}]+)\\}\\}");
+    private static final int MAX_CACHED_TEMPLATES = 512;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy");
+
+    /**
+     * Variable resolvers in display order; a null result means the variable is not available
+     */
+    private final Map<String, BiFunction<WeddingEvent, Guest, String>> resolvers = new LinkedHashMap<>();
+
+    /**
+     * Compiled templates keyed by template content
+     */
+    private final Map<String, CompiledTemplate> compiledTemplates = new ConcurrentHashMap<>();
+
+    public TemplateVariableProcessor() {
+        // Event variables
+        eventVariable("event.name", WeddingEvent::getName);
+        eventVariable("event.bride", WeddingEvent::getBrideName);
+        eventVariable("event.groom", WeddingEvent::getGroomName);
+        resolvers.put("event.date", (event, guest) -> event != null ? formatDate(event.getDate()) : null);
+        eventVariable("event.location", WeddingEvent::getPlace);
+        eventVariable("event.venue", WeddingEvent::getPlace); // Same as location for compatibility
+        eventVariable("event.subdomain", WeddingEvent::getSubdomain);
+
+        // Guest variables
+        guestVariable("guest.name", guest -> ((guest.getContactFirstName() != null ? guest.getContactFirstName() : "") +
+                " " + (guest.getContactLastName() != null ? guest.getContactLastName() : "")).trim());
+        guestVariable("guest.first_name", Guest::getContactFirstName);
+        guestVariable("guest.last_name", Guest::getContactLastName);
+        guestVariable("guest.family_name", Guest::getFamilyName);
+        guestVariable("guest.email", Guest::getContactEmail);
+        guestVariable("guest.phone", Guest::getPrimaryPhoneNumber);
+
+        // Attendee variables (through RSVP), only loaded when a template references them
+        guestVariable("attendee.count", guest -> hasAttendees(guest)
+                ? String.valueOf(guest.getRsvp().getAttendees().size()) : "0");
+        guestVariable("attendee.names", this::getAttendeeNames);
+        guestVariable("attendee.first", this::getFirstAttendeeName);
+    }
 
     /**
      * Process template and replace all variables
@@ -37,8 +76,10 @@ public class TemplateVariableProcessor {
             return null;
         }
 
-        Map<String, String> variables = buildVariableMap(event, guest);
-        return replaceVariables(template, variables);
+        return compile(template).render(name -> {
+            BiFunction<WeddingEvent, Guest, String> resolver = resolvers.get(name);
+            return resolver != null ? resolver.apply(event, guest) : null;
+        });
     }
 
     /**
@@ -49,87 +90,85 @@ public class TemplateVariableProcessor {
             return null;
         }
 
-        Map<String, String> stringVariables = new HashMap<>();
-        for (Map.Entry<String, Object> entry : customVariables.entrySet()) {
-            stringVariables.put(entry.getKey(),
-                entry.getValue() != null ? entry.getValue().toString() : "");
-        }
-
-        return replaceVariables(template, stringVariables);
+        return compile(template).render(name -> {
+            if (!customVariables.containsKey(name)) {
+                return null;
+            }
+            Object value = customVariables.get(name);
+            return value != null ? value.toString() : "";
+        });
     }
 
     /**
-     * Build map of all available variables
+     * Parsed form of a template, compiled on first use and cached
+     * Unknown variables are reported once here rather than on every render
      */
-    private Map<String, String> buildVariableMap(WeddingEvent event, Guest guest) {
-        Map<String, String> variables = new HashMap<>();
-
-        // Event variables
-        if (event != null) {
-            variables.put("event.name", safeString(event.getName()));
-            variables.put("event.bride", safeString(event.getBrideName()));
-            variables.put("event.groom", safeString(event.getGroomName()));
-            variables.put("event.date", formatDate(event.getDate()));
-            variables.put("event.location", safeString(event.getPlace()));
-            variables.put("event.venue", safeString(event.getPlace())); // Same as location for compatibility
-            variables.put("event.subdomain", safeString(event.getSubdomain()));
+    public CompiledTemplate compile(String template) {
+        CompiledTemplate compiled = compiledTemplates.get(template);
+        if (compiled != null) {
+            return compiled;
         }
 
-        // Guest variables
-        if (guest != null) {
-            String fullName = (guest.getContactFirstName() != null ? guest.getContactFirstName() : "") +
-                             " " + (guest.getContactLastName() != null ? guest.getContactLastName() : "");
-            variables.put("guest.name", safeString(fullName.trim()));
-            variables.put("guest.first_name", safeString(guest.getContactFirstName()));
-            variables.put("guest.last_name", safeString(guest.getContactLastName()));
-            variables.put("guest.family_name", safeString(guest.getFamilyName()));
-            variables.put("guest.email", safeString(guest.getContactEmail()));
-            variables.put("guest.phone", safeString(guest.getPrimaryPhoneNumber()));
-
-            // Attendee variables (through RSVP)
-            if (guest.getRsvp() != null && guest.getRsvp().getAttendees() != null
-                    && !guest.getRsvp().getAttendees().isEmpty()) {
-                variables.put("attendee.count", String.valueOf(guest.getRsvp().getAttendees().size()));
-                variables.put("attendee.names", getAttendeeNames(guest));
-                variables.put("attendee.first", getFirstAttendeeName(guest));
-            } else {
-                variables.put("attendee.count", "0");
-                variables.put("attendee.names", "");
-                variables.put("attendee.first", "");
-            }
+        compiled = CompiledTemplate.compile(template);
+        List<String> unknown = compiled.getVariables().stream()
+                .filter(name -> !resolvers.containsKey(name))
+                .toList();
+        if (!unknown.isEmpty()) {
+            logger.warn("Template references unknown variables {}, leaving as-is", unknown);
         }
 
-        return variables;
+        if (compiledTemplates.size() >= MAX_CACHED_TEMPLATES) {
+            compiledTemplates.clear();
+        }
+        compiledTemplates.put(template, compiled);
+        return compiled;
     }
 
     /**
-     * Replace all variables in template
+     * Resolve the variables referenced by compiled templates for one recipient
+     * Rendering the templates with the result gives the same text as {@link #process(String, WeddingEvent, Guest)}
      */
-    private String replaceVariables(String template, Map<String, String> variables) {
-        String result = template;
-        Matcher matcher = VARIABLE_PATTERN.matcher(template);
-
-        while (matcher.find()) {
-            String fullMatch = matcher.group(0);  // {{variable}}
-            String variableName = matcher.group(1).trim();  // variable
-
-            String replacement = variables.get(variableName);
-            if (replacement != null) {
-                result = result.replace(fullMatch, replacement);
-                logger.debug("Replaced variable '{}' with '{}'", variableName, replacement);
-            } else {
-                logger.warn("Variable '{}' not found, leaving as-is", variableName);
+    public Map<String, String> bind(WeddingEvent event, Guest guest, CompiledTemplate... templates) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (CompiledTemplate template : templates) {
+            for (String name : template.getVariables()) {
+                BiFunction<WeddingEvent, Guest, String> resolver = resolvers.get(name);
+                if (resolver != null && !values.containsKey(name)) {
+                    String value = resolver.apply(event, guest);
+                    if (value != null) {
+                        values.put(name, value);
+                    }
+                }
             }
         }
-
-        return result;
+        return values;
     }
 
     /**
      * Get list of all available variables for given context
      */
     public Map<String, String> getAvailableVariables(WeddingEvent event, Guest guest) {
-        return buildVariableMap(event, guest);
+        Map<String, String> variables = new LinkedHashMap<>();
+        resolvers.forEach((name, resolver) -> {
+            String value = resolver.apply(event, guest);
+            if (value != null) {
+                variables.put(name, value);
+            }
+        });
+        return variables;
+    }
+
+    private void eventVariable(String name, Function<WeddingEvent, Object> getter) {
+        resolvers.put(name, (event, guest) -> event != null ? safeString(getter.apply(event)) : null);
+    }
+
+    private void guestVariable(String name, Function<Guest, Object> getter) {
+        resolvers.put(name, (event, guest) -> guest != null ? safeString(getter.apply(guest)) : null);
+    }
+
+    private boolean hasAttendees(Guest guest) {
+        return guest.getRsvp() != null && guest.getRsvp().getAttendees() != null
+                && !guest.getRsvp().getAttendees().isEmpty();
     }
 
     /**
@@ -180,7 +219,7 @@ public class TemplateVariableProcessor {
         if (date == null) {
             return "";
         }
-        return date.format(DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy"));
+        return date.format(DATE_FORMAT);
     }
 
     /**
@@ -0,0 +1,82 @@
+package com.wedknots.util;
+
+import java.util.Locale;
+
+/**
+ * Canonical forms used to index guest phone numbers and family names
+ */
+public final class PhoneNumbers {
+    private static final int MAX_NATIONAL_DIGITS = 10;
+    private static final int MAX_E164_DIGITS = 15;
+
+    private PhoneNumbers() {
+    }
+
+    /**
+     * E.164 form (+ followed by digits) of a phone number as typed by a user or stored on a guest
+     * Spaces, dashes, dots and brackets are ignored. A leading 00 is an international prefix; a
+     * leading 0 or a number of at most ten digits is national and gets the default country code.
+     * So "+91 98765 43210", "0091 9876543210", "09876543210" and "98765-43210" are all +919876543210.
+     * @param defaultCountryCode country calling code without '+', e.g. "91"
+     * @return the canonical number, or null when the input has no digits or too many for E.164
+     */
+    public static String toE164(String raw, String defaultCountryCode) {
+        if (raw == null) {
+            return null;
+        }
+        String trimmed = raw.trim();
+        if (trimmed.startsWith("+")) {
+            // "+44 (0) 7700 ..." - the bracketed trunk zero is not dialled internationally
+            trimmed = trimmed.replace("(0)", "");
+        }
+        StringBuilder digits = new StringBuilder(trimmed.length());
+        for (int i = 0; i < trimmed.length(); i++) {
+            char ch = trimmed.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                digits.append(ch);
+            }
+        }
+        if (digits.isEmpty()) {
+            return null;
+        }
+
+        String number;
+        if (trimmed.startsWith("+")) {
+            number = digits.toString();
+        } else if (digits.length() > 2 && digits.charAt(0) == '0' && digits.charAt(1) == '0') {
+            number = digits.substring(2);
+        } else if (digits.charAt(0) == '0') {
+            number = defaultCountryCode + stripLeadingZeros(digits);
+        } else if (digits.length() <= MAX_NATIONAL_DIGITS) {
+            number = defaultCountryCode + digits;
+        } else {
+            // Already carries a country code, just without the '+'
+            number = digits.toString();
+        }
+
+        number = stripLeadingZeros(new StringBuilder(number));
+        if (number.isEmpty() || number.length() > MAX_E164_DIGITS) {
+            return null;
+        }
+        return "+" + number;
+    }
+
+    /**
+     * Case-folded key of a name, for exact indexed matching regardless of case and surrounding spaces
+     */
+    public static String nameKey(String name) {
+        if (name == null) {
+            return null;
+        }
+        String trimmed = name.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private static String stripLeadingZeros(CharSequence digits) {
+        int start = 0;
+        while (start < digits.length() && digits.charAt(start) == '0') {
+            start++;
+        }
+        return digits.subSequence(start, digits.length()).toString();
+    }
+}
@@ -0,0 +1,37 @@
+package com.wedknots.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Row-by-row reader over an uploaded CSV or XLSX file
+ * Only the current row is held in memory, so large sheets are read in bounded space.
+ */
+public interface SpreadsheetReader extends Closeable {
+
+    /**
+     * Cell values of the next row, or null at the end of the file
+     */
+    List<String> next() throws IOException;
+
+    /**
+     * 1-based row number of the row last returned by {@link #next}
+     */
+    int rowNumber();
+
+    /**
+     * Open a reader for the file, choosing the format by the original file name
+     */
+    static SpreadsheetReader open(Path file, String filename) throws IOException {
+        String name = filename != null ? filename.toLowerCase() : "";
+        if (name.endsWith(".xlsx")) {
+            return new XlsxRowReader(file);
+        }
+        if (name.endsWith(".csv") || name.endsWith(".txt")) {
+            return new CsvRowReader(file);
+        }
+        throw new IllegalArgumentException("Unsupported file type; upload a .csv or .xlsx file");
+    }
+}
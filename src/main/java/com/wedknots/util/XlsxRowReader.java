@@ -0,0 +1,216 @@
+package com.wedknots.util;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Streaming reader for the first worksheet of an XLSX workbook
+ * The sheet XML is read with StAX one row at a time; only the shared string table is
+ * loaded up front. Numbers are returned in plain notation so phone numbers stored as
+ * numeric cells come back intact.
+ */
+public class XlsxRowReader implements SpreadsheetReader {
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    private final ZipFile zip;
+    private final InputStream sheetStream;
+    private final XMLStreamReader sheet;
+    private final List<String> sharedStrings;
+    private int rowNumber;
+
+    public XlsxRowReader(Path file) throws IOException {
+        this.zip = new ZipFile(file.toFile());
+        try {
+            this.sharedStrings = readSharedStrings();
+            ZipEntry sheetEntry = zip.stream()
+                    .filter(e -> e.getName().matches("xl/worksheets/sheet\\d+\\.xml"))
+                    .min(Comparator.comparingInt(e -> Integer.parseInt(e.getName().replaceAll("\\D", ""))))
+                    .orElseThrow(() -> new IOException("Workbook has no worksheet"));
+            this.sheetStream = zip.getInputStream(sheetEntry);
+            this.sheet = XML_INPUT_FACTORY.createXMLStreamReader(sheetStream);
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            zip.close();
+            throw e instanceof IOException io ? io : new IOException("Not a readable XLSX file", e);
+        }
+    }
+
+    @Override
+    public List<String> next() throws IOException {
+        try {
+            while (sheet.hasNext()) {
+                if (sheet.next() == XMLStreamConstants.START_ELEMENT && "row".equals(sheet.getLocalName())) {
+                    String r = sheet.getAttributeValue(null, "r");
+                    rowNumber = r != null ? Integer.parseInt(r) : rowNumber + 1;
+                    return readRow();
+                }
+            }
+            return null;
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw new IOException("Malformed worksheet near row " + rowNumber, e);
+        }
+    }
+
+    @Override
+    public int rowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sheet.close();
+        } catch (XMLStreamException e) {
+            // Closing the underlying stream below is what matters
+        }
+        sheetStream.close();
+        zip.close();
+    }
+
+    private List<String> readRow() throws XMLStreamException {
+        List<String> cells = new ArrayList<>();
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "row".equals(sheet.getLocalName())) {
+                break;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT && "c".equals(sheet.getLocalName())) {
+                int column = columnIndex(sheet.getAttributeValue(null, "r"), cells.size());
+                String type = sheet.getAttributeValue(null, "t");
+                String value = readCell(type);
+                while (cells.size() < column) {
+                    cells.add("");
+                }
+                cells.add(value);
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Value of the current &lt;c&gt; element, leaving the reader on its end tag
+     */
+    private String readCell(String type) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        boolean inValue = false;
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = sheet.getLocalName();
+                inValue = "v".equals(name) || "t".equals(name);
+            } else if (event == XMLStreamConstants.CHARACTERS && inValue) {
+                text.append(sheet.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if ("c".equals(sheet.getLocalName())) {
+                    break;
+                }
+                inValue = false;
+            }
+        }
+
+        String raw = text.toString();
+        if ("s".equals(type)) {
+            int index = Integer.parseInt(raw.trim());
+            return index >= 0 && index < sharedStrings.size() ? sharedStrings.get(index) : "";
+        }
+        if ("b".equals(type)) {
+            return "1".equals(raw) ? "TRUE" : "FALSE";
+        }
+        if (type == null || "n".equals(type)) {
+            return plainNumber(raw);
+        }
+        return raw;
+    }
+
+    private List<String> readSharedStrings() throws IOException, XMLStreamException {
+        List<String> strings = new ArrayList<>();
+        ZipEntry entry = zip.getEntry("xl/sharedStrings.xml");
+        if (entry == null) {
+            return strings;
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                StringBuilder current = null;
+                boolean inText = false;
+                boolean inPhonetic = false;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        String name = reader.getLocalName();
+                        if ("si".equals(name)) {
+                            current = new StringBuilder();
+                        } else if ("rPh".equals(name)) {
+                            inPhonetic = true;
+                        } else if ("t".equals(name)) {
+                            inText = !inPhonetic;
+                        }
+                    } else if (event == XMLStreamConstants.CHARACTERS && inText && current != null) {
+                        current.append(reader.getText());
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        String name = reader.getLocalName();
+                        if ("si".equals(name) && current != null) {
+                            strings.add(current.toString());
+                            current = null;
+                        } else if ("rPh".equals(name)) {
+                            inPhonetic = false;
+                        } else if ("t".equals(name)) {
+                            inText = false;
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        return strings;
+    }
+
+    /**
+     * Zero-based column of a cell reference such as "C7"
+     */
+    private static int columnIndex(String reference, int fallback) {
+        if (reference == null) {
+            return fallback;
+        }
+        int column = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char ch = reference.charAt(i);
+            if (ch < 'A' || ch > 'Z') {
+                break;
+            }
+            column = column * 26 + (ch - 'A' + 1);
+        }
+        return column > 0 ? column - 1 : fallback;
+    }
+
+    private static String plainNumber(String raw) {
+        if (raw.isEmpty()) {
+            return raw;
+        }
+        try {
+            return new BigDecimal(raw).stripTrailingZeros().toPlainString();
+        } catch (NumberFormatException e) {
+            return raw;
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // Uploaded files are untrusted: no DTDs, no external entities
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
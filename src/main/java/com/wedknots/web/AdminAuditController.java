@@ -1,24 +1,69 @@
 package com.wedknots.web;
 
+import com.wedknots.model.UnauthorizedAccessLog;
 import com.wedknots.repository.UnauthorizedAccessLogRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
 
 @Controller
 @RequestMapping("/admin/audit")
 public class AdminAuditController {
+    private static final int MAX_PAGE_SIZE = 500;
 
     @Autowired
     private UnauthorizedAccessLogRepository repository;
 
+    /**
+     * Denied requests, newest first, keyset-paginated by (createdAt, id)
+     * Pass nextCursor back as the cursor parameter to see older entries.
+     */
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/unauthorized")
-    public String viewUnauthorized(Model model) {
-        model.addAttribute("logs", repository.findTop100ByOrderByCreatedAtDesc());
+    public String viewUnauthorized(@RequestParam(required = false) String cursor,
+                                   @RequestParam(defaultValue = "100") int limit,
+                                   Model model) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+
+        List<UnauthorizedAccessLog> rows = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] keyset = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+                if (keyset.length == 2) {
+                    rows = repository.findLatestAfter(LocalDateTime.parse(keyset[0]), Long.parseLong(keyset[1]), window);
+                }
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                // Malformed cursor: fall back to the first page
+            }
+        }
+        if (rows == null) {
+            rows = repository.findLatest(window);
+        }
+
+        List<UnauthorizedAccessLog> logs = rows.subList(0, Math.min(rows.size(), pageSize));
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            UnauthorizedAccessLog last = logs.get(logs.size() - 1);
+            String keyset = last.getCreatedAt() + "|" + last.getId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(keyset.getBytes(StandardCharsets.UTF_8));
+        }
+
+        model.addAttribute("logs", logs);
+        model.addAttribute("limit", pageSize);
+        model.addAttribute("nextCursor", nextCursor);
+        model.addAttribute("firstPage", cursor == null || cursor.isBlank());
         return "admin_unauthorized_logs";
     }
 }
@@ -1,5 +1,6 @@
 package com.wedknots.web;
 
+import com.wedknots.dto.GuestSummary;
 import com.wedknots.model.Guest;
 import com.wedknots.model.GuestPhoneNumber;
 import com.wedknots.model.WeddingEvent;
@@ -7,13 +8,14 @@ import com.wedknots.repository.GuestRepository;
 import com.wedknots.repository.WeddingEventRepository;
 import com.wedknots.service.GuestService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
 import java.util.Optional;
 
 @Controller
@@ -31,17 +33,21 @@ public class AdminGuestController {
 
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping
-    public String listGuests(@PathVariable Long eventId, Model model) {
+    public String listGuests(@PathVariable Long eventId,
+                             @RequestParam(name = "page", defaultValue = "0") int page,
+                             @RequestParam(name = "size", defaultValue = "50") int size,
+                             Model model) {
         Optional<WeddingEvent> eventOpt = weddingEventRepository.findById(eventId);
         if (eventOpt.isEmpty()) {
             return "redirect:/admin/events";
         }
         WeddingEvent event = eventOpt.get();
-        List<Guest> guests = guestRepository.findAll().stream()
-                .filter(g -> g.getEventId() != null && g.getEventId().equals(eventId))
-                .toList();
+        Page<GuestSummary> guestPage = guestService.getGuestSummaries(eventId,
+                PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 200)));
         model.addAttribute("event", event);
-        model.addAttribute("guests", guests);
+        model.addAttribute("guests", guestPage.getContent());
+        model.addAttribute("page", guestPage);
+        model.addAttribute("size", guestPage.getSize());
         return "admin_event_guests";
     }
 
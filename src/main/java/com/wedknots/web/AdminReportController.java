@@ -3,6 +3,7 @@ package com.wedknots.web;
 import com.wedknots.model.WeddingEvent;
 import com.wedknots.repository.WeddingEventRepository;
 import com.wedknots.service.AdminReportService;
+import com.wedknots.service.GuestPhoneIndexBackfill;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -17,6 +18,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 @Controller
 @RequestMapping("/admin/reports")
 public class AdminReportController {
+    private static final int UNINDEXED_PHONES_SHOWN = 100;
 
     @Autowired
     private AdminReportService reportService;
@@ -24,6 +26,9 @@ public class AdminReportController {
     @Autowired
     private WeddingEventRepository eventRepository;
 
+    @Autowired
+    private GuestPhoneIndexBackfill guestPhoneIndexBackfill;
+
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping
     public String viewReports(
@@ -40,6 +45,7 @@ public class AdminReportController {
         model.addAttribute("page", eventPage);
         model.addAttribute("search", search == null ? "" : search);
         model.addAttribute("size", size);
+        model.addAttribute("unindexedPhones", guestPhoneIndexBackfill.findUnindexed(UNINDEXED_PHONES_SHOWN));
         return "admin_reports";
     }
 }
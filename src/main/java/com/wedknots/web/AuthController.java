@@ -1,13 +1,19 @@
 package com.wedknots.web;
 
+import com.wedknots.dto.GuestPrincipal;
+import com.wedknots.dto.GuestProfile;
 import com.wedknots.model.Host;
 import com.wedknots.model.User;
 import com.wedknots.model.Guest;
 import com.wedknots.repository.HostRepository;
+import com.wedknots.service.GuestLoginThrottle;
+import com.wedknots.service.GuestProfileCache;
 import com.wedknots.service.UserService;
 import com.wedknots.repository.UserRepository;
 import com.wedknots.repository.GuestRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,6 +27,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.util.Collections;
 import java.util.Optional;
 
@@ -40,6 +47,10 @@ public class AuthController {
     private HostRepository hostRepository;
     @Autowired
     private com.wedknots.repository.WeddingEventRepository weddingEventRepository;
+    @Autowired
+    private GuestLoginThrottle guestLoginThrottle;
+    @Autowired
+    private GuestProfileCache guestProfileCache;
 
     @GetMapping("/login")
     public String login() {
@@ -201,42 +212,56 @@ public class AuthController {
     }
 
     @PostMapping("/login/guest")
-    public String guestLoginPost(HttpServletRequest request, Model model) {
+    public String guestLoginPost(HttpServletRequest request, HttpServletResponse response, Model model) {
         String contactLastName = request.getParameter("contactLastName");
         String mobile = request.getParameter("mobile");
-        String status = userService.validateGuestLogin(contactLastName, mobile);
-        if ("GUEST_NOT_FOUND".equals(status)) {
+
+        // Shed throttled attempts before any guest lookup; the remote address is the client's,
+        // taken from X-Forwarded-For only when a trusted proxy sent it (server.tomcat.remoteip)
+        String clientIp = request.getRemoteAddr();
+        GuestLoginThrottle.Decision decision = guestLoginThrottle.check(clientIp, mobile);
+        if (!decision.allowed()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+            model.addAttribute("loginError", "Too many login attempts. Please try again in "
+                    + decision.retryAfterSeconds() + " seconds.");
+            return "login_guest";
+        }
+
+        // Authenticate the guest using the multi-phone system (a single lookup)
+        Optional<Guest> guestOpt = userService.getGuestForAuthentication(contactLastName, mobile);
+        if (guestOpt.isEmpty()) {
+            guestLoginThrottle.recordFailure(clientIp, mobile);
             model.addAttribute("loginError", "Guest not found. Please check your contact last name and phone number. " +
                     "You can use any of your registered phone numbers (with or without country code) to login.");
             return "login_guest";
         }
+        guestLoginThrottle.recordSuccess(clientIp, mobile);
 
-        // Authenticate the guest using the multi-phone system
-        Optional<Guest> guestOpt = userService.getGuestForAuthentication(contactLastName, mobile);
-        if (guestOpt.isPresent()) {
-            Guest guest = guestOpt.get();
-            Authentication auth = new UsernamePasswordAuthenticationToken(
-                guest.getPrimaryPhoneNumber(),
-                guest.getContactLastName(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_GUEST"))
-            );
-            SecurityContextHolder.getContext().setAuthentication(auth);
+        Guest guest = guestOpt.get();
+        // The principal carries the guest and event IDs so guest pages need no lookup to find them
+        Authentication auth = new UsernamePasswordAuthenticationToken(
+            new GuestPrincipal(guest.getId(), guest.getEventId(), guest.getPrimaryPhoneNumber()),
+            guest.getContactLastName(),
+            Collections.singletonList(new SimpleGrantedAuthority("ROLE_GUEST"))
+        );
+        SecurityContextHolder.getContext().setAuthentication(auth);
 
-            // Save authentication to session using Spring Security's expected attribute name
-            request.getSession().setAttribute(
-                org.springframework.security.web.context.HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
-                SecurityContextHolder.getContext()
-            );
-            // Store guest ID for controllers to resolve invitations consistently
-            request.getSession().setAttribute("guestId", guest.getId());
-            String guestName = (guest.getContactFirstName() != null ? guest.getContactFirstName() : "") +
-                              " " + (guest.getContactLastName() != null ? guest.getContactLastName() : "");
-            request.getSession().setAttribute("guestName", guestName.trim());
-            request.getSession().setAttribute("guestFamilyName", guest.getFamilyName());
-
-            logger.info("Guest {} (ID: {}) authenticated successfully using phone: {}",
-                       guest.getFamilyName(), guest.getId(), mobile);
-        }
+        // Save authentication to session using Spring Security's expected attribute name
+        request.getSession().setAttribute(
+            org.springframework.security.web.context.HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+            SecurityContextHolder.getContext()
+        );
+        // Store guest ID for controllers to resolve invitations consistently
+        request.getSession().setAttribute("guestId", guest.getId());
+        String guestName = (guest.getContactFirstName() != null ? guest.getContactFirstName() : "") +
+                          " " + (guest.getContactLastName() != null ? guest.getContactLastName() : "");
+        request.getSession().setAttribute("guestName", guestName.trim());
+        request.getSession().setAttribute("guestFamilyName", guest.getFamilyName());
+        guestProfileCache.put(GuestProfile.from(guest));
+
+        logger.info("Guest {} (ID: {}) authenticated successfully using phone: {}",
+                   guest.getFamilyName(), guest.getId(), mobile);
 
         return "redirect:/guest/dashboard";
     }
@@ -0,0 +1,81 @@
+package com.wedknots.web;
+
+import com.wedknots.dto.GuestProfile;
+import com.wedknots.model.Guest;
+import com.wedknots.repository.GuestRepository;
+import com.wedknots.service.GuestProfileCache;
+
+import java.util.Optional;
+
+/**
+ * The authenticated guest of the current request, resolved once by GuestContextArgumentResolver
+ * The profile snapshot comes from GuestProfileCache; the guest entity is only loaded when a
+ * handler needs it (to write through or to walk associations), and at most once per request.
+ */
+public class GuestContext {
+    private final Long guestId;
+    private final Long eventId;
+    private final GuestProfileCache guestProfileCache;
+    private final GuestRepository guestRepository;
+
+    private Optional<GuestProfile> profile;
+    private Optional<Guest> guest;
+    private boolean rsvpFetched;
+
+    GuestContext(Long guestId, Long eventId, GuestProfileCache guestProfileCache, GuestRepository guestRepository) {
+        this.guestId = guestId;
+        this.eventId = eventId;
+        this.guestProfileCache = guestProfileCache;
+        this.guestRepository = guestRepository;
+    }
+
+    public boolean isAuthenticated() {
+        return guestId != null;
+    }
+
+    public Long getGuestId() {
+        return guestId;
+    }
+
+    /**
+     * Event of the guest, from the login principal or else from the profile
+     */
+    public Long getEventId() {
+        if (eventId != null) {
+            return eventId;
+        }
+        return getProfile().map(GuestProfile::getEventId).orElse(null);
+    }
+
+    /**
+     * Whether a guest ID taken from the request belongs to the authenticated guest
+     */
+    public boolean isGuest(Long id) {
+        return guestId != null && guestId.equals(id);
+    }
+
+    public Optional<GuestProfile> getProfile() {
+        if (profile == null) {
+            profile = isAuthenticated() ? guestProfileCache.get(guestId) : Optional.empty();
+        }
+        return profile;
+    }
+
+    public Optional<Guest> getGuest() {
+        if (guest == null) {
+            guest = isAuthenticated() ? guestRepository.findById(guestId) : Optional.empty();
+        }
+        return guest;
+    }
+
+    /**
+     * The guest entity with its RSVP and attendees fetched in the same query
+     */
+    public Optional<Guest> getGuestWithRsvp() {
+        if (!rsvpFetched) {
+            guest = isAuthenticated() ? guestRepository.findByIdWithRsvpAndAttendees(guestId) : Optional.empty();
+            rsvpFetched = true;
+        }
+        return guest;
+    }
+}
@@ -0,0 +1,72 @@
+package com.wedknots.web;
+
+import com.wedknots.dto.GuestPrincipal;
+import com.wedknots.repository.GuestRepository;
+import com.wedknots.service.GuestProfileCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Supplies a GuestContext to handler methods that declare one
+ * The guest comes from the GuestPrincipal set at login, or from the session's guestId for
+ * guest sessions created before it; a host or admin session never resolves to a guest.
+ * The context is kept as a request attribute so that every handler and view of the
+ * request shares the same loaded guest.
+ */
+@Component
+public class GuestContextArgumentResolver implements HandlerMethodArgumentResolver {
+    private static final String ATTRIBUTE = GuestContext.class.getName();
+
+    @Autowired
+    private GuestProfileCache guestProfileCache;
+
+    @Autowired
+    private GuestRepository guestRepository;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return GuestContext.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object existing = webRequest.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (existing instanceof GuestContext context) {
+            return context;
+        }
+
+        Long guestId = null;
+        Long eventId = null;
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof GuestPrincipal principal) {
+            guestId = principal.guestId();
+            eventId = principal.eventId();
+        } else if (isGuest(auth)) {
+            HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+            HttpSession session = request != null ? request.getSession(false) : null;
+            Object guestIdAttr = session != null ? session.getAttribute("guestId") : null;
+            if (guestIdAttr instanceof Number number) {
+                guestId = number.longValue();
+            }
+        }
+
+        GuestContext context = new GuestContext(guestId, eventId, guestProfileCache, guestRepository);
+        webRequest.setAttribute(ATTRIBUTE, context, RequestAttributes.SCOPE_REQUEST);
+        return context;
+    }
+
+    private static boolean isGuest(Authentication auth) {
+        return auth != null && auth.getAuthorities().stream().anyMatch(a -> "ROLE_GUEST".equals(a.getAuthority()));
+    }
+}
@@ -5,17 +5,15 @@ import com.wedknots.repository.InvitationLogRepository;
 import com.wedknots.service.InvitationLogService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
-import jakarta.servlet.http.HttpServletRequest;
 import com.wedknots.model.InvitationLog;
 import com.wedknots.model.Invitation;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -39,26 +37,19 @@ public class GuestDashboardController {
      */
     @PreAuthorize("hasRole('GUEST')")
     @GetMapping("/dashboard")
-    public String guestDashboard(Model model, HttpServletRequest request) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || auth.getName() == null) {
+    public String guestDashboard(GuestContext context, Model model) {
+        if (!context.isAuthenticated()) {
             return "redirect:/login";
         }
+        Long guestId = context.getGuestId();
 
-        // Resolve guest (session guestId is set at login)
-        Object guestIdAttr = request.getSession().getAttribute("guestId");
-        if (guestIdAttr == null) {
-            return "redirect:/login";
-        }
-        Long guestId = (guestIdAttr instanceof Integer) ? ((Integer) guestIdAttr).longValue() : (Long) guestIdAttr;
-
-        // Fetch all invitation logs for this guest
-        List<InvitationLog> logs = invitationLogRepository.findByGuestId(guestId);
+        // Everything the dashboard renders (invitations, events, RSVP, travel info) in one query
+        List<InvitationLog> logs = invitationLogRepository.findForGuestDashboard(guestId);
 
-        // Group by event
+        // Group by event, in event order
         Map<Long, List<InvitationLog>> byEvent = logs.stream()
-                .filter(log -> log.getInvitation() != null && log.getInvitation().getEvent() != null)
-                .collect(Collectors.groupingBy(log -> log.getInvitation().getEvent().getId()));
+                .collect(Collectors.groupingBy(log -> log.getInvitation().getEvent().getId(),
+                        LinkedHashMap::new, Collectors.toList()));
 
         if (byEvent.isEmpty()) {
             model.addAttribute("emptyState", true);
@@ -1,22 +1,21 @@
 package com.wedknots.web;
 
+import com.wedknots.dto.GuestInvitationSummary;
+import com.wedknots.dto.GuestProfile;
 import com.wedknots.model.*;
 import com.wedknots.repository.InvitationLogRepository;
-import com.wedknots.repository.GuestRepository;
+import com.wedknots.repository.InvitationRepository;
 import com.wedknots.repository.RSVPRepository;
 import com.wedknots.repository.TravelInfoRepository;
 import com.wedknots.repository.WeddingEventRepository;
 import com.wedknots.repository.AttendeeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import jakarta.servlet.http.HttpServletRequest;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -33,7 +32,7 @@ public class GuestInvitationsController {
     private InvitationLogRepository invitationLogRepository;
 
     @Autowired
-    private GuestRepository guestRepository;
+    private InvitationRepository invitationRepository;
 
     @Autowired
     private RSVPRepository rsvpRepository;
@@ -54,36 +53,19 @@ public class GuestInvitationsController {
     @PreAuthorize("hasRole('GUEST')")
     @GetMapping
     public String listInvitations(@RequestParam(name = "eventId", required = false) Long eventId,
-                                  Model model, HttpServletRequest request) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || auth.getName() == null) {
+                                  GuestContext context, Model model) {
+        if (!context.isAuthenticated()) {
             return "redirect:/login";
         }
 
-        // Resolve authenticated guest (via session or principal)
-        Guest guest = getAuthenticatedGuest(request);
-        if (guest == null) {
+        if (context.getProfile().isEmpty()) {
             model.addAttribute("emptyState", true);
             return "guest_invitations";
         }
 
-        List<Invitation> guestInvitations;
-        if (eventId != null) {
-            guestInvitations = invitationLogRepository
-                    .findByGuestId(guest.getId())
-                    .stream()
-                    .filter(log -> log.getInvitation().getEvent().getId().equals(eventId))
-                    .map(InvitationLog::getInvitation)
-                    .distinct()
-                    .toList();
-        } else {
-            guestInvitations = invitationLogRepository
-                    .findByGuestId(guest.getId())
-                    .stream()
-                    .map(InvitationLog::getInvitation)
-                    .distinct()
-                    .toList();
-        }
+        // One projection query; no invitation or event entities are loaded for the list
+        List<GuestInvitationSummary> guestInvitations =
+                invitationRepository.findGuestInvitationSummaries(context.getGuestId(), eventId);
 
         if (guestInvitations.size() == 1) {
             return "redirect:/invitations/" + guestInvitations.getFirst().getId();
@@ -104,19 +86,17 @@ public class GuestInvitationsController {
      */
     @PreAuthorize("hasRole('GUEST')")
     @GetMapping("/{invitationId}")
-    public String viewInvitation(@PathVariable Long invitationId, Model model, HttpServletRequest request) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || auth.getName() == null) {
+    public String viewInvitation(@PathVariable Long invitationId, GuestContext context, Model model) {
+        if (!context.isAuthenticated()) {
             return "redirect:/login";
         }
 
-        Guest guest = getAuthenticatedGuest(request);
-        if (guest == null) {
-            throw new RuntimeException("Guest not found");
-        }
+        GuestProfile guest = context.getProfile()
+                .orElseThrow(() -> new RuntimeException("Guest not found"));
 
+        // Invitation and event are fetched with the log, so the view needs no further loads
         var invitationLog = invitationLogRepository
-                .findByInvitationIdAndGuestId(invitationId, guest.getId())
+                .findForGuestView(invitationId, guest.getId())
                 .orElseThrow(() -> new RuntimeException("Invitation not found"));
 
         Invitation invitation = invitationLog.getInvitation();
@@ -137,12 +117,9 @@ public class GuestInvitationsController {
      */
     @PreAuthorize("hasRole('GUEST')")
     @GetMapping("/rsvp/form")
-    public String rsvpForm(@RequestParam Long guestId, @RequestParam Long eventId, Model model, HttpServletRequest request) {
-        Guest guest = guestRepository.findById(guestId)
-                .orElseThrow(() -> new RuntimeException("Guest not found"));
-
+    public String rsvpForm(@RequestParam Long guestId, @RequestParam Long eventId, GuestContext context, Model model) {
         // Verify the guest belongs to the authenticated user
-        verifyGuestAccess(guest, request);
+        verifyGuestAccess(guestId, context);
 
         // Use mobile RSVP flow (guest will validate via phone)
         return "redirect:/rsvp/event/" + eventId;
@@ -158,15 +135,12 @@ public class GuestInvitationsController {
             @RequestParam Long eventId,
             @RequestParam RSVPStatus status,
             @RequestParam(required = false) Integer attendeeCount,
-            RedirectAttributes redirectAttributes,
-            HttpServletRequest request) {
+            GuestContext context,
+            RedirectAttributes redirectAttributes) {
 
         try {
-            Guest guest = guestRepository.findById(guestId)
-                    .orElseThrow(() -> new RuntimeException("Guest not found"));
-
             // Verify the guest belongs to the authenticated user
-            verifyGuestAccess(guest, request);
+            Guest guest = verifyGuestAccess(guestId, context);
 
             WeddingEvent event = weddingEventRepository.findById(eventId)
                     .orElseThrow(() -> new RuntimeException("Event not found"));
@@ -219,15 +193,12 @@ public class GuestInvitationsController {
             @RequestParam int attendeeCount,
             @RequestParam(required = false) List<String> attendeeNames,
             @RequestParam(required = false) List<String> attendeeAges,
-            RedirectAttributes redirectAttributes,
-            HttpServletRequest request) {
+            GuestContext context,
+            RedirectAttributes redirectAttributes) {
 
         try {
-            Guest guest = guestRepository.findById(guestId)
-                    .orElseThrow(() -> new RuntimeException("Guest not found"));
-
             // Verify the guest belongs to the authenticated user
-            verifyGuestAccess(guest, request);
+            Guest guest = verifyGuestAccess(guestId, context);
 
             WeddingEvent event = weddingEventRepository.findById(eventId)
                     .orElseThrow(() -> new RuntimeException("Event not found"));
@@ -292,10 +263,11 @@ public class GuestInvitationsController {
     public String updateRSVP(
             @RequestParam RSVPStatus status,
             @RequestParam int attendeeCount,
-            RedirectAttributes redirectAttributes,
-            HttpServletRequest request) {
+            GuestContext context,
+            RedirectAttributes redirectAttributes) {
 
-        Guest guest = getAuthenticatedGuest(request);
+        Guest guest = context.getGuest()
+                .orElseThrow(() -> new RuntimeException("Guest not found"));
         Optional<RSVP> rsvpOpt = rsvpRepository.findByGuestId(guest.getId());
         
         RSVP rsvp = rsvpOpt.orElseGet(() -> RSVP.builder()
@@ -318,12 +290,9 @@ public class GuestInvitationsController {
      */
     @PreAuthorize("hasRole('GUEST')")
     @GetMapping("/travel-info")
-    public String travelInfoForm(@RequestParam Long guestId, @RequestParam Long eventId, Model model, HttpServletRequest request) {
-        Guest guest = guestRepository.findById(guestId)
-                .orElseThrow(() -> new RuntimeException("Guest not found"));
-
+    public String travelInfoForm(@RequestParam Long guestId, @RequestParam Long eventId, GuestContext context, Model model) {
         // Verify the guest belongs to the authenticated user
-        verifyGuestAccess(guest, request);
+        Guest guest = verifyGuestAccess(guestId, context);
 
         WeddingEvent event = weddingEventRepository.findById(eventId)
                 .orElseThrow(() -> new RuntimeException("Event not found"));
@@ -391,15 +360,12 @@ public class GuestInvitationsController {
             @ModelAttribute TravelInfo travelInfo,
             @RequestParam(required = false) List<String> attendeeNames,
             @RequestParam(required = false) List<String> attendeeAges,
-            RedirectAttributes redirectAttributes,
-            HttpServletRequest request) {
+            GuestContext context,
+            RedirectAttributes redirectAttributes) {
 
         try {
-            Guest guest = guestRepository.findById(guestId)
-                    .orElseThrow(() -> new RuntimeException("Guest not found"));
-
             // Verify the guest belongs to the authenticated user
-            verifyGuestAccess(guest, request);
+            Guest guest = verifyGuestAccess(guestId, context);
 
             WeddingEvent event = weddingEventRepository.findById(eventId)
                     .orElseThrow(() -> new RuntimeException("Event not found"));
@@ -468,81 +434,13 @@ public class GuestInvitationsController {
     }
 
     /**
-     * Verify that the authenticated guest has access to the specified guest record
+     * Verify that a guest ID from the request is the authenticated guest and return that guest
      */
-    private void verifyGuestAccess(Guest guest, HttpServletRequest request) {
-        Guest authenticatedGuest = getAuthenticatedGuest(request);
-        if (authenticatedGuest == null || !authenticatedGuest.getId().equals(guest.getId())) {
+    private Guest verifyGuestAccess(Long guestId, GuestContext context) {
+        if (!context.isGuest(guestId)) {
             throw new RuntimeException("Access denied: You can only access your own information");
         }
-    }
-
-    /**
-     * Get authenticated guest from session or principal
-     */
-    private Guest getAuthenticatedGuest(HttpServletRequest request) {
-        // First try session (set during guest login)
-        Object guestIdAttr = request != null ? request.getSession().getAttribute("guestId") : null;
-        if (guestIdAttr instanceof Long) {
-            return guestRepository.findById((Long) guestIdAttr).orElse(null);
-        }
-        if (guestIdAttr instanceof Integer) { // in case stored as Integer
-            return guestRepository.findById(((Integer) guestIdAttr).longValue()).orElse(null);
-        }
-
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || auth.getName() == null) {
-            return null;
-        }
-
-        String principal = auth.getName();
-
-        // Principal formats we support:
-        // 1) "FamilyName_<guestId>" (new phone login)
-        // 2) "FamilyName_PhoneNumber" (older format)
-        String[] parts = principal.split("_");
-        if (parts.length == 2) {
-            String part2 = parts[1];
-            // Try as guestId
-            try {
-                Long guestId = Long.parseLong(part2);
-                return guestRepository.findById(guestId).orElse(null);
-            } catch (NumberFormatException ignore) {
-                // Fallback to family + phone lookup
-                String familyName = parts[0];
-                String guestPhoneNumber = part2;
-                return guestRepository.findByFamilyNameIgnoreCaseAndContactPhone(familyName, guestPhoneNumber)
-                        .orElse(null);
-            }
-        }
-
-        // Fallback to email login (older behavior)
-        return guestRepository.findByContactEmail(principal);
-    }
-
-    /**
-     * Extract family name and phone from principal (format: "FamilyName_PhoneNumber")
-     * Returns [familyName, phoneNumber]
-     */
-    private String[] extractFamilyNameAndPhone(String principal) {
-        if (principal == null || !principal.contains("_")) {
-            return new String[]{principal, principal};
-        }
-        // Split by underscore - everything before last underscore is family name
-        int lastUnderscore = principal.lastIndexOf("_");
-        String familyName = principal.substring(0, lastUnderscore);
-        String phoneNumber = principal.substring(lastUnderscore + 1);
-        return new String[]{familyName, phoneNumber};
-    }
-
-    /**
-     * Extract phone number from principal (format: "FamilyName_PhoneNumber")
-     */
-    private String extractPhoneNumber(String principal) {
-        if (principal == null || !principal.contains("_")) {
-            return principal;
-        }
-        String[] parts = principal.split("_");
-        return parts[parts.length - 1];
+        return context.getGuest()
+                .orElseThrow(() -> new RuntimeException("Guest not found"));
     }
 }
@@ -6,8 +6,6 @@ import com.wedknots.repository.InvitationLogRepository;
 import com.wedknots.service.MessageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,7 +13,6 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
 
 @Controller
@@ -32,19 +29,14 @@ public class GuestMessagesController {
     @GetMapping("/event/{eventId}")
     public String guestMessages(@PathVariable Long eventId,
                                 @RequestParam(required = false) Long guestId,
-                                HttpServletRequest request,
+                                GuestContext context,
                                 Model model) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || auth.getName() == null) {
+        if (!context.isAuthenticated()) {
             return "redirect:/login";
         }
 
-        Object guestIdAttr = request.getSession().getAttribute("guestId");
-        Long resolvedGuestId = guestIdAttr instanceof Integer ? ((Integer) guestIdAttr).longValue() : (Long) guestIdAttr;
-        if (resolvedGuestId == null) {
-            return "redirect:/login";
-        }
-        if (guestId != null && !guestId.equals(resolvedGuestId)) {
+        Long resolvedGuestId = context.getGuestId();
+        if (guestId != null && !context.isGuest(guestId)) {
             return "redirect:/guest/dashboard";
         }
 
@@ -60,7 +52,7 @@ public class GuestMessagesController {
 
         model.addAttribute("messages", messages);
         model.addAttribute("event", logs.get(0).getInvitation().getEvent());
-        model.addAttribute("guest", logs.get(0).getGuest());
+        model.addAttribute("guest", context.getProfile().orElse(null));
         return "guest_messages";
     }
 }
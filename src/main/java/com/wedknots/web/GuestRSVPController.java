@@ -10,6 +10,7 @@ import com.wedknots.model.RSVPStatus;
 import com.wedknots.model.WeddingEvent;
 import com.wedknots.repository.GuestRepository;
 import com.wedknots.repository.WeddingEventRepository;
+import com.wedknots.service.GuestPhoneDirectory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
@@ -33,6 +34,7 @@ public class GuestRSVPController {
 
     private final WeddingEventRepository weddingEventRepository;
     private final GuestRepository guestRepository;
+    private final GuestPhoneDirectory guestPhoneDirectory;
 
     /**
      * Get current authenticated guest data with RSVP details
@@ -40,31 +42,17 @@ public class GuestRSVPController {
      */
     @GetMapping("/api/guests/current")
     @ResponseBody
-    public Map<String, Object> getCurrentGuest(java.security.Principal principal) {
+    public Map<String, Object> getCurrentGuest(GuestContext context) {
         try {
-            if (principal == null) {
-                log.warn("No principal found - user not authenticated");
+            if (!context.isAuthenticated()) {
+                log.warn("No guest found in session - user not authenticated");
                 return Map.of("error", "Not authenticated");
             }
 
-            log.info("Principal name: {}", principal.getName());
-
-            // Extract phone number from principal (format: "LastName+PhoneNumber")
-            String phoneNumber = principal.getName();
-
-            // Find guest by phone number
-            Optional<Guest> guestOpt = guestRepository.findByPrimaryPhoneNumber(phoneNumber);
-            log.info("Primary phone lookup result: {}", guestOpt.isPresent() ? "Found guest " + guestOpt.get().getId() : "No guest found");
-
-            if (guestOpt.isEmpty()) {
-                log.info("No guest found by primary phone, trying additional phones");
-                // Try additional phone numbers
-                guestOpt = guestRepository.findByAdditionalPhoneNumber(phoneNumber);
-                log.info("Additional phone lookup result: {}", guestOpt.isPresent() ? "Found guest " + guestOpt.get().getId() : "No guest found");
-            }
-
+            // The signed-in guest itself, rather than whichever guest first matches the login phone
+            Optional<Guest> guestOpt = context.getGuestWithRsvp();
             if (guestOpt.isEmpty()) {
-                log.warn("No guest found with phone number: {}", phoneNumber);
+                log.warn("Signed-in guest {} no longer exists", context.getGuestId());
                 return Map.of("error", "Guest not found");
             }
 
@@ -156,7 +144,7 @@ public class GuestRSVPController {
                 return GuestValidationResponse.error("Phone number is required");
             }
 
-            if (!phoneNumber.matches("^\\+?[1-9]\\d{1,14}$")) {
+            if (guestPhoneDirectory.normalize(phoneNumber) == null) {
                 return GuestValidationResponse.error("Invalid phone number format");
             }
 
@@ -166,10 +154,9 @@ public class GuestRSVPController {
                 return GuestValidationResponse.error("Event not found");
             }
 
-            WeddingEvent event = eventOpt.get();
-
             // Find guest with this phone number in this event
-            Optional<Guest> guestOpt = guestRepository.findByEventAndPhoneNumber(event, phoneNumber);
+            Optional<Guest> guestOpt = guestPhoneDirectory.findGuestInEvent(eventId, phoneNumber)
+                    .flatMap(guestRepository::findById);
 
             if (guestOpt.isEmpty()) {
                 log.warn("No guest found with phone {} in event {}", phoneNumber, eventId);
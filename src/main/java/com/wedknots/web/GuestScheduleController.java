@@ -1,13 +1,11 @@
 package com.wedknots.web;
 
+import com.wedknots.dto.GuestProfile;
 import com.wedknots.model.ActivityType;
 import com.wedknots.model.EventActivity;
-import com.wedknots.model.Guest;
 import com.wedknots.model.WeddingEvent;
-import com.wedknots.repository.GuestRepository;
 import com.wedknots.repository.WeddingEventRepository;
 import com.wedknots.service.EventActivityService;
-import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -29,7 +27,6 @@ public class GuestScheduleController {
 
     private final EventActivityService activityService;
     private final WeddingEventRepository weddingEventRepository;
-    private final GuestRepository guestRepository;
 
     // ========== Guest Schedule View (Read-Only) ==========
 
@@ -38,20 +35,15 @@ public class GuestScheduleController {
     public String viewSchedule(@RequestParam(required = false) Long eventId,
                               @RequestParam(required = false) ActivityType type,
                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
-                              HttpServletRequest request,
+                              GuestContext context,
                               Model model) {
-        // Get guest from session
-        Long guestId = (Long) request.getSession().getAttribute("guestId");
-        if (guestId == null) {
-            return "redirect:/login/guest";
-        }
-
-        Optional<Guest> guestOpt = guestRepository.findById(guestId);
+        // Guest profile snapshot; the schedule needs no guest associations
+        Optional<GuestProfile> guestOpt = context.getProfile();
         if (guestOpt.isEmpty()) {
             return "redirect:/login/guest";
         }
 
-        Guest guest = guestOpt.get();
+        GuestProfile guest = guestOpt.get();
         Long resolvedEventId = eventId != null ? eventId : guest.getEventId();
 
         Optional<WeddingEvent> eventOpt = weddingEventRepository.findById(resolvedEventId);
@@ -97,20 +89,15 @@ public class GuestScheduleController {
     @PreAuthorize("hasRole('GUEST')")
     @GetMapping("/{activityId}")
     public String viewActivityDetail(@PathVariable Long activityId,
-                                    HttpServletRequest request,
+                                    GuestContext context,
                                     Model model) {
-        // Get guest from session
-        Long guestId = (Long) request.getSession().getAttribute("guestId");
-        if (guestId == null) {
-            return "redirect:/login/guest";
-        }
-
-        Optional<Guest> guestOpt = guestRepository.findById(guestId);
+        // Guest profile snapshot; the schedule needs no guest associations
+        Optional<GuestProfile> guestOpt = context.getProfile();
         if (guestOpt.isEmpty()) {
             return "redirect:/login/guest";
         }
 
-        Guest guest = guestOpt.get();
+        GuestProfile guest = guestOpt.get();
 
         Optional<EventActivity> activityOpt = activityService.getActivityById(activityId);
         if (activityOpt.isEmpty() || !Boolean.TRUE.equals(activityOpt.get().getVisibleToGuests())) {
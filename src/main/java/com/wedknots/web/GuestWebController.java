@@ -1,15 +1,20 @@
 package com.wedknots.web;
 
+import com.wedknots.dto.GuestImportResult;
 import com.wedknots.model.*;
 import com.wedknots.repository.*;
+import com.wedknots.service.GuestImportService;
+import com.wedknots.service.GuestPhoneDirectory;
 import com.wedknots.service.GuestService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +40,12 @@ public class GuestWebController {
     @Autowired
     private GuestService guestService;
 
+    @Autowired
+    private GuestImportService guestImportService;
+
+    @Autowired
+    private GuestPhoneDirectory guestPhoneDirectory;
+
     @Autowired
     private com.wedknots.repository.GuestPhoneNumberRepository guestPhoneNumberRepository;
 
@@ -129,7 +140,7 @@ public class GuestWebController {
         }
 
         // Check if primary phone number already exists in this event
-        if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsPhoneAnywhere(primaryPhoneNumber.trim(), eventId, null))) {
+        if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsPhoneAnywhere(guestPhoneDirectory.normalize(primaryPhoneNumber), eventId, null))) {
             model.addAttribute("event", event);
             model.addAttribute("guest", guest);
             model.addAttribute("error", "Phone number '" + primaryPhoneNumber.trim() + "' is already registered to another guest in this event");
@@ -156,7 +167,7 @@ public class GuestWebController {
                     }
 
                     // Check if this additional phone already exists in the event
-                    if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsPhoneAnywhere(phone.trim(), eventId, null))) {
+                    if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsPhoneAnywhere(guestPhoneDirectory.normalize(phone), eventId, null))) {
                         model.addAttribute("event", event);
                         model.addAttribute("guest", guest);
                         model.addAttribute("error", "Phone number '" + phone.trim() + "' is already registered to another guest in this event");
@@ -284,7 +295,7 @@ public class GuestWebController {
         }
 
         // Check if primary phone number already exists in this event (excluding this guest)
-        if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsPhoneAnywhere(primaryPhoneNumber.trim(), eventId, guestId))) {
+        if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsPhoneAnywhere(guestPhoneDirectory.normalize(primaryPhoneNumber), eventId, guestId))) {
             Optional<RSVP> rsvpOpt = rsvpRepository.findByGuestId(guestId);
             model.addAttribute("event", event);
             model.addAttribute("guest", guest);
@@ -320,7 +331,7 @@ public class GuestWebController {
                     }
 
                     // Check if this additional phone already exists in the event (excluding this guest)
-                    if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsPhoneAnywhere(phone.trim(), eventId, guestId))) {
+                    if (Boolean.TRUE.equals(guestPhoneNumberRepository.existsPhoneAnywhere(guestPhoneDirectory.normalize(phone), eventId, guestId))) {
                         Optional<RSVP> rsvpOpt = rsvpRepository.findByGuestId(guestId);
                         model.addAttribute("event", event);
                         model.addAttribute("guest", guest);
@@ -373,6 +384,43 @@ public class GuestWebController {
         return "redirect:/events/" + eventId + "/guests";
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'HOST')")
+    @GetMapping("/import")
+    public String importGuestsForm(@PathVariable Long eventId, Model model) {
+        Optional<WeddingEvent> eventOpt = weddingEventRepository.findById(eventId);
+        if (eventOpt.isEmpty()) {
+            return "redirect:/events";
+        }
+        model.addAttribute("event", eventOpt.get());
+        return "guest_import";
+    }
+
+    /**
+     * Bulk import guests from a CSV or XLSX file
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'HOST')")
+    @PostMapping("/import")
+    public String importGuests(@PathVariable Long eventId,
+                               @RequestParam("file") MultipartFile file,
+                               Model model) {
+        Optional<WeddingEvent> eventOpt = weddingEventRepository.findById(eventId);
+        if (eventOpt.isEmpty()) {
+            return "redirect:/events";
+        }
+        model.addAttribute("event", eventOpt.get());
+        if (file == null || file.isEmpty()) {
+            model.addAttribute("error", "Choose a CSV or XLSX file to import");
+            return "guest_import";
+        }
+        try {
+            GuestImportResult result = guestImportService.importGuests(eventId, file);
+            model.addAttribute("result", result);
+        } catch (IllegalArgumentException | IOException e) {
+            model.addAttribute("error", "Could not read the file: " + e.getMessage());
+        }
+        return "guest_import";
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'HOST')")
     @PostMapping("/{guestId}/delete")
     public String deleteGuest(@PathVariable Long eventId, @PathVariable Long guestId) {
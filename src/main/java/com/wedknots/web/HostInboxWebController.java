@@ -2,6 +2,7 @@ package com.wedknots.web;
 
 import com.wedknots.model.GuestMessage;
 import com.wedknots.model.WeddingEvent;
+import com.wedknots.service.InboxPushService;
 import com.wedknots.service.MessageService;
 import com.wedknots.repository.WeddingEventRepository;
 import org.slf4j.Logger;
@@ -10,9 +11,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.*;
@@ -32,6 +38,9 @@ public class HostInboxWebController {
     @Autowired
     private WeddingEventRepository weddingEventRepository;
 
+    @Autowired
+    private InboxPushService inboxPushService;
+
     /**
      * Display inbox for a specific event
      */
@@ -52,7 +61,7 @@ public class HostInboxWebController {
 
             // Apply filter
             if ("unread".equals(filter)) {
-                List<GuestMessage> unread = messageService.getUnreadMessages(eventId);
+                List<GuestMessage> unread = messageService.getUnreadInboundMessages(eventId);
                 messages = convertListToPage(unread, pageable);
             } else if ("inbound".equals(filter)) {
                 messages = messageService.getInboundMessages(eventId, pageable);
@@ -68,9 +77,10 @@ public class HostInboxWebController {
             model.addAttribute("groupedMessages", groupedData.get("grouped"));
             model.addAttribute("guestMessageCounts", groupedData.get("counts"));
             model.addAttribute("currentFilter", filter != null ? filter : "all");
-            model.addAttribute("unreadCount", messageService.getUnreadCount(eventId));
-            model.addAttribute("totalCount", messageService.getEventMessageStats(eventId).get("totalMessages"));
-            model.addAttribute("messageStats", messageService.getEventMessageStats(eventId));
+            Map<String, Object> messageStats = messageService.getEventMessageStats(eventId);
+            model.addAttribute("unreadCount", messageStats.get("unreadMessages"));
+            model.addAttribute("totalCount", messageStats.get("totalMessages"));
+            model.addAttribute("messageStats", messageStats);
 
             return "inbox/event_inbox";
 
@@ -223,6 +233,18 @@ public class HostInboxWebController {
         }
     }
 
+    /**
+     * Server-sent stream of inbox updates for an event, the fallback when WebSocket is unavailable
+     */
+    @GetMapping(value = "/events/{eventId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamInboxUpdates(@PathVariable Long eventId, Authentication authentication) {
+        if (!inboxPushService.canAccess(authentication, eventId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+        }
+        return inboxPushService.subscribe(eventId);
+    }
+
     /**
      * Get unread message count for an event (AJAX)
      */
@@ -8,6 +8,7 @@ import com.wedknots.repository.GuestRepository;
 import com.wedknots.repository.WeddingEventRepository;
 import com.wedknots.service.InvitationLogService;
 import com.wedknots.service.InvitationService;
+import com.wedknots.service.MediaStoreService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,7 +21,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -46,6 +46,9 @@ public class InvitationWebController {
     @Autowired
     private GuestRepository guestRepository;
 
+    @Autowired
+    private MediaStoreService mediaStoreService;
+
     @PreAuthorize("hasAnyRole('ADMIN', 'HOST')")
     @GetMapping
     public String listInvitations(@PathVariable Long eventId, Model model) {
@@ -92,12 +95,9 @@ public class InvitationWebController {
         String username = auth.getName();
 
         try {
-            // If a file is uploaded, override imageUrl with data URI
+            // If a file is uploaded, override imageUrl with a media store reference
             if (imageFile != null && !imageFile.isEmpty()) {
-                byte[] bytes = imageFile.getBytes();
-                String contentType = imageFile.getContentType() != null ? imageFile.getContentType() : "image/png";
-                String dataUri = "data:" + contentType + ";base64," + Base64.getEncoder().encodeToString(bytes);
-                invitation.setImageUrl(dataUri);
+                invitation.setImageUrl(mediaStoreService.store(imageFile));
             }
 
             invitationService.createInvitation(eventId, invitation, username);
@@ -139,10 +139,7 @@ public class InvitationWebController {
         try {
             // If a new file is uploaded, override imageUrl; otherwise keep existing imageUrl
             if (imageFile != null && !imageFile.isEmpty()) {
-                byte[] bytes = imageFile.getBytes();
-                String contentType = imageFile.getContentType() != null ? imageFile.getContentType() : "image/png";
-                String dataUri = "data:" + contentType + ";base64," + Base64.getEncoder().encodeToString(bytes);
-                invitation.setImageUrl(dataUri);
+                invitation.setImageUrl(mediaStoreService.store(imageFile));
             }
 
             invitationService.updateInvitation(invitationId, invitation);
@@ -1,16 +1,12 @@
 package com.wedknots.web;
 
-import com.wedknots.model.EventTrafficLog;
-import com.wedknots.model.WeddingEvent;
-import com.wedknots.repository.EventTrafficLogRepository;
-import com.wedknots.repository.WeddingEventRepository;
+import com.wedknots.service.TrafficLogWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.time.LocalDateTime;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -20,10 +16,7 @@ public class TrafficLoggingInterceptor implements HandlerInterceptor {
     private static final Pattern EVENT_ID_IN_PATH = Pattern.compile("/events/([0-9]+)(/.*)?");
 
     @Autowired
-    private WeddingEventRepository eventRepository;
-
-    @Autowired
-    private EventTrafficLogRepository trafficRepository;
+    private TrafficLogWriter trafficLogWriter;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -31,16 +24,8 @@ public class TrafficLoggingInterceptor implements HandlerInterceptor {
         Matcher m = EVENT_ID_IN_PATH.matcher(uri);
         if (m.find()) {
             try {
-                Long eventId = Long.valueOf(m.group(1));
-                WeddingEvent event = eventRepository.findById(eventId).orElse(null);
-                if (event != null) {
-                    EventTrafficLog log = EventTrafficLog.builder()
-                            .event(event)
-                            .path(uri)
-                            .createdAt(LocalDateTime.now())
-                            .build();
-                    trafficRepository.save(log);
-                }
+                // Buffered and written in batches in the background; unknown events are dropped there
+                trafficLogWriter.record(Long.parseLong(m.group(1)), uri);
             } catch (NumberFormatException ignored) {
                 // Ignore malformed event IDs
             }
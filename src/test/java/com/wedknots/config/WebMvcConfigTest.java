@@ -0,0 +1,169 @@
+package com.wedknots.config;
+
+import com.wedknots.model.Guest;
+import com.wedknots.model.Invitation;
+import com.wedknots.model.InvitationLog;
+import com.wedknots.model.WeddingEvent;
+import com.wedknots.repository.InvitationLogRepository;
+import com.wedknots.service.EventStatsCache;
+import com.wedknots.service.GuestPhoneDirectory;
+import com.wedknots.service.GuestProfileCache;
+import com.wedknots.service.MessageStatsCache;
+import com.wedknots.web.GuestContextArgumentResolver;
+import com.wedknots.web.TrafficLoggingInterceptor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Open session in view is registered by WebMvcConfig for every path except the guest read pages
+ * On an excluded path a lazy load after the handler's query fails; elsewhere it still works.
+ * Runs without a test transaction, so the only session a request can see is the one in view.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WebMvcConfigTest {
+
+    @Autowired
+    private InvitationLogRepository invitationLogRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private EventStatsCache eventStatsCache;
+
+    @MockitoBean
+    private GuestPhoneDirectory guestPhoneDirectory;
+
+    @MockitoBean
+    private GuestProfileCache guestProfileCache;
+
+    @MockitoBean
+    private MessageStatsCache messageStatsCache;
+
+    private MockMvc mockMvc;
+    private Long invitationLogId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        invitationLogId = new TransactionTemplate(transactionManager).execute(tx -> persistInvitationLog());
+
+        TrafficLoggingInterceptor trafficLoggingInterceptor = mock(TrafficLoggingInterceptor.class);
+        when(trafficLoggingInterceptor.preHandle(any(), any(), any())).thenReturn(true);
+        WebMvcConfig config = new WebMvcConfig();
+        ReflectionTestUtils.setField(config, "trafficLoggingInterceptor", trafficLoggingInterceptor);
+        ReflectionTestUtils.setField(config, "guestContextArgumentResolver", mock(GuestContextArgumentResolver.class));
+        ReflectionTestUtils.setField(config, "entityManagerFactory", entityManagerFactory);
+
+        // The registered interceptors keep their include and exclude patterns
+        CapturingRegistry registry = new CapturingRegistry();
+        config.addInterceptors(registry);
+        mockMvc = MockMvcBuilders.standaloneSetup(new LazyProbeController(invitationLogRepository))
+                .addInterceptors(registry.handlerInterceptors())
+                .build();
+    }
+
+    @Test
+    void lazyLoadFailsOnGuestReadPage() {
+        assertThatThrownBy(() -> mockMvc.perform(get("/invitations/" + invitationLogId)))
+                .hasRootCauseInstanceOf(LazyInitializationException.class);
+    }
+
+    @Test
+    void lazyLoadWorksWhereSessionIsOpenInView() throws Exception {
+        mockMvc.perform(get("/admin/probe/" + invitationLogId))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Save the date"));
+    }
+
+    private Long persistInvitationLog() {
+        WeddingEvent event = WeddingEvent.builder()
+                .name("Test Wedding")
+                .subdomain("osiv-" + UUID.randomUUID().toString().substring(0, 8))
+                .build();
+        entityManager.persist(event);
+        Guest guest = Guest.builder()
+                .familyName("Family")
+                .contactFirstName("First")
+                .contactLastName("Last")
+                .maxAttendees(2)
+                .event(event)
+                .phoneNumbers(new ArrayList<>())
+                .build();
+        entityManager.persist(guest);
+        Invitation invitation = Invitation.builder()
+                .event(event)
+                .title("Save the date")
+                .build();
+        entityManager.persist(invitation);
+        InvitationLog log = InvitationLog.builder()
+                .invitation(invitation)
+                .guest(guest)
+                .build();
+        entityManager.persist(log);
+        return log.getId();
+    }
+
+    /**
+     * Reads the invitation title through the lazy association, as a template would
+     */
+    @RestController
+    static class LazyProbeController {
+        private final InvitationLogRepository invitationLogRepository;
+
+        LazyProbeController(InvitationLogRepository invitationLogRepository) {
+            this.invitationLogRepository = invitationLogRepository;
+        }
+
+        @GetMapping({"/invitations/{id}", "/admin/probe/{id}"})
+        public String title(@PathVariable Long id) {
+            return invitationLogRepository.findById(id).orElseThrow().getInvitation().getTitle();
+        }
+    }
+
+    private static class CapturingRegistry extends InterceptorRegistry {
+        HandlerInterceptor[] handlerInterceptors() {
+            List<Object> interceptors = getInterceptors();
+            return interceptors.stream().map(HandlerInterceptor.class::cast).toArray(HandlerInterceptor[]::new);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.wedknots.repository;
+
+import com.wedknots.model.Guest;
+import com.wedknots.model.GuestMessage;
+import com.wedknots.model.WeddingEvent;
+import com.wedknots.service.EventStatsCache;
+import com.wedknots.service.GuestPhoneDirectory;
+import com.wedknots.service.GuestProfileCache;
+import com.wedknots.service.MessageStatsCache;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset pages of the host inbox conversation list
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class GuestMessageRepositoryTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 6, 1, 12, 0);
+
+    @Autowired
+    private GuestMessageRepository guestMessageRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private EventStatsCache eventStatsCache;
+
+    @MockitoBean
+    private GuestPhoneDirectory guestPhoneDirectory;
+
+    @MockitoBean
+    private GuestProfileCache guestProfileCache;
+
+    @MockitoBean
+    private MessageStatsCache messageStatsCache;
+
+    private Long eventId;
+    private Long asha;
+    private Long ravi;
+    private Long meera;
+
+    @BeforeEach
+    void setUp() {
+        WeddingEvent event = persistEvent("test-wedding");
+        WeddingEvent otherEvent = persistEvent("other-wedding");
+        Guest ashaGuest = persistGuest(event, "Asha");
+        Guest raviGuest = persistGuest(event, "Ravi");
+        Guest meeraGuest = persistGuest(event, "Meera");
+        persistGuest(event, "Silent");
+        Guest otherGuest = persistGuest(otherEvent, "Other");
+
+        // Ravi and Meera tie on their latest time; the guest id breaks the tie
+        persistMessage(event, ashaGuest, GuestMessage.MessageDirection.INBOUND, false, "asha 1", BASE);
+        persistMessage(event, ashaGuest, GuestMessage.MessageDirection.INBOUND, false, "asha 2", BASE.plusMinutes(1));
+        persistMessage(event, ashaGuest, GuestMessage.MessageDirection.OUTBOUND, false, "asha reply", BASE.plusMinutes(2));
+        persistMessage(event, raviGuest, GuestMessage.MessageDirection.INBOUND, true, "ravi 1", BASE.plusMinutes(5));
+        persistMessage(event, meeraGuest, GuestMessage.MessageDirection.INBOUND, false, "meera 1", BASE.plusMinutes(5));
+        persistMessage(otherEvent, otherGuest, GuestMessage.MessageDirection.INBOUND, false, "other", BASE.plusMinutes(9));
+        entityManager.flush();
+        entityManager.clear();
+
+        eventId = event.getId();
+        asha = ashaGuest.getId();
+        ravi = raviGuest.getId();
+        meera = meeraGuest.getId();
+    }
+
+    @Test
+    void firstPageIsNewestConversationFirst() {
+        List<Object[]> rows = guestMessageRepository.findConversationSummaries(eventId, 10);
+
+        Long later = Math.max(ravi, meera);
+        Long earlier = Math.min(ravi, meera);
+        assertThat(rows).extracting(row -> ((Number) row[0]).longValue()).containsExactly(later, earlier, asha);
+
+        Object[] ashaRow = rows.get(2);
+        assertThat(ashaRow[3]).isEqualTo("asha reply");
+        assertThat(((Number) ashaRow[4]).longValue()).isEqualTo(2);
+        assertThat(ashaRow[5]).isEqualTo("Asha");
+    }
+
+    @Test
+    void keysetPagesContinueAfterTheCursor() {
+        List<Object[]> first = guestMessageRepository.findConversationSummaries(eventId, 1);
+        assertThat(first).hasSize(1);
+        Object[] last = first.get(0);
+
+        List<Object[]> rest = guestMessageRepository.findConversationSummariesAfter(eventId,
+                toLocalDateTime(last[2]), ((Number) last[0]).longValue(), 10);
+
+        assertThat(rest).extracting(row -> ((Number) row[0]).longValue())
+                .containsExactly(Math.min(ravi, meera), asha);
+        assertThat(rest).extracting(row -> ((Number) row[4]).longValue())
+                .containsExactly(ravi < meera ? 0L : 1L, 2L);
+    }
+
+    private WeddingEvent persistEvent(String subdomain) {
+        WeddingEvent event = WeddingEvent.builder()
+                .name(subdomain)
+                .subdomain(subdomain)
+                .build();
+        entityManager.persist(event);
+        return event;
+    }
+
+    private Guest persistGuest(WeddingEvent event, String firstName) {
+        Guest guest = Guest.builder()
+                .familyName("Family " + firstName)
+                .contactFirstName(firstName)
+                .contactLastName("Guest")
+                .maxAttendees(2)
+                .event(event)
+                .phoneNumbers(new ArrayList<>())
+                .build();
+        entityManager.persist(guest);
+        return guest;
+    }
+
+    private void persistMessage(WeddingEvent event, Guest guest, GuestMessage.MessageDirection direction,
+                                boolean read, String content, LocalDateTime createdAt) {
+        GuestMessage message = GuestMessage.builder()
+                .event(event)
+                .guest(guest)
+                .guestPhoneNumber("9876543210")
+                .direction(direction)
+                .isRead(read)
+                .messageContent(content)
+                .build();
+        entityManager.persist(message);
+        entityManager.flush();
+        // created_at is stamped on persist; set the time the test needs
+        entityManager.createNativeQuery("UPDATE guest_message_tbl SET created_at = ? WHERE id = ?")
+                .setParameter(1, createdAt)
+                .setParameter(2, message.getId())
+                .executeUpdate();
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,174 @@
+package com.wedknots.repository;
+
+import com.wedknots.dto.GuestInvitationSummary;
+import com.wedknots.model.Attendee;
+import com.wedknots.model.Guest;
+import com.wedknots.model.Invitation;
+import com.wedknots.model.InvitationLog;
+import com.wedknots.model.ModeOfTravel;
+import com.wedknots.model.RSVP;
+import com.wedknots.model.RSVPStatus;
+import com.wedknots.model.TravelInfo;
+import com.wedknots.model.WeddingEvent;
+import com.wedknots.service.EventStatsCache;
+import com.wedknots.service.GuestPhoneDirectory;
+import com.wedknots.service.GuestProfileCache;
+import com.wedknots.service.MessageStatsCache;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The guest dashboard and invitation pages read everything they render in one statement
+ * Every association the templates touch is read after the query and must not add statements.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class GuestReadModelTest {
+    private static final int EVENTS = 2;
+    private static final int INVITATIONS_PER_EVENT = 3;
+    private static final int ATTENDEES = 2;
+
+    @Autowired
+    private InvitationLogRepository invitationLogRepository;
+
+    @Autowired
+    private InvitationRepository invitationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private EventStatsCache eventStatsCache;
+
+    @MockitoBean
+    private GuestPhoneDirectory guestPhoneDirectory;
+
+    @MockitoBean
+    private GuestProfileCache guestProfileCache;
+
+    @MockitoBean
+    private MessageStatsCache messageStatsCache;
+
+    private Long guestId;
+    private Long firstEventId;
+    private Long invitationId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Guest guest = null;
+        for (int e = 0; e < EVENTS; e++) {
+            WeddingEvent event = WeddingEvent.builder()
+                    .name("Wedding " + e)
+                    .subdomain("wedding-" + e)
+                    .build();
+            entityManager.persist(event);
+            if (guest == null) {
+                guest = persistGuest(event);
+                firstEventId = event.getId();
+            }
+            for (int i = 0; i < INVITATIONS_PER_EVENT; i++) {
+                Invitation invitation = Invitation.builder()
+                        .event(event)
+                        .title("Invitation " + e + "-" + i)
+                        .message("Please join us")
+                        .build();
+                entityManager.persist(invitation);
+                entityManager.persist(InvitationLog.builder()
+                        .invitation(invitation)
+                        .guest(guest)
+                        .build());
+                invitationId = invitation.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        guestId = guest.getId();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void dashboardIsOneStatement() {
+        List<InvitationLog> logs = invitationLogRepository.findForGuestDashboard(guestId);
+
+        assertThat(logs).hasSize(EVENTS * INVITATIONS_PER_EVENT);
+        for (InvitationLog log : logs) {
+            assertThat(log.getInvitation().getEvent().getName()).startsWith("Wedding");
+            assertThat(log.getGuest().getRsvp().getAttendees()).hasSize(ATTENDEES);
+            assertThat(log.getGuest().getTravelInfo().getArrivalMode()).isEqualTo(ModeOfTravel.TRAIN);
+        }
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void invitationViewIsOneStatement() {
+        Optional<InvitationLog> log = invitationLogRepository.findForGuestView(invitationId, guestId);
+
+        assertThat(log).isPresent();
+        assertThat(log.get().getInvitation().getTitle()).isNotBlank();
+        assertThat(log.get().getInvitation().getEvent().getName()).startsWith("Wedding");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void invitationSummariesAreOneStatementWithoutEntities() {
+        List<GuestInvitationSummary> all = invitationRepository.findGuestInvitationSummaries(guestId, null);
+        assertThat(all).hasSize(EVENTS * INVITATIONS_PER_EVENT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        List<GuestInvitationSummary> oneEvent = invitationRepository.findGuestInvitationSummaries(guestId, firstEventId);
+        assertThat(oneEvent).hasSize(INVITATIONS_PER_EVENT);
+        assertThat(oneEvent).allSatisfy(summary -> assertThat(summary.getEventId()).isEqualTo(firstEventId));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private Guest persistGuest(WeddingEvent event) {
+        Guest guest = Guest.builder()
+                .familyName("Family")
+                .contactFirstName("First")
+                .contactLastName("Last")
+                .primaryPhoneNumber("9876500001")
+                .maxAttendees(ATTENDEES)
+                .event(event)
+                .phoneNumbers(new ArrayList<>())
+                .build();
+        entityManager.persist(guest);
+
+        RSVP rsvp = RSVP.builder()
+                .guest(guest)
+                .eventId(event.getId())
+                .status(RSVPStatus.ATTENDING)
+                .attendeeCount(ATTENDEES)
+                .build();
+        for (int a = 0; a < ATTENDEES; a++) {
+            rsvp.getAttendees().add(Attendee.builder()
+                    .name("Attendee " + a)
+                    .rsvp(rsvp)
+                    .build());
+        }
+        entityManager.persist(rsvp);
+        entityManager.persist(TravelInfo.builder()
+                .guest(guest)
+                .arrivalMode(ModeOfTravel.TRAIN)
+                .build());
+        return guest;
+    }
+}
@@ -0,0 +1,116 @@
+package com.wedknots.repository;
+
+import com.wedknots.dto.GuestSummary;
+import com.wedknots.model.Guest;
+import com.wedknots.model.GuestPhoneNumber;
+import com.wedknots.model.WeddingEvent;
+import com.wedknots.service.EventStatsCache;
+import com.wedknots.service.GuestPhoneDirectory;
+import com.wedknots.service.GuestProfileCache;
+import com.wedknots.service.MessageStatsCache;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The admin guest list page must cost a fixed number of statements, whatever the guest count
+ * Schema comes from the entities; the caches behind the entity listeners are mocked.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class GuestRepositoryTest {
+    private static final int GUESTS = 30;
+    private static final int PHONES_PER_GUEST = 2;
+
+    @Autowired
+    private GuestRepository guestRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private EventStatsCache eventStatsCache;
+
+    @MockitoBean
+    private GuestPhoneDirectory guestPhoneDirectory;
+
+    @MockitoBean
+    private GuestProfileCache guestProfileCache;
+
+    @MockitoBean
+    private MessageStatsCache messageStatsCache;
+
+    private Long eventId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        WeddingEvent event = WeddingEvent.builder()
+                .name("Test Wedding")
+                .subdomain("test-wedding")
+                .build();
+        entityManager.persist(event);
+
+        for (int i = 0; i < GUESTS; i++) {
+            Guest guest = Guest.builder()
+                    .familyName(String.format("Family %02d", i))
+                    .contactFirstName("First" + i)
+                    .contactLastName("Last" + i)
+                    .primaryPhoneNumber("98765" + String.format("%05d", i))
+                    .maxAttendees(2)
+                    .event(event)
+                    .phoneNumbers(new ArrayList<>())
+                    .build();
+            for (int p = 0; p < PHONES_PER_GUEST; p++) {
+                guest.getPhoneNumbers().add(GuestPhoneNumber.builder()
+                        .guest(guest)
+                        .eventId(event.getId())
+                        .phoneNumber("91234" + String.format("%03d%02d", i, p))
+                        .build());
+            }
+            entityManager.persist(guest);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        eventId = event.getId();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void summaryPageIsOneQueryForAllGuests() {
+        Page<GuestSummary> page = guestRepository.findSummariesByEventId(eventId, PageRequest.of(0, 50));
+
+        assertThat(page.getContent()).hasSize(GUESTS);
+        assertThat(page.getContent()).allSatisfy(summary -> assertThat(summary.phoneCount()).isEqualTo(PHONES_PER_GUEST));
+        assertThat(page.getContent().get(0).familyName()).isEqualTo("Family 00");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+
+    @Test
+    void partialSummaryPageAddsOnlyTheCountQuery() {
+        Page<GuestSummary> page = guestRepository.findSummariesByEventId(eventId, PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(GUESTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,92 @@
+package com.wedknots.repository;
+
+import com.wedknots.model.Guest;
+import com.wedknots.model.GuestPhoneNumber;
+import com.wedknots.model.WeddingEvent;
+import com.wedknots.service.EventStatsCache;
+import com.wedknots.service.GuestPhoneDirectory;
+import com.wedknots.service.GuestProfileCache;
+import com.wedknots.service.MessageStatsCache;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guests and their phone numbers take ids from pooled sequences, so a flush sends their inserts in JDBC batches
+ * Unbatched (or with IDENTITY ids) every row would prepare its own statement.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+class InsertBatchingTest {
+    private static final int GUESTS = 100;
+    private static final int PHONES_PER_GUEST = 2;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private EventStatsCache eventStatsCache;
+
+    @MockitoBean
+    private GuestPhoneDirectory guestPhoneDirectory;
+
+    @MockitoBean
+    private GuestProfileCache guestProfileCache;
+
+    @MockitoBean
+    private MessageStatsCache messageStatsCache;
+
+    @Test
+    void flushBatchesGuestAndPhoneInserts() {
+        WeddingEvent event = WeddingEvent.builder()
+                .name("Test Wedding")
+                .subdomain("test-wedding")
+                .build();
+        entityManager.persist(event);
+        entityManager.flush();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        for (int i = 0; i < GUESTS; i++) {
+            Guest guest = Guest.builder()
+                    .familyName(String.format("Family %03d", i))
+                    .contactFirstName("First" + i)
+                    .contactLastName("Last" + i)
+                    .primaryPhoneNumber("98765" + String.format("%05d", i))
+                    .maxAttendees(2)
+                    .event(event)
+                    .phoneNumbers(new ArrayList<>())
+                    .build();
+            for (int p = 0; p < PHONES_PER_GUEST; p++) {
+                guest.getPhoneNumbers().add(GuestPhoneNumber.builder()
+                        .guest(guest)
+                        .eventId(event.getId())
+                        .phoneNumber("91234" + String.format("%03d%02d", i, p))
+                        .build());
+            }
+            entityManager.persist(guest);
+        }
+        entityManager.flush();
+
+        int rows = GUESTS * (1 + PHONES_PER_GUEST);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(rows);
+        // One statement per batch of each table, plus a few sequence calls per block of ids
+        int batches = GUESTS / BATCH_SIZE + GUESTS * PHONES_PER_GUEST / BATCH_SIZE;
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3L * batches);
+    }
+}
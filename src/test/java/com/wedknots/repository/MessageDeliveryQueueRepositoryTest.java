@@ -0,0 +1,91 @@
+package com.wedknots.repository;
+
+import com.wedknots.model.MessageDeliveryQueue;
+import com.wedknots.service.EventStatsCache;
+import com.wedknots.service.GuestPhoneDirectory;
+import com.wedknots.service.GuestProfileCache;
+import com.wedknots.service.MessageStatsCache;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Expired delivery claims go back to the queue in the state they were claimed from
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class MessageDeliveryQueueRepositoryTest {
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private MessageDeliveryQueueRepository queueRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private EventStatsCache eventStatsCache;
+
+    @MockitoBean
+    private GuestPhoneDirectory guestPhoneDirectory;
+
+    @MockitoBean
+    private GuestProfileCache guestProfileCache;
+
+    @MockitoBean
+    private MessageStatsCache messageStatsCache;
+
+    @Test
+    void expiredClaimsReturnToPendingOrRetry() {
+        LocalDateTime backoffUntil = NOW.plusMinutes(10);
+        Long firstAttempt = persistClaim("first", 0, null, NOW.minusMinutes(1));
+        Long retried = persistClaim("retried", 2, backoffUntil, NOW.minusMinutes(1));
+        Long retriedWithoutBackoff = persistClaim("retried-no-backoff", 1, null, null);
+        Long live = persistClaim("live", 1, backoffUntil, NOW.plusMinutes(5));
+
+        int released = queueRepository.releaseExpiredClaims(NOW);
+        entityManager.clear();
+
+        assertThat(released).isEqualTo(3);
+        MessageDeliveryQueue pending = entityManager.find(MessageDeliveryQueue.class, firstAttempt);
+        assertThat(pending.getStatus()).isEqualTo("PENDING");
+        assertThat(pending.getClaimedBy()).isNull();
+        assertThat(pending.getLeaseExpiresAt()).isNull();
+
+        MessageDeliveryQueue retry = entityManager.find(MessageDeliveryQueue.class, retried);
+        assertThat(retry.getStatus()).isEqualTo("RETRY");
+        assertThat(retry.getNextRetryAt()).isEqualTo(backoffUntil);
+        assertThat(retry.getClaimedBy()).isNull();
+
+        MessageDeliveryQueue dueNow = entityManager.find(MessageDeliveryQueue.class, retriedWithoutBackoff);
+        assertThat(dueNow.getStatus()).isEqualTo("RETRY");
+        assertThat(dueNow.getNextRetryAt()).isEqualTo(NOW);
+
+        MessageDeliveryQueue stillClaimed = entityManager.find(MessageDeliveryQueue.class, live);
+        assertThat(stillClaimed.getStatus()).isEqualTo("PROCESSING");
+        assertThat(stillClaimed.getClaimedBy()).isEqualTo("node-a");
+    }
+
+    private Long persistClaim(String messageId, int retryCount, LocalDateTime nextRetryAt, LocalDateTime leaseExpiresAt) {
+        MessageDeliveryQueue message = new MessageDeliveryQueue();
+        message.setMessageId(messageId);
+        message.setStatus("PROCESSING");
+        message.setRetryCount(retryCount);
+        message.setNextRetryAt(nextRetryAt);
+        message.setClaimedBy("node-a");
+        message.setLeaseExpiresAt(leaseExpiresAt);
+        message.setProcessingStartedAt(NOW.minusMinutes(30));
+        entityManager.persist(message);
+        entityManager.flush();
+        return message.getId();
+    }
+}
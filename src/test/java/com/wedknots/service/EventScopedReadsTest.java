@@ -0,0 +1,143 @@
+package com.wedknots.service;
+
+import com.wedknots.model.Guest;
+import com.wedknots.model.ModeOfTravel;
+import com.wedknots.model.TravelInfo;
+import com.wedknots.model.WeddingEvent;
+import com.wedknots.web.AdminGuestController;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.ui.ExtendedModelMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Event pages read only the rows of their own event, through the service and controller paths
+ * A second event with its own guests and travel records must never be loaded.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({GuestService.class, TravelInfoService.class, AdminGuestController.class})
+class EventScopedReadsTest {
+    private static final int GUESTS = 12;
+    private static final int OTHER_GUESTS = 20;
+    private static final int TRAVELLING = 5;
+
+    @Autowired
+    private GuestService guestService;
+
+    @Autowired
+    private TravelInfoService travelInfoService;
+
+    @Autowired
+    private AdminGuestController adminGuestController;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private EventStatsCache eventStatsCache;
+
+    @MockitoBean
+    private GuestPhoneDirectory guestPhoneDirectory;
+
+    @MockitoBean
+    private GuestProfileCache guestProfileCache;
+
+    @MockitoBean
+    private MessageStatsCache messageStatsCache;
+
+    private Long eventId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        WeddingEvent event = persistEvent("Test Wedding", "test-wedding", GUESTS, TRAVELLING);
+        persistEvent("Other Wedding", "other-wedding", OTHER_GUESTS, OTHER_GUESTS);
+        entityManager.flush();
+        entityManager.clear();
+
+        eventId = event.getId();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void guestsByEventLoadOnlyThatEventsGuests() {
+        List<Guest> guests = guestService.getGuestsByEventId(eventId);
+
+        assertThat(guests).hasSize(GUESTS);
+        assertThat(loads(Guest.class)).isEqualTo(GUESTS);
+        assertThat(loads(TravelInfo.class)).isLessThanOrEqualTo(TRAVELLING);
+        assertThat(loads(WeddingEvent.class)).isZero();
+    }
+
+    @Test
+    void adminGuestListLoadsNoGuestEntities() {
+        ExtendedModelMap model = new ExtendedModelMap();
+
+        String view = adminGuestController.listGuests(eventId, 0, 50, model);
+
+        assertThat(view).isEqualTo("admin_event_guests");
+        assertThat((List<?>) model.getAttribute("guests")).hasSize(GUESTS);
+        assertThat(loads(Guest.class)).isZero();
+        assertThat(loads(TravelInfo.class)).isZero();
+        assertThat(loads(WeddingEvent.class)).isEqualTo(1);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+
+    @Test
+    void travelInfoByEventLoadsOnlyThatEventsRecords() {
+        List<TravelInfo> travel = travelInfoService.getTravelInfoByEvent(eventId);
+
+        assertThat(travel).hasSize(TRAVELLING);
+        assertThat(travel).allSatisfy(info -> assertThat(info.getGuest().getEvent().getId()).isEqualTo(eventId));
+        assertThat(loads(TravelInfo.class)).isEqualTo(TRAVELLING);
+        assertThat(loads(Guest.class)).isEqualTo(TRAVELLING);
+    }
+
+    private long loads(Class<?> entity) {
+        return statistics.getEntityStatistics(entity.getName()).getLoadCount();
+    }
+
+    private WeddingEvent persistEvent(String name, String subdomain, int guests, int travelling) {
+        WeddingEvent event = WeddingEvent.builder()
+                .name(name)
+                .subdomain(subdomain)
+                .build();
+        entityManager.persist(event);
+
+        for (int i = 0; i < guests; i++) {
+            Guest guest = Guest.builder()
+                    .familyName(String.format("Family %02d", i))
+                    .contactFirstName("First" + i)
+                    .contactLastName("Last" + i)
+                    .primaryPhoneNumber(String.format("9%04d%05d", event.getId(), i))
+                    .maxAttendees(2)
+                    .event(event)
+                    .phoneNumbers(new ArrayList<>())
+                    .build();
+            entityManager.persist(guest);
+            if (i < travelling) {
+                entityManager.persist(TravelInfo.builder()
+                        .guest(guest)
+                        .arrivalMode(ModeOfTravel.FLIGHT)
+                        .build());
+            }
+        }
+        return event;
+    }
+}
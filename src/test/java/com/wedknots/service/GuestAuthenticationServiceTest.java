@@ -0,0 +1,53 @@
+package com.wedknots.service;
+
+import com.wedknots.model.Guest;
+import com.wedknots.repository.GuestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GuestAuthenticationServiceTest {
+    private GuestAuthenticationService service;
+    private GuestRepository guestRepository;
+    private GuestPhoneIndexBackfill guestPhoneIndexBackfill;
+
+    @BeforeEach
+    void setUp() {
+        guestRepository = mock(GuestRepository.class);
+        GuestPhoneDirectory guestPhoneDirectory = mock(GuestPhoneDirectory.class);
+        when(guestPhoneDirectory.findGuestForLogin(anyString(), anyString())).thenReturn(Optional.empty());
+        guestPhoneIndexBackfill = mock(GuestPhoneIndexBackfill.class);
+
+        service = new GuestAuthenticationService();
+        ReflectionTestUtils.setField(service, "guestRepository", guestRepository);
+        ReflectionTestUtils.setField(service, "guestPhoneDirectory", guestPhoneDirectory);
+        ReflectionTestUtils.setField(service, "guestPhoneIndexBackfill", guestPhoneIndexBackfill);
+    }
+
+    @Test
+    void unindexedNumbersLogInWithTheExactStoredString() {
+        Guest legacy = Guest.builder().id(7L).familyName("Sharma").build();
+        when(guestPhoneIndexBackfill.hasUnindexedPhones()).thenReturn(true);
+        when(guestRepository.findByNameAndUnindexedPhone("Sharma", "98765-432")).thenReturn(List.of(legacy));
+
+        assertThat(service.getGuestForAuthentication(" Sharma ", "98765-432 ")).contains(legacy);
+    }
+
+    @Test
+    void noFallbackQueryOnceEveryNumberIsIndexed() {
+        when(guestPhoneIndexBackfill.hasUnindexedPhones()).thenReturn(false);
+
+        assertThat(service.getGuestForAuthentication("Sharma", "98765-432")).isEmpty();
+        verify(guestRepository, never()).findByNameAndUnindexedPhone(anyString(), anyString());
+    }
+}
@@ -0,0 +1,136 @@
+package com.wedknots.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class GuestLoginThrottleTest {
+    private static final String PROXY = "10.0.0.1";
+    private static final int MAX_FAILURES_PER_IP = 10;
+
+    private GuestLoginThrottle throttle;
+    private AccessAuditService accessAuditService;
+
+    @BeforeEach
+    void setUp() {
+        GuestPhoneDirectory guestPhoneDirectory = mock(GuestPhoneDirectory.class);
+        when(guestPhoneDirectory.normalize(anyString()))
+                .thenAnswer(invocation -> "+91" + invocation.getArgument(0, String.class).replaceAll("\\D", ""));
+        accessAuditService = mock(AccessAuditService.class);
+
+        throttle = new GuestLoginThrottle("10\\.0\\.0\\.1");
+        ReflectionTestUtils.setField(throttle, "guestPhoneDirectory", guestPhoneDirectory);
+        ReflectionTestUtils.setField(throttle, "accessAuditService", accessAuditService);
+        ReflectionTestUtils.setField(throttle, "windowSeconds", 600L);
+        ReflectionTestUtils.setField(throttle, "maxFailuresPerIp", MAX_FAILURES_PER_IP);
+        ReflectionTestUtils.setField(throttle, "freeFailures", 3);
+        ReflectionTestUtils.setField(throttle, "baseDelaySeconds", 2L);
+        ReflectionTestUtils.setField(throttle, "maxDelaySeconds", 60L);
+        ReflectionTestUtils.setField(throttle, "banSeconds", 900L);
+        ReflectionTestUtils.setField(throttle, "maxKeys", 1000);
+    }
+
+    @Test
+    void delaysOnlyAfterTheFreeFailures() {
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("203.0.113.5", "98765 43210");
+        }
+        assertThat(throttle.check("203.0.113.5", "98765 43210").allowed()).isTrue();
+
+        throttle.recordFailure("203.0.113.5", "98765 43210");
+        GuestLoginThrottle.Decision decision = throttle.check("203.0.113.5", "98765 43210");
+
+        assertThat(decision.allowed()).isFalse();
+        assertThat(decision.retryAfterSeconds()).isEqualTo(2);
+        assertThat(decision.reason()).contains("delayed");
+    }
+
+    @Test
+    void successClearsTheStreak() {
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("203.0.113.5", "9876543210");
+        }
+        throttle.recordSuccess("203.0.113.5", "9876543210");
+        throttle.recordFailure("203.0.113.5", "9876543210");
+
+        assertThat(throttle.check("203.0.113.5", "9876543210").allowed()).isTrue();
+    }
+
+    @Test
+    void bansAnIpOverTheWindowLimit() {
+        for (int i = 0; i <= MAX_FAILURES_PER_IP; i++) {
+            throttle.recordFailure("203.0.113.5", "90000000" + String.format("%02d", i));
+        }
+
+        GuestLoginThrottle.Decision decision = throttle.check("203.0.113.5", "9111111111");
+
+        assertThat(decision.allowed()).isFalse();
+        assertThat(decision.reason()).contains("banned").contains("IP");
+        assertThat(decision.retryAfterSeconds()).isEqualTo(900);
+    }
+
+    @Test
+    void phoneKeysAreDelayedButNeverBanned() {
+        for (int i = 0; i < 3 * MAX_FAILURES_PER_IP; i++) {
+            throttle.recordFailure("198.51.100." + i, "9876543210");
+        }
+
+        GuestLoginThrottle.Decision decision = throttle.check("192.0.2.1", "9876543210");
+
+        assertThat(decision.allowed()).isFalse();
+        assertThat(decision.reason()).contains("delayed").contains("phone");
+        assertThat(decision.retryAfterSeconds()).isLessThanOrEqualTo(60);
+    }
+
+    @Test
+    void everySpellingOfANumberSharesOneKey() {
+        throttle.recordFailure("198.51.100.1", "9876543210");
+        throttle.recordFailure("198.51.100.2", "98765-43210");
+        throttle.recordFailure("198.51.100.3", "(98765) 43210");
+        throttle.recordFailure("198.51.100.4", " 98765 43210 ");
+
+        assertThat(throttle.check("192.0.2.1", "9876543210").allowed()).isFalse();
+    }
+
+    @Test
+    void trustedProxyAddressHasNoIpKey() {
+        for (int i = 0; i <= MAX_FAILURES_PER_IP; i++) {
+            throttle.recordFailure(PROXY, "90000000" + String.format("%02d", i));
+        }
+
+        assertThat(throttle.check(PROXY, "9111111111").allowed()).isTrue();
+    }
+
+    @Test
+    void flushesRejectionCountsPerClientAndReason() {
+        for (int i = 0; i < 4; i++) {
+            throttle.recordFailure("203.0.113.5", "9876543210");
+        }
+        GuestLoginThrottle.Decision decision = throttle.check("203.0.113.5", "9876543210");
+        throttle.check("203.0.113.5", "9876543210");
+
+        throttle.flushRejections();
+
+        verify(accessAuditService).logRejections(eq("/login/guest"), eq("POST"),
+                eq(List.of(new AccessAuditService.Rejection("203.0.113.5", decision.reason(), 2))));
+    }
+
+    @Test
+    void flushWithoutRejectionsWritesNothing() {
+        throttle.check("203.0.113.5", "9876543210");
+
+        throttle.flushRejections();
+
+        verifyNoInteractions(accessAuditService);
+    }
+}
@@ -0,0 +1,56 @@
+package com.wedknots.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledTemplateTest {
+
+    @Test
+    void listsDistinctVariablesInOrderOfFirstUse() {
+        CompiledTemplate template = CompiledTemplate.compile("Hi {{name}}, see you at {{ venue }} - {{name}}");
+
+        assertThat(template.getVariables()).containsExactly("name", "venue");
+    }
+
+    @Test
+    void rendersValuesAndLeavesMissingVariablesAsWritten() {
+        CompiledTemplate template = CompiledTemplate.compile("Dear {{name}}, {{ venue }} on {{date}}.");
+
+        String rendered = template.render(Map.of("name", "Asha", "venue", "Jaipur"));
+
+        assertThat(rendered).isEqualTo("Dear Asha, Jaipur on {{date}}.");
+    }
+
+    @Test
+    void resolvesEachVariableOnce() {
+        CompiledTemplate template = CompiledTemplate.compile("{{name}}{{name}} and {{name}} with {{guest}}");
+        List<String> calls = new ArrayList<>();
+
+        String rendered = template.render(variable -> {
+            calls.add(variable);
+            return variable.toUpperCase();
+        });
+
+        assertThat(rendered).isEqualTo("NAMENAME and NAME with GUEST");
+        assertThat(calls).containsExactly("name", "guest");
+    }
+
+    @Test
+    void doesNotExpandPlaceholdersInsideValues() {
+        CompiledTemplate template = CompiledTemplate.compile("{{a}} {{b}}");
+
+        assertThat(template.render(Map.of("a", "{{b}}", "b", "x"))).isEqualTo("{{b}} x");
+    }
+
+    @Test
+    void rendersTemplatesWithoutVariables() {
+        assertThat(CompiledTemplate.compile("Save the date!").render(Map.of())).isEqualTo("Save the date!");
+        assertThat(CompiledTemplate.compile("").render(Map.of())).isEmpty();
+        assertThat(CompiledTemplate.compile("{{}} stays").render(Map.of())).isEqualTo("{{}} stays");
+    }
+}
@@ -0,0 +1,46 @@
+package com.wedknots.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TemplateBindingsTest {
+
+    @Test
+    void roundTripsReservedAndNonAsciiCharacters() {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("name", "Asha & Ravi");
+        values.put("link", "https://example.com/i?a=1&b=2");
+        values.put("greeting", "नमस्ते 100% 🎉");
+        values.put("empty", "");
+
+        Map<String, String> decoded = TemplateBindings.decode(TemplateBindings.encode(values));
+
+        assertThat(decoded).containsExactlyEntriesOf(values);
+    }
+
+    @Test
+    void encodesInIterationOrder() {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("b", "2");
+        values.put("a", "1 1");
+
+        assertThat(TemplateBindings.encode(values)).isEqualTo("b=2&a=1+1");
+    }
+
+    @Test
+    void decodesNothingToAnEmptyMap() {
+        assertThat(TemplateBindings.decode(null)).isEmpty();
+        assertThat(TemplateBindings.decode("")).isEmpty();
+        assertThat(TemplateBindings.encode(Map.of())).isEmpty();
+    }
+
+    @Test
+    void decodesPairWithoutValueAsEmpty() {
+        assertThat(TemplateBindings.decode("name&venue=Jaipur"))
+                .containsExactly(Map.entry("name", ""), Map.entry("venue", "Jaipur"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.wedknots.template;
+
+import com.wedknots.model.Attendee;
+import com.wedknots.model.Guest;
+import com.wedknots.model.RSVP;
+import com.wedknots.model.WeddingEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Per-recipient rendering cost of an invitation template: the old regex and String.replace
+ * path against the compiled template used by TemplateVariableProcessor
+ * Not run by the test phase; start it with main() from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateRenderBenchmark {
+    private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{\\{([^}]+)\\}\\}");
+
+    private static final String TEMPLATE = """
+            Dear {{guest.name}},
+
+            With joy in our hearts, {{event.bride}} and {{event.groom}} invite the {{guest.family_name}} family
+            to celebrate their wedding on {{event.date}} at {{event.venue}}.
+
+            We have reserved seats for {{attendee.count}} guests: {{attendee.names}}.
+            Please confirm by replying to this message or visit https://{{event.subdomain}}.wedknots.com.
+
+            If your plans change, {{guest.first_name}}, just let us know. We can't wait to see you!
+            {{event.bride}} & {{event.groom}}
+            """;
+
+    private TemplateVariableProcessor processor;
+    private WeddingEvent event;
+    private Guest guest;
+
+    @Setup
+    public void setUp() {
+        processor = new TemplateVariableProcessor();
+        event = WeddingEvent.builder()
+                .name("Asha and Ravi")
+                .brideName("Asha")
+                .groomName("Ravi")
+                .date(LocalDate.of(2026, 12, 12))
+                .place("Jaipur City Palace")
+                .subdomain("asha-ravi")
+                .build();
+        guest = Guest.builder()
+                .familyName("Sharma")
+                .contactFirstName("Meera")
+                .contactLastName("Sharma")
+                .contactEmail("meera@example.com")
+                .primaryPhoneNumber("+919876543210")
+                .phoneNumbers(new ArrayList<>())
+                .build();
+        RSVP rsvp = RSVP.builder().guest(guest).build();
+        for (String name : new String[]{"Meera Sharma", "Vikram Sharma", "Anya Sharma"}) {
+            rsvp.getAttendees().add(Attendee.builder().name(name).rsvp(rsvp).build());
+        }
+        guest.setRsvp(rsvp);
+        // The compiled template is cached after the first render in production too
+        processor.process(TEMPLATE, event, guest);
+    }
+
+    /**
+     * Before: a map of every variable per recipient, then String.replace for each placeholder found
+     */
+    @Benchmark
+    public String regexReplace() {
+        Map<String, String> variables = processor.getAvailableVariables(event, guest);
+        String result = TEMPLATE;
+        Matcher matcher = VARIABLE_PATTERN.matcher(TEMPLATE);
+        while (matcher.find()) {
+            String replacement = variables.get(matcher.group(1).trim());
+            if (replacement != null) {
+                result = result.replace(matcher.group(0), replacement);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * After: the cached compiled template, resolving only the variables it references
+     */
+    @Benchmark
+    public String compiledTemplate() {
+        return processor.process(TEMPLATE, event, guest);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TemplateRenderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,72 @@
+package com.wedknots.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRowReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsPlainRowsWithLineNumbers() throws IOException {
+        try (CsvRowReader reader = reader("Family,First,Phone\nSharma,Asha,9876543210\n")) {
+            assertThat(reader.next()).containsExactly("Family", "First", "Phone");
+            assertThat(reader.rowNumber()).isEqualTo(1);
+            assertThat(reader.next()).containsExactly("Sharma", "Asha", "9876543210");
+            assertThat(reader.rowNumber()).isEqualTo(2);
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void handlesQuotedCommasQuotesAndLineBreaks() throws IOException {
+        try (CsvRowReader reader = reader("\"Sharma, Jr.\",\"says \"\"hi\"\"\",\"line one\nline two\"\n")) {
+            assertThat(reader.next()).containsExactly("Sharma, Jr.", "says \"hi\"", "line one\nline two");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void skipsByteOrderMarkAndAcceptsCrlf() throws IOException {
+        try (CsvRowReader reader = reader("\uFEFFa,b\r\nc,d\r\n")) {
+            assertThat(reader.next()).containsExactly("a", "b");
+            assertThat(reader.next()).containsExactly("c", "d");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void keepsEmptyCellsAndReadsLastRowWithoutNewline() throws IOException {
+        try (CsvRowReader reader = reader("a,,c,\nx,y")) {
+            assertThat(reader.next()).containsExactly("a", "", "c", "");
+            assertThat(reader.next()).containsExactly("x", "y");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() throws IOException {
+        try (CsvRowReader reader = reader("ok,row\n\"never closed,x\n")) {
+            assertThat(reader.next()).containsExactly("ok", "row");
+            assertThatThrownBy(reader::next)
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("row 2");
+        }
+    }
+
+    private CsvRowReader reader(String content) throws IOException {
+        Path file = dir.resolve("guests.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return new CsvRowReader(file);
+    }
+}
@@ -0,0 +1,87 @@
+package com.wedknots.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class XlsxRowReaderTest {
+    private static final String SHEET_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsSharedInlineNumericAndBooleanCells() throws IOException {
+        Path file = workbook(
+                "<sst xmlns=\"" + SHEET_NS + "\"><si><t>Family</t></si><si><t>Sharma</t>"
+                        + "<rPh><t>phonetic</t></rPh></si></sst>",
+                "<worksheet xmlns=\"" + SHEET_NS + "\"><sheetData>"
+                        + "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c></row>"
+                        + "<row r=\"2\"><c r=\"A2\" t=\"s\"><v>1</v></c>"
+                        + "<c r=\"B2\" t=\"inlineStr\"><is><t>Asha</t></is></c>"
+                        + "<c r=\"C2\"><v>9.87654321E9</v></c>"
+                        + "<c r=\"D2\" t=\"b\"><v>1</v></c></row>"
+                        + "</sheetData></worksheet>");
+
+        try (XlsxRowReader reader = new XlsxRowReader(file)) {
+            assertThat(reader.next()).containsExactly("Family");
+            assertThat(reader.rowNumber()).isEqualTo(1);
+            assertThat(reader.next()).containsExactly("Sharma", "Asha", "9876543210", "TRUE");
+            assertThat(reader.rowNumber()).isEqualTo(2);
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void fillsSkippedColumnsAndKeepsSheetRowNumbers() throws IOException {
+        Path file = workbook(null,
+                "<worksheet xmlns=\"" + SHEET_NS + "\"><sheetData>"
+                        + "<row r=\"3\"><c r=\"A3\" t=\"inlineStr\"><is><t>x</t></is></c>"
+                        + "<c r=\"C3\"><v>42</v></c></row>"
+                        + "</sheetData></worksheet>");
+
+        try (XlsxRowReader reader = new XlsxRowReader(file)) {
+            assertThat(reader.next()).containsExactly("x", "", "42");
+            assertThat(reader.rowNumber()).isEqualTo(3);
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void rejectsWorkbookWithoutWorksheet() throws IOException {
+        Path file = dir.resolve("empty.xlsx");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            put(zip, "[Content_Types].xml", "<Types/>");
+        }
+
+        assertThatThrownBy(() -> new XlsxRowReader(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("no worksheet");
+    }
+
+    private Path workbook(String sharedStrings, String sheet) throws IOException {
+        Path file = dir.resolve("guests.xlsx");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            if (sharedStrings != null) {
+                put(zip, "xl/sharedStrings.xml", sharedStrings);
+            }
+            put(zip, "xl/worksheets/sheet1.xml", sheet);
+        }
+        return file;
+    }
+
+    private static void put(ZipOutputStream zip, String name, String xml) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(xml.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,62 @@
+package com.wedknots.web;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A legacy session guestId is honoured only for guest sessions
+ */
+class GuestContextArgumentResolverTest {
+    private GuestContextArgumentResolver resolver;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new GuestContextArgumentResolver();
+        request = new MockHttpServletRequest();
+        request.getSession().setAttribute("guestId", 42L);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void guestSessionFallsBackToSessionGuestId() {
+        authenticate("ROLE_GUEST");
+
+        assertThat(resolve().getGuestId()).isEqualTo(42L);
+    }
+
+    @Test
+    void hostSessionIgnoresSessionGuestId() {
+        authenticate("ROLE_HOST");
+
+        assertThat(resolve().getGuestId()).isNull();
+    }
+
+    @Test
+    void anonymousSessionIgnoresSessionGuestId() {
+        assertThat(resolve().getGuestId()).isNull();
+    }
+
+    private void authenticate(String role) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user", null, List.of(new SimpleGrantedAuthority(role))));
+    }
+
+    private GuestContext resolve() {
+        return (GuestContext) resolver.resolveArgument(null, null, new ServletWebRequest(request), null);
+    }
+}